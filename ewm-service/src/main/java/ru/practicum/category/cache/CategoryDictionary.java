@@ -0,0 +1,88 @@
+package ru.practicum.category.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mapstruct.Named;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.practicum.category.mapper.CategoryMapper;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.model.CategoryDto;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.transaction.AfterCommit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Справочник категорий в памяти: id → категория. Загружается целиком при старте, изменения категорий через
+ * сервис применяются после коммита заменой всей карты, поэтому чтение идёт без блокировок и без запросов к базе.
+ * Категорию, созданную другим экземпляром сервиса, справочник не знает, пока её не запросят из базы.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryDictionary implements SmartInitializingSingleton {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+
+    private volatile Map<Long, CategoryDto> categories = Map.of();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Category::getId, categoryMapper::toCategoryDto));
+        log.info("Справочник категорий загружен: {}", categories.size());
+    }
+
+    public boolean contains(Long catId) {
+        return categories.containsKey(catId);
+    }
+
+    public Optional<CategoryDto> find(Long catId) {
+        return Optional.ofNullable(categories.get(catId)).map(this::copy);
+    }
+
+    /**
+     * Категория события для ответа: по id из справочника, так что ленивая связь события не загружается.
+     */
+    @Named("fromDictionary")
+    public CategoryDto toDto(Category category) {
+        if (category == null) {
+            return null;
+        }
+        CategoryDto dto = categories.get(category.getId());
+        return dto != null ? copy(dto) : categoryMapper.toCategoryDto(category);
+    }
+
+    public void onSaved(Category category) {
+        CategoryDto dto = categoryMapper.toCategoryDto(category);
+        afterCommit(next -> next.put(dto.getId(), dto));
+    }
+
+    public void onDeleted(Long catId) {
+        afterCommit(next -> next.remove(catId));
+    }
+
+    private void afterCommit(Consumer<Map<Long, CategoryDto>> change) {
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private synchronized void apply(Consumer<Map<Long, CategoryDto>> change) {
+        Map<Long, CategoryDto> next = new HashMap<>(categories);
+        change.accept(next);
+        categories = Map.copyOf(next);
+    }
+
+    private CategoryDto copy(CategoryDto dto) {
+        return new CategoryDto(dto.getId(), dto.getName());
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.category.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.category.model.CategoryDto;
@@ -16,7 +17,12 @@ public class PublicCategoryController {
     @GetMapping
     public List<CategoryDto> getCategories(
             @RequestParam(defaultValue = "0") int from,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
+        if (cursor != null) {
+            return categoryService.getCategories(cursor, size).writeTo(response);
+        }
         return categoryService.getCategories(from, size);
     }
 
@@ -16,4 +16,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     @Query(value = "SELECT * FROM categories ORDER BY id LIMIT :size OFFSET :from", nativeQuery = true)
     List<Category> findWithOffset(@Param("from") int from, @Param("size") int size);
+
+    @Query("SELECT c FROM Category c WHERE c.id > :afterId ORDER BY c.id LIMIT :size")
+    List<Category> findAfter(@Param("afterId") long afterId, @Param("size") int size);
 }
@@ -3,6 +3,7 @@ package ru.practicum.category.service;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.model.CategoryDto;
 import ru.practicum.category.model.NewCategoryDto;
+import ru.practicum.pagination.CursorPage;
 
 import java.util.List;
 
@@ -19,4 +20,6 @@ public interface CategoryService {
     CategoryDto getCategoryById(Long catId);
 
     List<CategoryDto> getCategories(int from, int size);
+
+    CursorPage<CategoryDto> getCategories(String cursor, int size);
 }
\ No newline at end of file
@@ -3,14 +3,18 @@ package ru.practicum.category.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.practicum.category.cache.CategoryDictionary;
 import ru.practicum.category.mapper.CategoryMapper;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.model.CategoryDto;
 import ru.practicum.category.model.NewCategoryDto;
 import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.compilation.cache.CompilationCache;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.pagination.PageCursor;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +28,8 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
     private final EventRepository eventRepository;
+    private final CompilationCache compilationCache;
+    private final CategoryDictionary categoryDictionary;
 
     @Override
     public CategoryDto create(NewCategoryDto newCategoryDto) {
@@ -33,6 +39,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         Category category = categoryMapper.toCategory(newCategoryDto);
         Category createdCategory = categoryRepository.save(category);
+        categoryDictionary.onSaved(createdCategory);
 
         log.info("Категория добавлена: {}", createdCategory.getName());
         return categoryMapper.toCategoryDto(createdCategory);
@@ -40,7 +47,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public void delete(Long catId) {
-        Category category = getEntityById(catId);
+        Category category = findEntity(catId);
 
         boolean hasEvents = eventRepository.existsByCategoryId(catId);
         if (hasEvents) {
@@ -48,12 +55,13 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.deleteById(catId);
+        categoryDictionary.onDeleted(catId);
         log.info("Категория '{}' удалена.", category.getName());
     }
 
     @Override
     public CategoryDto update(Long catId, NewCategoryDto newCategoryDto) {
-        Category existing = getEntityById(catId);
+        Category existing = findEntity(catId);
 
         Optional<Category> categoryByName = categoryRepository.findByName(newCategoryDto.getName());
 
@@ -63,22 +71,28 @@ public class CategoryServiceImpl implements CategoryService {
 
         existing.setName(newCategoryDto.getName());
         Category updated = categoryRepository.save(existing);
+        categoryDictionary.onSaved(updated);
+        compilationCache.onCategoryChanged(catId);
 
         log.info("Данные категории '{}' изменены", updated.getName());
         return categoryMapper.toCategoryDto(updated);
     }
 
+    /**
+     * Известная справочнику категория возвращается ссылкой без запроса к базе: событию для связи нужен только id.
+     */
     @Override
     public Category getEntityById(Long catId) {
-        return categoryRepository.findById(catId)
-                .orElseThrow(() ->
-                        new NotFoundException("Категория не найдена или недоступна"));
+        if (categoryDictionary.contains(catId)) {
+            return categoryRepository.getReferenceById(catId);
+        }
+        return findEntity(catId);
     }
 
     @Override
     public CategoryDto getCategoryById(Long catId) {
-        Category category = getEntityById(catId);
-        return categoryMapper.toCategoryDto(category);
+        return categoryDictionary.find(catId)
+                .orElseGet(() -> categoryMapper.toCategoryDto(findEntity(catId)));
     }
 
     @Override
@@ -89,4 +103,23 @@ public class CategoryServiceImpl implements CategoryService {
                 .collect(Collectors.toList());
 
     }
+
+    @Override
+    public CursorPage<CategoryDto> getCategories(String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        List<Category> categories = categoryRepository.findAfter(after == null ? 0 : after.id(),
+                CursorPage.rowsToFetch(size));
+        return CursorPage.of(categories, size, category -> PageCursor.of(null, category.getId()),
+                categoryMapper::toCategoryDto);
+    }
+
+    private Category findEntity(Long catId) {
+        Category category = categoryRepository.findById(catId)
+                .orElseThrow(() ->
+                        new NotFoundException("Категория не найдена или недоступна"));
+        if (!categoryDictionary.contains(catId)) {
+            categoryDictionary.onSaved(category);
+        }
+        return category;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package ru.practicum.compilation.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.compilation.mapper.CompilationMapper;
+import ru.practicum.compilation.model.Compilation;
+import ru.practicum.compilation.model.CompilationDto;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventCounters;
+import ru.practicum.event.model.EventShortDto;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.views.EventViewsEnricher;
+import ru.practicum.transaction.AfterCommit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш готовых ответов публичного API подборок: страниц {@code GET /compilations} по (pinned, from, size)
+ * и подборок {@code GET /compilations/{compId}} по id.
+ * <p>
+ * Записи живут долго и сбрасываются точечно после коммита изменения: подборки, события из неё, категории
+ * или инициатора события. Просмотры и счётчики заявок и комментариев меняются постоянно, поэтому перечитываются
+ * отдельно — не чаще раза в {@code live-ttl} на запись, одним запросом к базе и одним к сервису статистики.
+ * Метрики кэша публикуются в actuator под именем {@value #CACHE_NAME}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompilationCache {
+
+    static final String CACHE_NAME = "compilations";
+
+    private final CompilationMapper compilationMapper;
+    private final EventRepository eventRepository;
+    private final EventViewsEnricher eventViewsEnricher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ewm.compilations.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ewm.compilations.cache.maximum-size:1000}")
+    private long maximumSize;
+
+    @Value("${ewm.compilations.cache.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    @Value("${ewm.compilations.cache.live-ttl:30s}")
+    private Duration liveTtl;
+
+    /**
+     * Растёт при каждом сбросе: запись, загрузка которой пересеклась со сбросом, в кэше не остаётся.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Cache<Key, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Кэш подборок включён: размер {}, срок жизни {}, просмотры и счётчики обновляются через {}",
+                maximumSize, expireAfterWrite, liveTtl);
+    }
+
+    public List<CompilationDto> getPage(Boolean pinned, int from, int size, Supplier<List<Compilation>> loader) {
+        return get(new PageKey(pinned, from, size), loader).compilations();
+    }
+
+    public CompilationDto get(Long compId, Supplier<Compilation> loader) {
+        return get(new IdKey(compId), () -> List.of(loader.get())).compilations().getFirst();
+    }
+
+    public void onCompilationCreated(Long compId, Boolean pinned) {
+        invalidateAfterCommit((key, entry) -> switch (key) {
+            case IdKey idKey -> false;
+            case PageKey pageKey -> pageKey.matches(pinned) && entry.isShiftedBy(compId, pageKey.size());
+        });
+    }
+
+    /**
+     * Страницы, где подборка остаётся, сбрасываются, только если она на них есть. Если подборка перешла
+     * из одного фильтра pinned в другой, в обоих сбрасываются страницы, на которые сдвигается порядок.
+     */
+    public void onCompilationUpdated(Long compId, Boolean pinnedBefore, Boolean pinnedAfter) {
+        invalidateAfterCommit((key, entry) -> switch (key) {
+            case IdKey idKey -> idKey.compId().equals(compId);
+            case PageKey pageKey -> pageKey.matches(pinnedBefore) == pageKey.matches(pinnedAfter)
+                    ? pageKey.matches(pinnedBefore) && entry.containsCompilation(compId)
+                    : entry.isShiftedBy(compId, pageKey.size());
+        });
+    }
+
+    public void onCompilationDeleted(Long compId, Boolean pinned) {
+        invalidateAfterCommit((key, entry) -> switch (key) {
+            case IdKey idKey -> idKey.compId().equals(compId);
+            case PageKey pageKey -> pageKey.matches(pinned) && entry.isShiftedBy(compId, pageKey.size());
+        });
+    }
+
+    public void onEventChanged(Long eventId) {
+        invalidateEvents(event -> eventId.equals(event.getId()));
+    }
+
+    public void onCategoryChanged(Long categoryId) {
+        invalidateEvents(event -> categoryId.equals(event.getCategory().getId()));
+    }
+
+    public void onUserDeleted(Long userId) {
+        invalidateEvents(event -> userId.equals(event.getInitiator().getId()));
+    }
+
+    private Entry get(Key key, Supplier<List<Compilation>> loader) {
+        if (cache == null) {
+            return render(loader.get());
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            // Загрузка и запрос просмотров идут вне вычисления Caffeine, чтобы не держать его блокировку
+            long seen = generation.get();
+            entry = render(loader.get());
+            cache.asMap().putIfAbsent(key, entry);
+            if (generation.get() != seen) {
+                cache.asMap().remove(key, entry);
+            }
+        } else if (entry.isStale(liveTtl)) {
+            Entry refreshed = refreshLive(entry);
+            cache.asMap().replace(key, entry, refreshed);
+            entry = refreshed;
+        }
+        return entry;
+    }
+
+    private Entry render(List<Compilation> compilations) {
+        Map<Long, LocalDateTime> publishedOn = new HashMap<>();
+        for (Compilation compilation : compilations) {
+            for (Event event : compilation.getEvents()) {
+                if (event.getPublishedOn() != null) {
+                    publishedOn.put(event.getId(), event.getPublishedOn());
+                }
+            }
+        }
+        Map<Long, Integer> views = eventViewsEnricher.getViews(publishedOn);
+        List<CompilationDto> dtos = compilations.stream()
+                .map(compilationMapper::toDto)
+                .toList();
+        for (CompilationDto dto : dtos) {
+            for (EventShortDto event : dto.getEvents()) {
+                event.setViews(views.getOrDefault(event.getId(), 0));
+            }
+        }
+        return new Entry(dtos, publishedOn, System.nanoTime());
+    }
+
+    /**
+     * Отдаваемые из кэша DTO не меняются: свежие просмотры и счётчики попадают в новые копии.
+     */
+    private Entry refreshLive(Entry entry) {
+        Set<Long> eventIds = entry.compilations().stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .map(EventShortDto::getId)
+                .collect(Collectors.toSet());
+        if (eventIds.isEmpty()) {
+            return new Entry(entry.compilations(), entry.publishedOn(), System.nanoTime());
+        }
+        Map<Long, EventCounters> counters = eventRepository.findCounters(eventIds).stream()
+                .collect(Collectors.toMap(EventCounters::id, Function.identity()));
+        Map<Long, Integer> views = eventViewsEnricher.getViews(entry.publishedOn());
+
+        List<CompilationDto> dtos = entry.compilations().stream()
+                .map(compilation -> CompilationDto.builder()
+                        .id(compilation.getId())
+                        .pinned(compilation.getPinned())
+                        .title(compilation.getTitle())
+                        .events(compilation.getEvents().stream()
+                                .map(event -> withLive(event, counters.get(event.getId()),
+                                        views.getOrDefault(event.getId(), 0)))
+                                .toList())
+                        .build())
+                .toList();
+        return new Entry(dtos, entry.publishedOn(), System.nanoTime());
+    }
+
+    private EventShortDto withLive(EventShortDto event, EventCounters counters, int views) {
+        return EventShortDto.builder()
+                .annotation(event.getAnnotation())
+                .category(event.getCategory())
+                .confirmedRequests(counters != null ? counters.confirmedRequests() : event.getConfirmedRequests())
+                .eventDate(event.getEventDate())
+                .id(event.getId())
+                .initiator(event.getInitiator())
+                .paid(event.getPaid())
+                .requestModeration(event.getRequestModeration())
+                .title(event.getTitle())
+                .views(views)
+                .commentsCount(counters != null ? counters.commentsCount() : event.getCommentsCount())
+                .build();
+    }
+
+    private void invalidateEvents(Predicate<EventShortDto> affected) {
+        invalidateAfterCommit((key, entry) -> entry.compilations().stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .anyMatch(affected));
+    }
+
+    private void invalidateAfterCommit(BiPredicate<Key, Entry> affected) {
+        if (cache != null) {
+            AfterCommit.run(() -> invalidate(affected));
+        }
+    }
+
+    private void invalidate(BiPredicate<Key, Entry> affected) {
+        generation.incrementAndGet();
+        cache.asMap().entrySet().removeIf(e -> affected.test(e.getKey(), e.getValue()));
+    }
+
+    private sealed interface Key permits PageKey, IdKey {
+    }
+
+    private record PageKey(Boolean pinned, int from, int size) implements Key {
+        boolean matches(Boolean compilationPinned) {
+            return pinned == null || pinned.equals(compilationPinned);
+        }
+    }
+
+    private record IdKey(Long compId) implements Key {
+    }
+
+    /**
+     * @param publishedOn даты публикации опубликованных событий записи — по ним запрашиваются просмотры
+     * @param refreshedAt когда просмотры и счётчики были прочитаны, по {@link System#nanoTime()}
+     */
+    private record Entry(List<CompilationDto> compilations, Map<Long, LocalDateTime> publishedOn, long refreshedAt) {
+
+        boolean isStale(Duration ttl) {
+            return System.nanoTime() - refreshedAt >= ttl.toNanos();
+        }
+
+        boolean containsCompilation(Long compId) {
+            return compilations.stream().anyMatch(compilation -> compId.equals(compilation.getId()));
+        }
+
+        /**
+         * Страница отсортирована по убыванию id: появление или исчезновение подборки сдвигает её,
+         * если подборка стоит на ней или раньше её конца, а также если страница неполная или пустая.
+         */
+        boolean isShiftedBy(Long compId, int size) {
+            return compilations.isEmpty() || compilations.size() < size
+                    || compilations.getLast().getId() <= compId;
+        }
+    }
+}
@@ -3,7 +3,14 @@ package ru.practicum.compilation.repository;
 import ru.practicum.compilation.model.Compilation;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CompilationRepositoryCustom {
+    /**
+     * Страница подборок с уже загруженными событиями, их категориями и инициаторами:
+     * два запроса независимо от размера страницы и числа событий.
+     */
     List<Compilation> findCompilations(Boolean pinned, int from, int size);
-}
\ No newline at end of file
+
+    Optional<Compilation> findWithEventsById(Long compId);
+}
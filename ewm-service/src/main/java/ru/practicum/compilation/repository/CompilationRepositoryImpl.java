@@ -1,14 +1,15 @@
 package ru.practicum.compilation.repository;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import ru.practicum.compilation.model.Compilation;
+import ru.practicum.event.model.Event;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
@@ -18,18 +19,52 @@ public class CompilationRepositoryImpl implements CompilationRepositoryCustom {
     @Override
     public List<Compilation> findCompilations(Boolean pinned, int from, int size) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Compilation> query = cb.createQuery(Compilation.class);
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
         Root<Compilation> root = query.from(Compilation.class);
 
         if (pinned != null) {
             query.where(cb.equal(root.get("pinned"), pinned));
         }
 
+        query.select(root.get("id"));
         query.orderBy(cb.desc(root.get("id")));
 
-        return entityManager.createQuery(query)
+        List<Long> ids = entityManager.createQuery(query)
                 .setFirstResult(from)
                 .setMaxResults(size)
                 .getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Compilation> byId = findWithEventsByIds(ids).stream()
+                .collect(Collectors.toMap(Compilation::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Optional<Compilation> findWithEventsById(Long compId) {
+        return findWithEventsByIds(List.of(compId)).stream().findFirst();
+    }
+
+    /**
+     * Постраничная выборка идёт по одним id, а события с категориями и инициаторами догружаются
+     * одним запросом по списку id: join коллекции размножает строки, и LIMIT по нему резал бы подборки.
+     */
+    private List<Compilation> findWithEventsByIds(Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Compilation> query = cb.createQuery(Compilation.class);
+        Root<Compilation> root = query.from(Compilation.class);
+
+        Fetch<Compilation, Event> events = root.fetch("events", JoinType.LEFT);
+        events.fetch("category", JoinType.LEFT);
+        events.fetch("initiator", JoinType.LEFT);
+
+        query.select(root).distinct(true).where(root.get("id").in(ids));
+
+        return entityManager.createQuery(query).getResultList();
     }
-}
\ No newline at end of file
+}
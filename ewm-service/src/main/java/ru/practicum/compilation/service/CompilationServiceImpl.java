@@ -6,21 +6,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.StatsClient;
+import ru.practicum.compilation.cache.CompilationCache;
 import ru.practicum.compilation.mapper.CompilationMapper;
 import ru.practicum.compilation.model.Compilation;
 import ru.practicum.compilation.model.CompilationDto;
 import ru.practicum.compilation.model.NewCompilationDto;
 import ru.practicum.compilation.model.UpdateCompilationRequest;
 import ru.practicum.compilation.repository.CompilationRepository;
-import ru.practicum.dto.ViewStatsDto;
 import ru.practicum.event.model.Event;
 import ru.practicum.event.service.EventService;
 import ru.practicum.exception.NotFoundException;
 
-import java.time.LocalDateTime;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -29,7 +28,7 @@ public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final CompilationMapper compilationMapper;
     private final EventService eventService;
-    private final StatsClient statsClient;
+    private final CompilationCache compilationCache;
     private final EntityManager entityManager;
 
     @Override
@@ -44,6 +43,7 @@ public class CompilationServiceImpl implements CompilationService {
 
         compilation.setEvents(events);
         Compilation saved = compilationRepository.save(compilation);
+        compilationCache.onCompilationCreated(saved.getId(), saved.getPinned());
 
         log.info("Подборка добавлена");
         return compilationMapper.toDto(saved);
@@ -53,6 +53,7 @@ public class CompilationServiceImpl implements CompilationService {
     @Override
     public CompilationDto update(Long compId, UpdateCompilationRequest updateCompilationRequest) {
         Compilation existing = getEntityById(compId);
+        Boolean pinnedBefore = existing.getPinned();
 
         compilationMapper.updateCompilationFromDto(updateCompilationRequest, existing);
 
@@ -62,6 +63,7 @@ public class CompilationServiceImpl implements CompilationService {
         }
 
         compilationRepository.save(existing);
+        compilationCache.onCompilationUpdated(compId, pinnedBefore, existing.getPinned());
 
         log.info("Подборка обновлена");
         return compilationMapper.toDto(existing);
@@ -72,6 +74,7 @@ public class CompilationServiceImpl implements CompilationService {
         Compilation compilation = getEntityById(compId);
         log.info("Подборка удалена");
         compilationRepository.delete(compilation);
+        compilationCache.onCompilationDeleted(compId, compilation.getPinned());
     }
 
     @Override
@@ -84,61 +87,14 @@ public class CompilationServiceImpl implements CompilationService {
     @Override
     @Transactional(readOnly = true)
     public List<CompilationDto> getAllCompilations(Boolean pinned, int from, int size, HttpServletRequest request) {
-        List<Compilation> compilations = compilationRepository.findCompilations(pinned, from, size);
-        Map<Long, Integer> viewsMap = getAllViewsForCompilations(compilations);
-
-        compilations.forEach(compilation -> {
-            compilation.getEvents().forEach(event -> {
-                event.setViews(viewsMap.getOrDefault(event.getId(), 0));
-            });
-        });
-
-        return compilations.stream()
-                .map(compilationMapper::toDto)
-                .toList();
+        return compilationCache.getPage(pinned, from, size,
+                () -> compilationRepository.findCompilations(pinned, from, size));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CompilationDto getCompilationById(Long compId, HttpServletRequest request) {
-        Compilation compilation = getEntityById(compId);
-        Map<Long, Integer> viewsMap = getAllViewsForCompilations(List.of(compilation));
-
-        compilation.getEvents().forEach(event ->
-                event.setViews(viewsMap.getOrDefault(event.getId(), 0))
-        );
-
-        return compilationMapper.toDto(compilation);
-    }
-
-    private Map<Long, Integer> getAllViewsForCompilations(List<Compilation> compilations) {
-        if (compilations == null || compilations.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        List<Event> allEvents = compilations.stream()
-                .flatMap(compilation -> compilation.getEvents().stream())
-                .toList();
-
-        if (allEvents.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        List<String> uris = allEvents.stream()
-                .map(event -> "/events/" + event.getId())
-                .distinct()
-                .toList();
-
-        LocalDateTime start = allEvents.stream()
-                .map(Event::getPublishedOn)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now().minusMonths(1));
-
-        List<ViewStatsDto> stats = statsClient.getStats(start, LocalDateTime.now(), uris, false);
-
-        return stats.stream().collect(Collectors.toMap(
-                s -> Long.parseLong(s.getUri().replace("/events/", "")),
-                s -> s.getHits().intValue()
-        ));
+        return compilationCache.get(compId, () -> compilationRepository.findWithEventsById(compId)
+                .orElseThrow(() -> new NotFoundException("Подборка не найдена или недоступна")));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.event.comment.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -24,7 +25,11 @@ public class AdminCommentController {
 
     @GetMapping
     public List<CommentFullDto> getCommentsForModeration(
-            @Valid @ModelAttribute AdminCommentSearchRequest adminCommentSearchRequest) {
+            @Valid @ModelAttribute AdminCommentSearchRequest adminCommentSearchRequest,
+            HttpServletResponse response) {
+        if (adminCommentSearchRequest.getCursor() != null) {
+            return commentService.getCommentsPageForModeration(adminCommentSearchRequest).writeTo(response);
+        }
         return commentService.getCommentsForModeration(adminCommentSearchRequest);
     }
 }
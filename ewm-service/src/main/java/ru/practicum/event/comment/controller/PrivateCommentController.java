@@ -1,5 +1,6 @@
 package ru.practicum.event.comment.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -44,7 +45,11 @@ public class PrivateCommentController {
     @GetMapping
     public List<CommentFullDto> getOwnComments(
             @PathVariable Long userId,
-            @Valid @ModelAttribute UserCommentSearchRequest request) {
+            @Valid @ModelAttribute UserCommentSearchRequest request,
+            HttpServletResponse response) {
+        if (request.getCursor() != null) {
+            return commentService.getOwnCommentsPage(userId, request).writeTo(response);
+        }
         return commentService.getOwnComments(userId, request);
     }
 }
\ No newline at end of file
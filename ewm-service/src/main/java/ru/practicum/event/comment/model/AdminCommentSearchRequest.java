@@ -31,6 +31,11 @@ public class AdminCommentSearchRequest {
     @PositiveOrZero
     private int size = 10;
 
+    /**
+     * Курсор из заголовка X-Next-Cursor; при наличии (пустой — первая страница) {@code from} не используется.
+     */
+    private String cursor;
+
     @AssertTrue(message = "Дата начала не может быть позже даты окончания")
     public boolean isValidRange() {
         return rangeStart == null || rangeEnd == null || !rangeStart.isAfter(rangeEnd);
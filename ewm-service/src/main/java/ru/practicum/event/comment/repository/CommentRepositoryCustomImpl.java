@@ -10,6 +10,9 @@ import org.springframework.stereotype.Repository;
 import ru.practicum.event.comment.model.AdminCommentSearchRequest;
 import ru.practicum.event.comment.model.Comment;
 import ru.practicum.event.comment.model.UserCommentSearchRequest;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.pagination.Keyset;
+import ru.practicum.pagination.PageCursor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -43,13 +46,18 @@ public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
             predicates.add(cb.lessThanOrEqualTo(root.get("created"), req.getRangeEnd()));
         }
 
+        PageCursor after = PageCursor.decode(req.getCursor());
+        if (after != null) {
+            predicates.add(createdAfter(cb, root, after));
+        }
+
         query.select(root)
                 .where(predicates.toArray(new Predicate[0]))
-                .orderBy(cb.desc(root.get("created")));
+                .orderBy(cb.desc(root.get("created")), cb.desc(root.get("id")));
 
         return entityManager.createQuery(query)
-                .setFirstResult(req.getFrom())
-                .setMaxResults(req.getSize())
+                .setFirstResult(Keyset.firstResult(req.getCursor(), req.getFrom()))
+                .setMaxResults(CursorPage.rowsToFetch(req.getSize()))
                 .getResultList();
     }
 
@@ -73,12 +81,21 @@ public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
             predicates.add(cb.lessThanOrEqualTo(root.get("created"), request.getRangeEnd()));
         }
 
+        PageCursor after = PageCursor.decode(request.getCursor());
+        if (after != null) {
+            predicates.add(createdAfter(cb, root, after));
+        }
+
         query.where(cb.and(predicates.toArray(new Predicate[0])));
-        query.orderBy(cb.desc(root.get("created")));
+        query.orderBy(cb.desc(root.get("created")), cb.desc(root.get("id")));
 
         return entityManager.createQuery(query)
-                .setFirstResult(request.getFrom())
-                .setMaxResults(request.getSize())
+                .setFirstResult(Keyset.firstResult(request.getCursor(), request.getFrom()))
+                .setMaxResults(CursorPage.rowsToFetch(request.getSize()))
                 .getResultList();
     }
-}
\ No newline at end of file
+
+    private Predicate createdAfter(CriteriaBuilder cb, Root<Comment> root, PageCursor after) {
+        return Keyset.after(cb, root.get("created"), true, after.dateTimeKey(), root.get("id"), true, after.id());
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.event.comment.service;
 
 import ru.practicum.event.comment.model.*;
+import ru.practicum.pagination.CursorPage;
 
 import java.util.List;
 
@@ -18,5 +19,9 @@ public interface CommentService {
 
     List<CommentFullDto> getCommentsForModeration(AdminCommentSearchRequest adminCommentSearchRequest);
 
+    CursorPage<CommentFullDto> getCommentsPageForModeration(AdminCommentSearchRequest adminCommentSearchRequest);
+
     List<CommentFullDto> getOwnComments(Long userId, UserCommentSearchRequest userCommentSearchRequest);
+
+    CursorPage<CommentFullDto> getOwnCommentsPage(Long userId, UserCommentSearchRequest userCommentSearchRequest);
 }
\ No newline at end of file
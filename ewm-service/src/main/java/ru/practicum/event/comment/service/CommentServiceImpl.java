@@ -13,6 +13,8 @@ import ru.practicum.event.service.EventService;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.ForbiddenException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.pagination.PageCursor;
 import ru.practicum.user.model.User;
 import ru.practicum.user.service.UserService;
 
@@ -55,7 +57,7 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public CommentDto updateComment(Long userId, Long commentId, UpdateCommentRequest updateCommentRequest) {
         Comment existing = getEntityById(commentId);
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
 
         if (!existing.getAuthor().getId().equals(userId)) {
             throw new ForbiddenException("Только автор комментария может его редактировать.");
@@ -71,7 +73,7 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public void deleteComment(Long userId, Long commentId) {
         Comment existing = getEntityById(commentId);
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
 
         if (!existing.getAuthor().getId().equals(userId)) {
             throw new ForbiddenException("Только автор комментария может его удалить.");
@@ -97,17 +99,29 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     public List<CommentFullDto> getCommentsForModeration(AdminCommentSearchRequest request) {
+        return getCommentsPageForModeration(request).items();
+    }
+
+    @Override
+    public CursorPage<CommentFullDto> getCommentsPageForModeration(AdminCommentSearchRequest request) {
         List<Comment> comments = commentRepository.findByAdminFilter(request);
-        return comments.stream()
-                .map(commentMapper::toFullDto)
-                .toList();
+        return CursorPage.of(comments, request.getSize(), CommentServiceImpl::cursorOf, commentMapper::toFullDto);
     }
 
     @Override
     public List<CommentFullDto> getOwnComments(Long userId, UserCommentSearchRequest userCommentSearchRequest) {
+        return getOwnCommentsPage(userId, userCommentSearchRequest).items();
+    }
+
+    @Override
+    public CursorPage<CommentFullDto> getOwnCommentsPage(Long userId,
+                                                         UserCommentSearchRequest userCommentSearchRequest) {
         List<Comment> comments = commentRepository.findByUserFilter(userId, userCommentSearchRequest);
-        return comments.stream()
-                .map(commentMapper::toFullDto)
-                .toList();
+        return CursorPage.of(comments, userCommentSearchRequest.getSize(), CommentServiceImpl::cursorOf,
+                commentMapper::toFullDto);
+    }
+
+    private static PageCursor cursorOf(Comment comment) {
+        return PageCursor.of(comment.getCreated(), comment.getId());
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package ru.practicum.event.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -17,7 +18,11 @@ public class AdminEventController {
     private final EventService eventService;
 
     @GetMapping
-    public List<EventFullDto> getEventsByParams(@ModelAttribute AdminEventSearchRequest params) {
+    public List<EventFullDto> getEventsByParams(@ModelAttribute AdminEventSearchRequest params,
+                                                HttpServletResponse response) {
+        if (params.getCursor() != null) {
+            return eventService.getEventsPageByParams(params).writeTo(response);
+        }
         return eventService.getEventsByParams(params);
     }
 
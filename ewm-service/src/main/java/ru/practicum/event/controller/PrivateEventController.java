@@ -1,5 +1,6 @@
 package ru.practicum.event.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,7 +38,12 @@ public class PrivateEventController {
     public List<EventShortDto> getUserEvents(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int from,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
+        if (cursor != null) {
+            return eventService.getUserEvents(userId, cursor, size).writeTo(response);
+        }
         return eventService.getUserEvents(userId, from, size);
     }
 
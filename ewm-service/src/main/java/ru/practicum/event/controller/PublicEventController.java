@@ -1,6 +1,7 @@
 package ru.practicum.event.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -22,7 +23,11 @@ public class PublicEventController {
     @GetMapping
     public List<EventShortDto> getPublicEvents(
             @Valid @ModelAttribute PublicEventSearchRequest request,
-            HttpServletRequest httpRequest) {
+            HttpServletRequest httpRequest,
+            HttpServletResponse response) {
+        if (request.getCursor() != null) {
+            return eventService.getPublicEventsPage(request, httpRequest).writeTo(response);
+        }
         return eventService.getPublicEvents(request, httpRequest);
     }
 
@@ -0,0 +1,21 @@
+package ru.practicum.event.counter;
+
+/**
+ * Денормализованные счётчики события.
+ */
+public enum EventCounter {
+    /** Подтверждённые заявки: от них зависит приём новых заявок, поэтому пишутся сразу. */
+    CONFIRMED_REQUESTS(false),
+    /** Комментарии: приращения можно копить и записывать одним UPDATE. */
+    COMMENTS(true);
+
+    private final boolean coalescable;
+
+    EventCounter(boolean coalescable) {
+        this.coalescable = coalescable;
+    }
+
+    public boolean isCoalescable() {
+        return coalescable;
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.event.counter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.repository.EventRepository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Изменяет счётчики события приращением прямо в базе ({@code UPDATE ... SET x = x + ?}), не читая и не
+ * перезаписывая всю строку, поэтому параллельные изменения не теряются. Значение не опускается ниже нуля.
+ * <p>
+ * При включённом объединении приращения счётчиков, допускающих задержку, копятся по событию и раз в
+ * {@code window} записываются одним UPDATE: поток комментариев к популярному событию не выстраивается
+ * в очередь за блокировкой строки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventCounterService {
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${ewm.counters.coalesce.enabled:false}")
+    private boolean coalesceEnabled;
+
+    @Value("${ewm.counters.coalesce.window:200ms}")
+    private Duration coalesceWindow;
+
+    private final Map<Key, Integer> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void init() {
+        if (!coalesceEnabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-counter-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long window = coalesceWindow.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, window, window, TimeUnit.MILLISECONDS);
+        log.info("Объединение приращений счётчиков событий включено, окно {}", coalesceWindow);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flush();
+        }
+    }
+
+    public void add(EventCounter counter, Long eventId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (coalesceEnabled && counter.isCoalescable()) {
+            pending.merge(new Key(counter, eventId), delta, Integer::sum);
+            return;
+        }
+        write(counter, eventId, delta);
+        refreshIfLoaded(eventId);
+    }
+
+    /**
+     * Записывает накопленные приращения, каждое событие — отдельной короткой транзакцией.
+     */
+    void flush() {
+        for (Key key : pending.keySet()) {
+            Integer delta = pending.remove(key);
+            if (delta == null || delta == 0) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(key.counter(), key.eventId(), delta));
+            } catch (RuntimeException e) {
+                log.warn("Не удалось записать приращение {} счётчика {} события id={}: {}",
+                        delta, key.counter(), key.eventId(), e.getMessage());
+                pending.merge(key, delta, Integer::sum);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка записи счётчиков событий: {}", e.getMessage());
+        }
+    }
+
+    private void write(EventCounter counter, Long eventId, int delta) {
+        switch (counter) {
+            case CONFIRMED_REQUESTS -> eventRepository.addConfirmedRequests(eventId, delta);
+            case COMMENTS -> eventRepository.addCommentsCount(eventId, delta);
+        }
+        log.debug("Счётчик {} события id={} изменён на {}", counter, eventId, delta);
+    }
+
+    /**
+     * Если событие уже загружено в текущую транзакцию, перечитывает его, чтобы дальше в ней было видно
+     * новое значение счётчика.
+     */
+    private void refreshIfLoaded(Long eventId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Event event = entityManager.getReference(Event.class, eventId);
+        if (entityManager.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(event)) {
+            entityManager.refresh(event);
+        }
+    }
+
+    private record Key(EventCounter counter, Long eventId) {
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.event.location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сетка координат для поиска событий рядом с точкой. Ячейка — 0.01° по широте и долготе (около километра),
+ * её номер хранится в {@code events.geo_cell}: строки сетки идут по широте, внутри строки номера идут подряд
+ * по долготе. Поэтому круг поиска покрывается одним диапазоном номеров на строку, а небольшой круг —
+ * списком ячеек; и то и другое выбирается по B-tree индексу, а точное расстояние проверяется уже у попавших
+ * в ячейки событий.
+ * <p>
+ * Расстояние считается в проекции на плоскость у центра поиска — для городских радиусов погрешность
+ * меньше процента. Поиск через 180-й меридиан не поддерживается.
+ */
+public final class GeoGrid {
+
+    public static final double KM_PER_DEGREE = 6371.0 * Math.PI / 180;
+
+    static final int CELLS_PER_DEGREE = 100;
+    static final int ROWS = 180 * CELLS_PER_DEGREE;
+    static final int COLUMNS = 360 * CELLS_PER_DEGREE;
+
+    /**
+     * Больше строк — один диапазон на всю полосу широт, чтобы не раздувать запрос.
+     */
+    private static final int MAX_ROW_RANGES = 64;
+
+    private GeoGrid() {
+    }
+
+    public static long cellOf(double lat, double lon) {
+        return (long) row(lat) * COLUMNS + column(lon);
+    }
+
+    /**
+     * Диапазоны номеров ячеек {@code [from, to]}, покрывающие круг радиусом {@code radiusKm} вокруг точки.
+     */
+    public static List<long[]> cellRanges(double lat, double lon, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        int minRow = row(lat - latDelta);
+        int maxRow = row(lat + latDelta);
+
+        // на дальнем от экватора краю круга градус долготы короче всего
+        double farLat = Math.min(90, Math.abs(lat) + latDelta);
+        double lonDelta = radiusKm / kmPerDegreeLon(farLat);
+        if (!(lonDelta < 180) || maxRow - minRow >= MAX_ROW_RANGES) {
+            return List.of(new long[]{(long) minRow * COLUMNS, (long) maxRow * COLUMNS + COLUMNS - 1});
+        }
+
+        int minColumn = column(lon - lonDelta);
+        int maxColumn = column(lon + lonDelta);
+        List<long[]> ranges = new ArrayList<>(maxRow - minRow + 1);
+        for (int row = minRow; row <= maxRow; row++) {
+            ranges.add(new long[]{(long) row * COLUMNS + minColumn, (long) row * COLUMNS + maxColumn});
+        }
+        return ranges;
+    }
+
+    /**
+     * Номера всех ячеек диапазонов либо {@code null}, если их больше {@code limit}.
+     */
+    public static List<Long> cells(List<long[]> ranges, int limit) {
+        List<Long> cells = new ArrayList<>();
+        for (long[] range : ranges) {
+            if (cells.size() + range[1] - range[0] + 1 > limit) {
+                return null;
+            }
+            for (long cell = range[0]; cell <= range[1]; cell++) {
+                cells.add(cell);
+            }
+        }
+        return cells;
+    }
+
+    public static double kmPerDegreeLon(double lat) {
+        return KM_PER_DEGREE * Math.cos(Math.toRadians(lat));
+    }
+
+    private static int row(double lat) {
+        return clamp((int) Math.floor((lat + 90) * CELLS_PER_DEGREE), ROWS);
+    }
+
+    private static int column(double lon) {
+        return clamp((int) Math.floor((lon + 180) * CELLS_PER_DEGREE), COLUMNS);
+    }
+
+    private static int clamp(int index, int count) {
+        return Math.max(0, Math.min(count - 1, index));
+    }
+}
@@ -1,21 +1,30 @@
 package ru.practicum.event.mapper;
 
 import org.mapstruct.*;
-import ru.practicum.category.mapper.CategoryMapper;
+import ru.practicum.category.cache.CategoryDictionary;
 import ru.practicum.event.model.*;
 import ru.practicum.user.mapper.UserMapper;
 
 @Mapper(componentModel = "spring",
-        uses = {CategoryMapper.class, UserMapper.class})
+        uses = {CategoryDictionary.class, UserMapper.class})
 public interface EventMapper {
 
     @Mapping(target = "category", ignore = true) // Игнорируем категорию
     Event toEvent(NewEventDto newEventDto);
 
+    @Mapping(target = "category", qualifiedByName = "fromDictionary")
     EventFullDto toEventFullDto(Event event);
 
+    @Mapping(target = "category", qualifiedByName = "fromDictionary")
     EventShortDto toEventShortDto(Event event);
 
+    @Mapping(target = "category.id", source = "categoryId")
+    @Mapping(target = "category.name", source = "categoryName")
+    @Mapping(target = "initiator.id", source = "initiatorId")
+    @Mapping(target = "initiator.name", source = "initiatorName")
+    @Mapping(target = "views", ignore = true)
+    EventShortDto toEventShortDto(EventShortView view);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "category", ignore = true) // Игнорируем категорию
     void updateEventFromDto(UpdateEventUserRequest dto, @MappingTarget Event event);
@@ -30,4 +30,9 @@ public class AdminEventSearchRequest {
 
     @PositiveOrZero
     private int size = 10;
+
+    /**
+     * Курсор из заголовка X-Next-Cursor; при наличии (пустой — первая страница) {@code from} не используется.
+     */
+    private String cursor;
 }
\ No newline at end of file
@@ -4,8 +4,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.validator.constraints.Length;
 import ru.practicum.category.model.Category;
+import ru.practicum.event.location.GeoGrid;
 import ru.practicum.event.location.Location;
 import ru.practicum.event.model.state.EventState;
 import ru.practicum.user.model.User;
@@ -17,6 +21,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 @Builder
 @Table(name = "events")
 public class Event {
@@ -79,6 +86,27 @@ public class Event {
     @Transient
     private int views;
 
+    /**
+     * Просмотры на момент последней синхронизации со статистикой. Нужны только для сортировки по просмотрам
+     * в базе; в ответах отдаются актуальные {@link #views}.
+     */
+    @Column(name = "synced_views", nullable = false)
+    private long syncedViews;
+
     @Column(name = "comments_count", nullable = false)
     private int commentsCount = 0;
+
+    /**
+     * Ячейка {@link GeoGrid} места проведения, пересчитывается при каждом сохранении.
+     */
+    @Column(name = "geo_cell")
+    private Long geoCell;
+
+    @PrePersist
+    @PreUpdate
+    void updateGeoCell() {
+        geoCell = location != null && location.getLat() != null && location.getLon() != null
+                ? GeoGrid.cellOf(location.getLat(), location.getLon())
+                : null;
+    }
 }
\ No newline at end of file
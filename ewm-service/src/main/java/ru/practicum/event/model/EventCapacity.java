@@ -0,0 +1,4 @@
+package ru.practicum.event.model;
+
+public record EventCapacity(int confirmedRequests, int participantLimit) {
+}
@@ -0,0 +1,4 @@
+package ru.practicum.event.model;
+
+public record EventCounters(Long id, int confirmedRequests, int commentsCount) {
+}
@@ -0,0 +1,24 @@
+package ru.practicum.event.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка публичного списка событий: только колонки {@link EventShortDto}, дата публикации
+ * для подсчёта просмотров и {@code syncedViews} для курсора при сортировке по просмотрам.
+ * Выбирается проекцией, мимо контекста персистентности.
+ */
+public record EventShortView(Long id,
+                             String annotation,
+                             Long categoryId,
+                             String categoryName,
+                             int confirmedRequests,
+                             LocalDateTime eventDate,
+                             Long initiatorId,
+                             String initiatorName,
+                             Boolean paid,
+                             Boolean requestModeration,
+                             String title,
+                             int commentsCount,
+                             LocalDateTime publishedOn,
+                             long syncedViews) {
+}
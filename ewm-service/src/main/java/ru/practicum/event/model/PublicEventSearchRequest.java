@@ -1,6 +1,8 @@
 package ru.practicum.event.model;
 
 import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -26,7 +28,25 @@ public class PublicEventSearchRequest {
 
     private Boolean onlyAvailable = false;
 
-    @Pattern(regexp = "EVENT_DATE|VIEWS|COMMENTS", message = "Неверный тип сортировки")
+    @DecimalMin("-90")
+    @DecimalMax("90")
+    private Double lat;
+
+    @DecimalMin("-180")
+    @DecimalMax("180")
+    private Double lon;
+
+    /**
+     * Радиус поиска вокруг {@code lat}/{@code lon} в километрах.
+     */
+    @Positive
+    private Double radius;
+
+    /**
+     * RELEVANCE — по релевантности запросу {@code text}; без {@code text} — как EVENT_DATE.
+     * DISTANCE — по расстоянию от {@code lat}/{@code lon}, ближайшие первыми.
+     */
+    @Pattern(regexp = "EVENT_DATE|VIEWS|COMMENTS|RELEVANCE|DISTANCE", message = "Неверный тип сортировки")
     private String sort = "EVENT_DATE";
 
     @PositiveOrZero
@@ -35,8 +55,23 @@ public class PublicEventSearchRequest {
     @Positive
     private int size = 10;
 
+    /**
+     * Курсор из заголовка X-Next-Cursor; при наличии (пустой — первая страница) {@code from} не используется.
+     */
+    private String cursor;
+
     @AssertTrue(message = "Дата начала не может быть позже даты окончания")
     public boolean isValidDateRange() {
         return rangeStart == null || rangeEnd == null || !rangeStart.isAfter(rangeEnd);
     }
+
+    @AssertTrue(message = "Для поиска рядом с точкой нужны lat, lon и radius")
+    public boolean isValidGeoFilter() {
+        boolean any = lat != null || lon != null || radius != null;
+        return any ? lat != null && lon != null && radius != null : !"DISTANCE".equals(sort);
+    }
+
+    public boolean hasGeoFilter() {
+        return lat != null && lon != null && radius != null;
+    }
 }
\ No newline at end of file
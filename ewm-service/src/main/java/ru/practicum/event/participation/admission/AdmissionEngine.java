@@ -0,0 +1,377 @@
+package ru.practicum.event.participation.admission;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.participation.mapper.ParticipationRequestMapper;
+import ru.practicum.event.participation.model.ParticipationRequest;
+import ru.practicum.event.participation.model.ParticipationRequestDto;
+import ru.practicum.event.participation.model.RequestState;
+import ru.practicum.event.participation.repository.ParticipationRequestRepository;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.user.model.User;
+import ru.practicum.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Приём заявок на участие в памяти процесса для событий без модерации с ограниченным числом мест.
+ * <p>
+ * По каждому событию хранится остаток мест и битовое множество пользователей, уже подавших заявку,
+ * поэтому повторные заявки и заявки на распроданное событие отклоняются без обращения к базе, а существование
+ * пользователя проверяется через {@link UserService#checkExists} (с включённым кэшем существования — тоже в памяти).
+ * Принятые заявки записываются фоновым потоком пачками: одна транзакция на пачку и одно приращение
+ * {@code confirmed_requests} на событие. Вызывающий поток ждёт записи своей пачки и получает заявку с id;
+ * ждать нужно вне транзакции, чтобы не занимать соединение, нужное фоновому потоку. Заявка, не дождавшаяся
+ * записи, отменяется, если её пачка ещё не начала писаться, иначе вызывающий дожидается результата записи.
+ * <p>
+ * При старте счётчики подтверждённых заявок сверяются с самими заявками. Состояние события, вытесненного
+ * после изменения, перечитывается из базы с учётом ещё не записанных заявок и их авторов. Заявка, которую
+ * отклонило ограничение уникальности в базе, возвращается как конфликт. Движок рассчитан на один экземпляр
+ * сервиса.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdmissionEngine implements SmartInitializingSingleton {
+
+    private final EventRepository eventRepository;
+    private final ParticipationRequestRepository requestRepository;
+    private final UserService userService;
+    private final ParticipationRequestMapper requestMapper;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ewm.admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ewm.admission.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ewm.admission.linger:5ms}")
+    private Duration linger;
+
+    @Value("${ewm.admission.await-timeout:5s}")
+    private Duration awaitTimeout;
+
+    private final ConcurrentHashMap<Long, EventSeats> seats = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> inFlight = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingAdmission> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        reconcile();
+        running = true;
+        writer = new Thread(this::runWriter, "admission-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Приём заявок в памяти включён: событий {}, пачка {}, ожидание {}", seats.size(), batchSize, linger);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Сверяет счётчики подтверждённых заявок предстоящих событий с фактическими заявками и загружает их в память.
+     * Вызывается до запуска записи, пока параллельных приращений счётчика нет.
+     */
+    void reconcile() {
+        List<AdmissionEvent> events = eventRepository.findAdmissionEvents(LocalDateTime.now());
+        for (AdmissionEvent event : events) {
+            seats.put(event.id(), transactionTemplate.execute(status -> {
+                int confirmed = (int) requestRepository.countByEventIdAndStatus(event.id(), RequestState.CONFIRMED);
+                if (confirmed != event.confirmedRequests()) {
+                    log.warn("Счётчик подтверждённых заявок события id={} расходился с заявками: {} вместо {}",
+                            event.id(), event.confirmedRequests(), confirmed);
+                    eventRepository.setConfirmedRequests(event.id(), confirmed);
+                }
+                return toSeats(event, confirmed);
+            }));
+        }
+    }
+
+    /**
+     * Принимает заявку, если событие обслуживается движком.
+     *
+     * @return пустой результат, если событие не обслуживается и заявку нужно оформить обычным путём
+     */
+    public Optional<ParticipationRequestDto> tryCreate(Long userId, Long eventId) {
+        // При open-in-view менеджер сущностей запроса держит полученное соединение до конца запроса, поэтому
+        // на время приёма он отвязывается от потока и чтения идут в собственных коротких транзакциях
+        Object requestEntityManager = TransactionSynchronizationManager.isActualTransactionActive()
+                ? null
+                : TransactionSynchronizationManager.unbindResourceIfPossible(entityManagerFactory);
+        try {
+            return admit(userId, eventId);
+        } finally {
+            if (requestEntityManager != null) {
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, requestEntityManager);
+            }
+        }
+    }
+
+    private Optional<ParticipationRequestDto> admit(Long userId, Long eventId) {
+        EventSeats state = seats.computeIfAbsent(eventId, this::load);
+        if (state == null || !state.isManaged()) {
+            return Optional.empty();
+        }
+
+        if (state.isSoldOut()) {
+            throw new ConflictException("Лимит участников события достигнут.");
+        }
+        if (state.hasRequester(userId)) {
+            throw new ConflictException("Запрос на участие уже имеется!");
+        }
+        if (state.getInitiatorId() == userId) {
+            throw new ConflictException("Инициатор события не может добавить запрос на участие в своём событии");
+        }
+        userService.checkExists(userId);
+        if (!state.claimRequester(userId)) {
+            throw new ConflictException("Запрос на участие уже имеется!");
+        }
+        if (!state.tryTakeSeat()) {
+            state.releaseRequester(userId);
+            throw new ConflictException("Лимит участников события достигнут.");
+        }
+
+        inFlight.compute(eventId, (id, users) -> {
+            Set<Long> pendingUsers = users == null ? ConcurrentHashMap.newKeySet() : users;
+            pendingUsers.add(userId);
+            return pendingUsers;
+        });
+        PendingAdmission pending = new PendingAdmission(eventId, userId, LocalDateTime.now(ZoneOffset.UTC));
+        queue.add(pending);
+        return Optional.of(await(pending));
+    }
+
+    /**
+     * Возвращает место после отмены подтверждённой заявки. Повторно подать заявку пользователь не сможет,
+     * поэтому его бит остаётся.
+     */
+    public void releaseSeat(Long eventId) {
+        EventSeats state = seats.get(eventId);
+        if (state != null && state.isManaged()) {
+            state.returnSeat();
+        }
+    }
+
+    /**
+     * Забывает состояние события после его изменения; при следующей заявке оно перечитается из базы.
+     */
+    public void evict(Long eventId) {
+        seats.remove(eventId);
+    }
+
+    int getRemaining(Long eventId) {
+        EventSeats state = seats.get(eventId);
+        return state == null ? -1 : state.getRemaining();
+    }
+
+    private EventSeats load(Long eventId) {
+        return transactionTemplate.execute(status -> eventRepository.findAdmissionEvent(eventId)
+                .map(event -> event.isManaged()
+                        ? toSeats(event, (int) requestRepository.countByEventIdAndStatus(eventId, RequestState.CONFIRMED))
+                        : EventSeats.NOT_MANAGED)
+                .orElse(null));
+    }
+
+    /**
+     * Заявки, которые ещё пишутся, в базе не видны, поэтому их места вычитаются из остатка, а их авторы
+     * отмечаются отдельно — иначе после вытеснения тот же пользователь смог бы занять второе место. Если пачка успела записаться между подсчётом и вычитанием, места будут недосчитаны до следующей
+     * загрузки события, но не перепроданы.
+     */
+    private EventSeats toSeats(AdmissionEvent event, int confirmed) {
+        if (!event.isManaged()) {
+            return EventSeats.NOT_MANAGED;
+        }
+        Set<Long> pending = inFlight.getOrDefault(event.id(), Set.of());
+        EventSeats state = new EventSeats(event.initiatorId(), event.participantLimit() - confirmed - pending.size());
+        requestRepository.findRequesterIds(event.id()).forEach(state::claimRequester);
+        pending.forEach(state::claimRequester);
+        return state;
+    }
+
+    private ParticipationRequestDto await(PendingAdmission pending) {
+        try {
+            try {
+                return pending.result().get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.claim()) {
+                    abandon(pending);
+                    throw new IllegalStateException(
+                            "Заявка на участие не успела записаться за " + awaitTimeout + " и отменена", e);
+                }
+                // Пачка с заявкой уже пишется — её результат и возвращаем
+                return pending.result().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.claim()) {
+                abandon(pending);
+            }
+            throw new IllegalStateException("Ожидание записи заявки прервано", e);
+        }
+    }
+
+    private void runWriter() {
+        List<PendingAdmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            // Заявки, отменённые ожидающими их потоками, не пишутся
+            batch.removeIf(pending -> !pending.claim());
+            if (!batch.isEmpty()) {
+                persist(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingAdmission> batch) throws InterruptedException {
+        PendingAdmission first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + linger.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            PendingAdmission next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Пишет пачку одной транзакцией. Если она не прошла, заявки пишутся по одной, чтобы ошибка одной
+     * заявки не отклонила остальные; места неудавшихся заявок возвращаются.
+     */
+    private void persist(List<PendingAdmission> batch) {
+        try {
+            List<ParticipationRequest> saved = transactionTemplate.execute(status -> insert(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Пачка из {} заявок не записана, пишем по одной: {}", batch.size(), e.getMessage());
+            for (PendingAdmission pending : batch) {
+                try {
+                    complete(pending, transactionTemplate.execute(status -> insert(List.of(pending))).getFirst());
+                } catch (RuntimeException single) {
+                    if (isDuplicate(single)) {
+                        // Заявка пользователя уже есть в базе: место возвращается, а право подать заявку — нет
+                        releaseSeat(pending.eventId());
+                        finish(pending);
+                        pending.result().completeExceptionally(new ConflictException("Запрос на участие уже имеется!"));
+                    } else {
+                        abandon(pending);
+                        pending.result().completeExceptionally(single);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isDuplicate(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ParticipationRequest> insert(List<PendingAdmission> batch) {
+        Map<Long, Integer> confirmedByEvent = new HashMap<>();
+        List<ParticipationRequest> saved = new ArrayList<>(batch.size());
+        for (PendingAdmission pending : batch) {
+            ParticipationRequest request = ParticipationRequest.builder()
+                    .created(pending.created())
+                    .event(entityManager.getReference(Event.class, pending.eventId()))
+                    .requester(entityManager.getReference(User.class, pending.userId()))
+                    .status(RequestState.CONFIRMED)
+                    .build();
+            entityManager.persist(request);
+            saved.add(request);
+            confirmedByEvent.merge(pending.eventId(), 1, Integer::sum);
+        }
+        confirmedByEvent.forEach(eventRepository::addConfirmedRequests);
+        return saved;
+    }
+
+    private void complete(PendingAdmission pending, ParticipationRequest saved) {
+        finish(pending);
+        pending.result().complete(requestMapper.toDto(saved));
+    }
+
+    /**
+     * Возвращает место и право подать заявку для заявки, которая так и не записалась.
+     */
+    private void abandon(PendingAdmission pending) {
+        EventSeats state = seats.get(pending.eventId());
+        if (state != null && state.isManaged()) {
+            state.returnSeat();
+            state.releaseRequester(pending.userId());
+        }
+        finish(pending);
+    }
+
+    private void finish(PendingAdmission pending) {
+        inFlight.computeIfPresent(pending.eventId(), (id, users) -> {
+            users.remove(pending.userId());
+            return users.isEmpty() ? null : users;
+        });
+    }
+}
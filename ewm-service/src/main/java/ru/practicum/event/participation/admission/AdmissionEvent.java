@@ -0,0 +1,15 @@
+package ru.practicum.event.participation.admission;
+
+import ru.practicum.event.model.state.EventState;
+
+public record AdmissionEvent(Long id, Long initiatorId, int participantLimit, int confirmedRequests,
+                             Boolean requestModeration, EventState state) {
+
+    /**
+     * Движок обслуживает только опубликованные события с лимитом и без модерации:
+     * для них заявка подтверждается сразу и вся конкуренция сводится к остатку мест.
+     */
+    boolean isManaged() {
+        return state == EventState.PUBLISHED && participantLimit > 0 && !Boolean.TRUE.equals(requestModeration);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.event.participation.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Разреженный потокобезопасный набор битов без блокировок: биты хранятся страницами по 64К,
+ * страница создаётся при первой записи, отдельные биты ставятся и снимаются через CAS.
+ */
+final class ConcurrentBitSet {
+
+    private static final int PAGE_SHIFT = 16;
+    private static final long PAGE_MASK = (1L << PAGE_SHIFT) - 1;
+    private static final int WORDS_PER_PAGE = (1 << PAGE_SHIFT) / Long.SIZE;
+
+    private final ConcurrentHashMap<Long, AtomicLongArray> pages = new ConcurrentHashMap<>();
+
+    boolean contains(long index) {
+        AtomicLongArray page = pages.get(index >>> PAGE_SHIFT);
+        return page != null && (page.get(wordOf(index)) & maskOf(index)) != 0;
+    }
+
+    /**
+     * @return true, если бит был снят и поставлен этим вызовом
+     */
+    boolean add(long index) {
+        AtomicLongArray page = pages.computeIfAbsent(index >>> PAGE_SHIFT, key -> new AtomicLongArray(WORDS_PER_PAGE));
+        int word = wordOf(index);
+        long mask = maskOf(index);
+        while (true) {
+            long current = page.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (page.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    void remove(long index) {
+        AtomicLongArray page = pages.get(index >>> PAGE_SHIFT);
+        if (page == null) {
+            return;
+        }
+        int word = wordOf(index);
+        long mask = maskOf(index);
+        while (true) {
+            long current = page.get(word);
+            if ((current & mask) == 0 || page.compareAndSet(word, current, current & ~mask)) {
+                return;
+            }
+        }
+    }
+
+    private static int wordOf(long index) {
+        return (int) ((index & PAGE_MASK) >>> 6);
+    }
+
+    private static long maskOf(long index) {
+        return 1L << (index & 63);
+    }
+}
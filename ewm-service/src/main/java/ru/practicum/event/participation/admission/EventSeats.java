@@ -0,0 +1,64 @@
+package ru.practicum.event.participation.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Состояние приёма заявок на одно событие: остаток мест и множество пользователей, уже подавших заявку.
+ */
+final class EventSeats {
+
+    static final EventSeats NOT_MANAGED = new EventSeats(-1, 0);
+
+    private final long initiatorId;
+    private final AtomicInteger remaining;
+    private final ConcurrentBitSet requesters = new ConcurrentBitSet();
+
+    EventSeats(long initiatorId, int remaining) {
+        this.initiatorId = initiatorId;
+        this.remaining = new AtomicInteger(Math.max(remaining, 0));
+    }
+
+    boolean isManaged() {
+        return this != NOT_MANAGED;
+    }
+
+    long getInitiatorId() {
+        return initiatorId;
+    }
+
+    int getRemaining() {
+        return remaining.get();
+    }
+
+    boolean isSoldOut() {
+        return remaining.get() <= 0;
+    }
+
+    boolean hasRequester(long userId) {
+        return requesters.contains(userId);
+    }
+
+    boolean claimRequester(long userId) {
+        return requesters.add(userId);
+    }
+
+    void releaseRequester(long userId) {
+        requesters.remove(userId);
+    }
+
+    boolean tryTakeSeat() {
+        while (true) {
+            int current = remaining.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (remaining.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    void returnSeat() {
+        remaining.incrementAndGet();
+    }
+}
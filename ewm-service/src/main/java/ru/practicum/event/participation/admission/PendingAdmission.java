@@ -0,0 +1,22 @@
+package ru.practicum.event.participation.admission;
+
+import ru.practicum.event.participation.model.ParticipationRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+record PendingAdmission(Long eventId, Long userId, LocalDateTime created,
+                        CompletableFuture<ParticipationRequestDto> result, AtomicBoolean claimed) {
+
+    PendingAdmission(Long eventId, Long userId, LocalDateTime created) {
+        this(eventId, userId, created, new CompletableFuture<>(), new AtomicBoolean());
+    }
+
+    /**
+     * Забирает заявку на запись или на отмену по таймауту ожидания — удаётся только одному из двух.
+     */
+    boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.event.participation.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.event.participation.model.ParticipationRequest;
+import ru.practicum.event.participation.model.RequestState;
 
 import java.util.List;
 
@@ -14,4 +18,19 @@ public interface ParticipationRequestRepository extends JpaRepository<Participat
     List<ParticipationRequest> findAllByEventIdAndEvent_Initiator_Id(Long eventId, Long initiatorId);
 
     List<ParticipationRequest> findAllByIdIn(List<Long> requestIds);
+
+    long countByEventIdAndStatus(Long eventId, RequestState status);
+
+    /**
+     * Переводит заявку из статуса {@code from} в {@code to}, только если она всё ещё в {@code from}.
+     *
+     * @return 1, если статус изменён этим вызовом, иначе 0
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ParticipationRequest r SET r.status = :to WHERE r.id = :requestId AND r.status = :from")
+    int updateStatus(@Param("requestId") Long requestId, @Param("from") RequestState from,
+                     @Param("to") RequestState to);
+
+    @Query("SELECT r.requester.id FROM ParticipationRequest r WHERE r.event.id = :eventId")
+    List<Long> findRequesterIds(@Param("eventId") Long eventId);
 }
\ No newline at end of file
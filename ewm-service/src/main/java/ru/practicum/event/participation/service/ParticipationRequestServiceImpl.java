@@ -4,7 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.participation.admission.AdmissionEngine;
 import ru.practicum.event.participation.mapper.ParticipationRequestMapper;
 import ru.practicum.event.participation.repository.ParticipationRequestRepository;
 import ru.practicum.event.participation.model.*;
@@ -13,6 +15,7 @@ import ru.practicum.event.model.state.EventState;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.ForbiddenException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.transaction.AfterCommit;
 import ru.practicum.user.model.User;
 import ru.practicum.user.service.UserService;
 
@@ -20,6 +23,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -29,9 +33,29 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
     private final EventService eventService;
     private final ParticipationRequestRepository participationRequestRepository;
     private final ParticipationRequestMapper participationRequestMapper;
+    private final AdmissionEngine admissionEngine;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Движок приёма вызывается вне транзакции: он ждёт, пока заявку запишет фоновый поток, и соединение из пула
+     * на это время не занимается. Иначе заявка оформляется в транзакции.
+     */
     @Override
     public ParticipationRequestDto createRequest(Long userId, Long eventId) {
+        if (admissionEngine.isEnabled()) {
+            Optional<ParticipationRequestDto> admitted = admissionEngine.tryCreate(userId, eventId);
+            if (admitted.isPresent()) {
+                return admitted.get();
+            }
+        }
+        return transactionTemplate.execute(status -> createRequestInTransaction(userId, eventId));
+    }
+
+    /**
+     * Если заявка подтверждается сразу, место занимается атомарно после вставки заявки: при гонке за последнее
+     * место проигравшая транзакция откатывается вместе с заявкой, и лимит не превышается.
+     */
+    private ParticipationRequestDto createRequestInTransaction(Long userId, Long eventId) {
         User user = userService.getEntityById(userId);
         Event event = eventService.getEntityById(eventId);
 
@@ -58,25 +82,29 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
                 .status(RequestState.PENDING)
                 .build();
 
-        if (event.getParticipantLimit() == 0) {
-            request.setStatus(RequestState.CONFIRMED);
-            event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-        }
-
-        if (!event.getRequestModeration() && event.getConfirmedRequests() < event.getParticipantLimit()) {
+        boolean autoConfirm = event.getParticipantLimit() == 0 || !event.getRequestModeration();
+        if (autoConfirm) {
             request.setStatus(RequestState.CONFIRMED);
-            event.setConfirmedRequests(event.getConfirmedRequests() + 1);
         }
 
         ParticipationRequest created = participationRequestRepository.save(request);
 
+        if (autoConfirm && eventService.reserveSeats(eventId, 1) == 0) {
+            throw new ConflictException("Лимит участников события достигнут.");
+        }
+
         log.info("Заявка на участие в событии '{}' от пользователя id={} создана", event.getTitle(), userId);
         return participationRequestMapper.toDto(created);
     }
 
+    /**
+     * Подтверждённая заявка отменяется условным UPDATE: место возвращает только та из параллельных отмен,
+     * которая перевела заявку из CONFIRMED, а в движок приёма оно возвращается после коммита.
+     */
     @Override
+    @Transactional
     public ParticipationRequestDto cancelRequest(Long userId, Long requestId) {
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
 
         ParticipationRequest participationRequest = participationRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Данная заявка на участие в событие не найдена."));
@@ -85,8 +113,12 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
             throw new ForbiddenException("Пользователь может отменить только свою заявку.");
         }
 
-        if (participationRequest.getStatus() == RequestState.CONFIRMED) {
-            eventService.decrementConfirmedRequests(participationRequest.getEvent().getId());
+        Long eventId = participationRequest.getEvent().getId();
+        if (participationRequest.getStatus() == RequestState.CONFIRMED
+                && participationRequestRepository.updateStatus(requestId, RequestState.CONFIRMED,
+                RequestState.CANCELED) == 1) {
+            eventService.decrementConfirmedRequests(eventId);
+            AfterCommit.run(() -> admissionEngine.releaseSeat(eventId));
         }
 
         participationRequest.setStatus(RequestState.CANCELED);
@@ -98,7 +130,7 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
 
     @Override
     public List<ParticipationRequestDto> getParticipationRequestsOwnEvents(Long userId, Long eventId) {
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
         Event event = eventService.getEntityById(eventId);
 
         if (!event.getInitiator().getId().equals(userId)) {
@@ -115,7 +147,7 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
 
     @Override
     public List<ParticipationRequestDto> getOwnRequests(Long userId) {
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
         List<ParticipationRequest> requests = participationRequestRepository.findAllByRequesterId(userId);
 
         return requests.stream()
@@ -128,7 +160,7 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
     public EventRequestStatusUpdateResult updateStatusForRequests(
             Long userId, Long eventId, EventRequestStatusUpdateRequest eventRequestStatusUpdateRequest) {
 
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
         Event event = eventService.getEntityById(eventId);
 
         if (!event.getInitiator().getId().equals(userId)) {
@@ -155,24 +187,20 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
             throw new ConflictException("Можно изменять только заявки со статусом PENDING.");
         }
 
-        int confirmed = event.getConfirmedRequests();
-        int limit = event.getParticipantLimit();
-
         List<ParticipationRequest> confirmedRequests = new ArrayList<>();
         List<ParticipationRequest> rejectedRequests = new ArrayList<>();
 
         if (eventRequestStatusUpdateRequest.getStatus() == RequestState.CONFIRMED) {
+            int granted = eventService.reserveSeats(eventId, requests.size());
             for (ParticipationRequest request : requests) {
-                if (confirmed < limit) {
+                if (confirmedRequests.size() < granted) {
                     request.setStatus(RequestState.CONFIRMED);
                     confirmedRequests.add(request);
-                    confirmed++;
                 } else {
                     request.setStatus(RequestState.REJECTED);
                     rejectedRequests.add(request);
                 }
             }
-            eventService.incrementConfirmedRequests(eventId, confirmedRequests.size());
         } else if (eventRequestStatusUpdateRequest.getStatus() == RequestState.REJECTED) {
             for (ParticipationRequest request : requests) {
                 request.setStatus(RequestState.REJECTED);
@@ -1,15 +1,25 @@
 package ru.practicum.event.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventCapacity;
+import ru.practicum.event.model.EventCounters;
 import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.participation.admission.AdmissionEvent;
+import ru.practicum.event.search.EventSearchDocument;
+import ru.practicum.event.views.EventPublication;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -61,13 +71,68 @@ public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecific
             Pageable pageable
             );
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Event> findByIdAndState(Long id, EventState state);
 
     Set<Event> findByIdIn(Set<Long> ids);
 
+    @Query("SELECT new ru.practicum.event.model.EventCapacity(e.confirmedRequests, e.participantLimit) " +
+            "FROM Event e WHERE e.id = :eventId")
+    Optional<EventCapacity> findCapacity(@Param("eventId") Long eventId);
+
+    @Query("SELECT new ru.practicum.event.model.EventCounters(e.id, e.confirmedRequests, e.commentsCount) " +
+            "FROM Event e WHERE e.id IN :ids")
+    List<EventCounters> findCounters(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Удаляет события пользователя через Hibernate, а не каскадом базы, чтобы они ушли и из кэша второго уровня.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Event e WHERE e.initiator.id = :userId")
+    int deleteByInitiatorId(@Param("userId") Long userId);
+
+    @Query("""
+            SELECT new ru.practicum.event.participation.admission.AdmissionEvent(
+                e.id, e.initiator.id, e.participantLimit, e.confirmedRequests, e.requestModeration, e.state)
+            FROM Event e WHERE e.id = :eventId
+            """)
+    Optional<AdmissionEvent> findAdmissionEvent(@Param("eventId") Long eventId);
+
+    @Query("""
+            SELECT new ru.practicum.event.participation.admission.AdmissionEvent(
+                e.id, e.initiator.id, e.participantLimit, e.confirmedRequests, e.requestModeration, e.state)
+            FROM Event e
+            WHERE e.state = 'PUBLISHED' AND e.participantLimit > 0 AND e.requestModeration = FALSE
+            AND e.eventDate > :now
+            """)
+    List<AdmissionEvent> findAdmissionEvents(@Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT new ru.practicum.event.views.EventPublication(e.id, e.publishedOn) FROM Event e
+            WHERE e.state = 'PUBLISHED' AND e.id > :afterId
+            ORDER BY e.id
+            LIMIT :size
+            """)
+    List<EventPublication> findPublications(@Param("afterId") Long afterId, @Param("size") int size);
+
+    @Query("""
+            SELECT new ru.practicum.event.search.EventSearchDocument(
+                e.id, e.category.id, e.paid, e.title, e.annotation, e.description)
+            FROM Event e
+            WHERE e.state = 'PUBLISHED' AND e.id > :afterId
+            ORDER BY e.id
+            LIMIT :size
+            """)
+    List<EventSearchDocument> findSearchDocuments(@Param("afterId") long afterId, @Param("size") int size);
+
     @Query("SELECT e FROM Event e WHERE e.initiator.id = :userId ORDER BY e.id DESC LIMIT :size OFFSET :from")
     List<Event> findUserEventsWithOffset(@Param("userId") Long userId,
                                          @Param("from") int from,
                                          @Param("size") int size);
 
+    @Query("SELECT e FROM Event e WHERE e.initiator.id = :userId AND e.id < :beforeId ORDER BY e.id DESC LIMIT :size")
+    List<Event> findUserEventsBefore(@Param("userId") Long userId,
+                                     @Param("beforeId") long beforeId,
+                                     @Param("size") int size);
+
 }
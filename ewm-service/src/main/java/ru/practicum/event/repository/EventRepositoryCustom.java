@@ -2,13 +2,36 @@ package ru.practicum.event.repository;
 
 import ru.practicum.event.model.AdminEventSearchRequest;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
 import ru.practicum.event.model.PublicEventSearchRequest;
 
 import java.util.List;
 
 public interface EventRepositoryCustom {
 
-    List<Event> findPublicEventsByFilter(PublicEventSearchRequest request);
+    /**
+     * Страница публичного поиска событий только с колонками краткого представления.
+     * Сущности не загружаются и не попадают в контекст персистентности.
+     */
+    List<EventShortView> findPublicEventShortsByFilter(PublicEventSearchRequest request);
+
+    /**
+     * Краткое представление с фильтрами запроса, но вместо поиска по тексту — только среди событий {@code ids}.
+     */
+    List<EventShortView> findPublicEventShortsByIds(PublicEventSearchRequest request, long[] ids);
 
     List<Event> findByAdminFilter(AdminEventSearchRequest request);
+
+    /**
+     * Атомарно занимает {@code count} мест, только если они ещё свободны (лимит 0 — без ограничений).
+     *
+     * @return 1, если места заняты, иначе 0
+     */
+    int addConfirmedRequestsWithinLimit(Long eventId, int count);
+
+    int addConfirmedRequests(Long eventId, int count);
+
+    int addCommentsCount(Long eventId, int count);
+
+    int setConfirmedRequests(Long eventId, int confirmed);
 }
\ No newline at end of file
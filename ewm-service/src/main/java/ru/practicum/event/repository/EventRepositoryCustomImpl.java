@@ -1,35 +1,198 @@
 package ru.practicum.event.repository;
 
+import jakarta.persistence.Cache;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import ru.practicum.category.model.Category;
+import ru.practicum.event.location.GeoGrid;
 import ru.practicum.event.model.AdminEventSearchRequest;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
 import ru.practicum.event.model.PublicEventSearchRequest;
 import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.search.EventSearchFunctions;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.pagination.Keyset;
+import ru.practicum.pagination.PageCursor;
+import ru.practicum.transaction.AfterCommit;
+import ru.practicum.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Repository
 @RequiredArgsConstructor
 public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+    private static final int MAX_LISTED_CELLS = 500;
+
     private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Полнотекстовый поиск по словам в title, annotation и description вместо поиска подстроки
+     * в annotation и description.
+     */
+    @Value("${ewm.search.full-text.enabled:false}")
+    private boolean fullTextSearch;
+
+    @Override
+    public List<EventShortView> findPublicEventShortsByFilter(PublicEventSearchRequest request) {
+        return findPublicEventShorts(request, null);
+    }
 
     @Override
-    public List<Event> findPublicEventsByFilter(PublicEventSearchRequest request) {
+    public List<EventShortView> findPublicEventShortsByIds(PublicEventSearchRequest request, long[] ids) {
+        return findPublicEventShorts(request, ids);
+    }
+
+    private List<EventShortView> findPublicEventShorts(PublicEventSearchRequest request, long[] ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventShortView> query = cb.createQuery(EventShortView.class);
+        Root<Event> root = query.from(Event.class);
+        Join<Event, Category> category = root.join("category", JoinType.INNER);
+        Join<Event, User> initiator = root.join("initiator", JoinType.INNER);
+
+        query.select(cb.construct(EventShortView.class,
+                root.get("id"),
+                root.get("annotation"),
+                category.get("id"),
+                category.get("name"),
+                root.get("confirmedRequests"),
+                root.get("eventDate"),
+                initiator.get("id"),
+                initiator.get("name"),
+                root.get("paid"),
+                root.get("requestModeration"),
+                root.get("title"),
+                root.get("commentsCount"),
+                root.get("publishedOn"),
+                root.get("syncedViews")));
+        query.where(publicPredicates(cb, root, request, ids));
+        query.orderBy(publicOrder(cb, root, request));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Keyset.firstResult(request.getCursor(), request.getFrom()))
+                .setMaxResults(CursorPage.rowsToFetch(request.getSize()))
+                .getResultList();
+    }
+
+    @Override
+    public List<Event> findByAdminFilter(AdminEventSearchRequest request) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Event> query = cb.createQuery(Event.class);
         Root<Event> root = query.from(Event.class);
+        fetchAssociations(root);
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (request.getUsers() != null && !request.getUsers().isEmpty()) {
+            predicates.add(root.get("initiator").get("id").in(request.getUsers()));
+        }
+
+        if (request.getStates() != null && !request.getStates().isEmpty()) {
+            List<EventState> states = request.getStates().stream()
+                    .map(EventState::valueOf)
+                    .toList();
+            predicates.add(root.get("state").in(states));
+        }
+
+        if (request.getCategories() != null && !request.getCategories().isEmpty()) {
+            predicates.add(root.get("category").get("id").in(request.getCategories()));
+        }
+
+        LocalDateTime start = request.getRangeStart() != null
+                ? request.getRangeStart()
+                : LocalDateTime.now();
+
+        LocalDateTime end = request.getRangeEnd() != null
+                ? request.getRangeEnd()
+                : LocalDateTime.now().plusYears(1);
+
+        predicates.add(cb.between(root.get("eventDate"), start, end));
+
+        PageCursor after = PageCursor.decode(request.getCursor());
+        if (after != null) {
+            predicates.add(Keyset.after(cb, root.get("eventDate"), true, after.dateTimeKey(),
+                    root.get("id"), true, after.id()));
+        }
+
+        query.where(cb.and(predicates.toArray(new Predicate[0])));
+        query.orderBy(cb.desc(root.get("eventDate")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Keyset.firstResult(request.getCursor(), request.getFrom()))
+                .setMaxResults(CursorPage.rowsToFetch(request.getSize()))
+                .getResultList();
+    }
+
+    @Override
+    public int addConfirmedRequestsWithinLimit(Long eventId, int count) {
+        return updateCounter(eventId, """
+                UPDATE events SET confirmed_requests = confirmed_requests + ?
+                WHERE id = ? AND (participant_limit = 0 OR confirmed_requests + ? <= participant_limit)""",
+                count, eventId, count);
+    }
+
+    @Override
+    public int addConfirmedRequests(Long eventId, int count) {
+        return updateCounter(eventId, """
+                UPDATE events SET confirmed_requests = GREATEST(confirmed_requests + ?, 0)
+                WHERE id = ?""", count, eventId);
+    }
+
+    @Override
+    public int addCommentsCount(Long eventId, int count) {
+        return updateCounter(eventId, """
+                UPDATE events SET comments_count = GREATEST(comments_count + ?, 0)
+                WHERE id = ?""", count, eventId);
+    }
 
+    @Override
+    public int setConfirmedRequests(Long eventId, int confirmed) {
+        return updateCounter(eventId, "UPDATE events SET confirmed_requests = ? WHERE id = ?", confirmed, eventId);
+    }
+
+    /**
+     * Счётчики пишутся в обход Hibernate: массовый UPDATE через JPQL вытеснил бы из кэша второго уровня все события,
+     * а так вытесняется только изменённое — сразу и ещё раз после коммита, если его успели закэшировать заново.
+     */
+    private int updateCounter(Long eventId, String sql, Object... args) {
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+        int updated = jdbcTemplate.update(sql, args);
+        if (updated > 0) {
+            Cache cache = entityManager.getEntityManagerFactory().getCache();
+            cache.evict(Event.class, eventId);
+            AfterCommit.run(() -> cache.evict(Event.class, eventId));
+        }
+        return updated;
+    }
+
+    private Predicate publicPredicates(CriteriaBuilder cb, Root<Event> root, PublicEventSearchRequest request,
+                                       long[] ids) {
         List<Predicate> predicates = new ArrayList<>();
 
-        if (request.getText() != null) {
+        if (ids != null) {
+            predicates.add(root.get("id").in(Arrays.stream(ids).boxed().toList()));
+        } else if (request.getText() != null && fullTextSearch) {
+            predicates.add(cb.isTrue(searchFunction(cb, root, EventSearchFunctions.MATCH, Boolean.class,
+                    request.getText())));
+        } else if (request.getText() != null) {
             Predicate annotationLike = cb.like(cb.lower(root.get("annotation")), "%"
                     + request.getText().toLowerCase() + "%");
             Predicate descriptionLike = cb.like(cb.lower(root.get("description")), "%"
@@ -58,63 +221,97 @@ public class EventRepositoryCustomImpl implements EventRepositoryCustom {
             ));
         }
 
-        query.where(cb.and(predicates.toArray(new Predicate[0])));
+        if (request.hasGeoFilter()) {
+            predicates.add(geoCellPredicate(cb, root, request));
+            predicates.add(cb.le(squaredDistance(cb, root, request), request.getRadius() * request.getRadius()));
+        }
 
-        // Сортировка
-        if ("COMMENTS".equals(request.getSort())) {
-            query.orderBy(cb.desc(root.get("commentsCount")));
-        } else if ("VIEWS".equals(request.getSort())) {
-            query.orderBy(cb.desc(root.get("views")));
-        } else {
-            query.orderBy(cb.desc(root.get("eventDate")));
+        PageCursor after = PageCursor.decode(request.getCursor());
+        if (after != null) {
+            predicates.add(publicAfter(cb, root, request, after));
         }
 
-        // Пагинация вручную
-        return entityManager.createQuery(query)
-                .setFirstResult(request.getFrom())
-                .setMaxResults(request.getSize())
-                .getResultList();
+        return cb.and(predicates.toArray(new Predicate[0]));
     }
 
-    @Override
-    public List<Event> findByAdminFilter(AdminEventSearchRequest request) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Event> query = cb.createQuery(Event.class);
-        Root<Event> root = query.from(Event.class);
-
-        List<Predicate> predicates = new ArrayList<>();
-
-        if (request.getUsers() != null && !request.getUsers().isEmpty()) {
-            predicates.add(root.get("initiator").get("id").in(request.getUsers()));
+    private List<Order> publicOrder(CriteriaBuilder cb, Root<Event> root, PublicEventSearchRequest request) {
+        if ("COMMENTS".equals(request.getSort())) {
+            return List.of(cb.desc(root.get("commentsCount")), cb.desc(root.get("id")));
+        } else if ("VIEWS".equals(request.getSort())) {
+            return List.of(cb.desc(root.get("syncedViews")), cb.asc(root.get("id")));
+        } else if ("RELEVANCE".equals(request.getSort()) && request.getText() != null) {
+            return List.of(cb.desc(searchFunction(cb, root, EventSearchFunctions.RANK, Double.class,
+                    request.getText())), cb.desc(root.get("id")));
+        } else if ("DISTANCE".equals(request.getSort()) && request.hasGeoFilter()) {
+            return List.of(cb.asc(squaredDistance(cb, root, request)), cb.asc(root.get("id")));
         }
+        return List.of(cb.desc(root.get("eventDate")), cb.desc(root.get("id")));
+    }
 
-        if (request.getStates() != null && !request.getStates().isEmpty()) {
-            List<EventState> states = request.getStates().stream()
-                    .map(EventState::valueOf)
-                    .toList();
-            predicates.add(root.get("state").in(states));
-        }
+    private <T> Expression<T> searchFunction(CriteriaBuilder cb, Root<Event> root, String name, Class<T> type,
+                                             String text) {
+        // value(), а не literal(): литералы в аргументах функций Hibernate подставляет в текст SQL
+        return cb.function(name, type, root.get("title"), root.get("annotation"), root.get("description"),
+                ((HibernateCriteriaBuilder) cb).value(text));
+    }
 
-        if (request.getCategories() != null && !request.getCategories().isEmpty()) {
-            predicates.add(root.get("category").get("id").in(request.getCategories()));
+    /**
+     * Небольшой круг — списком ячеек: H2 и PostgreSQL ищут его по индексу как набор точечных поисков,
+     * а OR диапазонов H2 по индексу не выбирает. Большой круг — диапазонами, по одному на строку сетки.
+     */
+    private Predicate geoCellPredicate(CriteriaBuilder cb, Root<Event> root, PublicEventSearchRequest request) {
+        List<long[]> ranges = GeoGrid.cellRanges(request.getLat(), request.getLon(), request.getRadius());
+        List<Long> cells = GeoGrid.cells(ranges, MAX_LISTED_CELLS);
+        if (cells != null) {
+            return root.get("geoCell").in(cells);
         }
+        return cb.or(ranges.stream()
+                .map(range -> cb.between(root.get("geoCell"), range[0], range[1]))
+                .toArray(Predicate[]::new));
+    }
 
-        LocalDateTime start = request.getRangeStart() != null
-                ? request.getRangeStart()
-                : LocalDateTime.now();
-
-        LocalDateTime end = request.getRangeEnd() != null
-                ? request.getRangeEnd()
-                : LocalDateTime.now().plusYears(1);
+    /**
+     * Квадрат расстояния в километрах до точки запроса в проекции на плоскость, см. {@link GeoGrid}.
+     */
+    private Expression<Double> squaredDistance(CriteriaBuilder cb, Root<Event> root,
+                                               PublicEventSearchRequest request) {
+        Expression<Double> dx = cb.prod(cb.diff(coordinate(root, "lon"), request.getLon()),
+                GeoGrid.kmPerDegreeLon(request.getLat()));
+        Expression<Double> dy = cb.prod(cb.diff(coordinate(root, "lat"), request.getLat()),
+                GeoGrid.KM_PER_DEGREE);
+        return cb.sum(cb.prod(dx, dx), cb.prod(dy, dy));
+    }
 
-        predicates.add(cb.between(root.get("eventDate"), start, end));
+    /**
+     * Параметры рядом с колонкой координаты Hibernate приводит к её типу, а у колонки из {@code @Embedded}
+     * не задана точность, и в SQL остаётся {@code float($p)} — поэтому тип выражения задаётся явно.
+     */
+    private Expression<Double> coordinate(Root<Event> root, String name) {
+        return root.get("location").<Double>get(name).as(Double.class);
+    }
 
-        query.where(cb.and(predicates.toArray(new Predicate[0])));
-        query.orderBy(cb.desc(root.get("eventDate"))); // или другой критерий сортировки
+    /**
+     * Продолжение после курсора в том же порядке, что и {@link #publicOrder}.
+     */
+    private Predicate publicAfter(CriteriaBuilder cb, Root<Event> root, PublicEventSearchRequest request,
+                                  PageCursor after) {
+        if ("COMMENTS".equals(request.getSort())) {
+            return Keyset.after(cb, root.get("commentsCount"), true, (int) after.longKey(),
+                    root.get("id"), true, after.id());
+        } else if ("VIEWS".equals(request.getSort())) {
+            return Keyset.after(cb, root.get("syncedViews"), true, after.longKey(),
+                    root.get("id"), false, after.id());
+        }
+        return Keyset.after(cb, root.get("eventDate"), true, after.dateTimeKey(),
+                root.get("id"), true, after.id());
+    }
 
-        return entityManager.createQuery(query)
-                .setFirstResult(request.getFrom())
-                .setMaxResults(request.getSize())
-                .getResultList();
+    /**
+     * Категория и инициатор нужны маппингу каждого события в ответ, поэтому забираются тем же запросом.
+     * Обе связи many-to-one, строки не размножаются, и постраничная выборка остаётся в SQL.
+     */
+    private void fetchAssociations(Root<Event> root) {
+        root.fetch("category", JoinType.INNER);
+        root.fetch("initiator", JoinType.INNER);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package ru.practicum.event.search;
+
+/**
+ * Поля опубликованного события, которые попадают во встроенный поисковый индекс.
+ */
+public record EventSearchDocument(Long id, Long categoryId, Boolean paid,
+                                  String title, String annotation, String description) {
+}
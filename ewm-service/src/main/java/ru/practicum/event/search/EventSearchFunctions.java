@@ -0,0 +1,51 @@
+package ru.practicum.event.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Функции полнотекстового поиска по событию: {@code fts_match(title, annotation, description, text)}
+ * и {@code fts_rank(title, annotation, description, text)}.
+ * <p>
+ * В PostgreSQL выражение совпадает с GIN-индексом {@code idx_events_search} из миграции
+ * {@code db/migration/postgresql/V2__full_text_search_index.sql}, поэтому меняется только вместе с ним.
+ * В остальных СУБД (H2 в тестах) — поиск подстроки без учёта регистра и ранг по тому, в каком поле она найдена.
+ */
+public class EventSearchFunctions implements FunctionContributor {
+
+    public static final String MATCH = "fts_match";
+    public static final String RANK = "fts_rank";
+
+    private static final String VECTOR = "(setweight(to_tsvector('simple', coalesce(?1, '')), 'A')"
+            + " || setweight(to_tsvector('simple', coalesce(?2, '')), 'B')"
+            + " || setweight(to_tsvector('simple', coalesce(?3, '')), 'C'))";
+    private static final String QUERY = "websearch_to_tsquery('simple', ?4)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+
+        if (functionContributions.getDialect() instanceof PostgreSQLDialect) {
+            registry.registerPattern(MATCH, "(" + VECTOR + " @@ " + QUERY + ")", booleanType);
+            registry.registerPattern(RANK, "ts_rank(" + VECTOR + ", " + QUERY + ")", doubleType);
+        } else {
+            registry.registerPattern(MATCH, "(" + contains(1) + " or " + contains(2) + " or " + contains(3) + ")",
+                    booleanType);
+            registry.registerPattern(RANK, "(case when " + contains(1) + " then 3 else 0 end"
+                    + " + case when " + contains(2) + " then 2 else 0 end"
+                    + " + case when " + contains(3) + " then 1 else 0 end)", doubleType);
+        }
+    }
+
+    private static String contains(int argument) {
+        return "lower(coalesce(?" + argument + ", '')) like concat('%', lower(?4), '%')";
+    }
+}
@@ -0,0 +1,254 @@
+package ru.practicum.event.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.transaction.AfterCommit;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Встроенный инвертированный индекс опубликованных событий: слово из title, annotation или description —
+ * возрастающий массив id событий. Отдельно хранятся такие же списки по категориям и платным событиям.
+ * <p>
+ * Поиск пересекает списки всех слов запроса и фильтров и отдаёт кандидатов, остальные условия, сортировка
+ * и страница применяются в базе по {@code id IN (...)}. Совпадение — по целым словам без учёта регистра.
+ * <p>
+ * Индекс строится в фоне при старте, изменения событий применяются после фиксации транзакции. Пока индекс
+ * не построен, при слишком большом числе кандидатов или запросе без слов поиск идёт в базе как обычно.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventSearchIndex implements SmartInitializingSingleton {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int BUILD_CHUNK = 500;
+
+    private final EventRepository eventRepository;
+
+    @Value("${ewm.search.index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ewm.search.index.max-candidates:10000}")
+    private int maxCandidates;
+
+    private final ConcurrentHashMap<String, long[]> postings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, long[]> categories = new ConcurrentHashMap<>();
+    private volatile long[] paidEvents = SortedLongs.EMPTY;
+    private volatile long[] indexedEvents = SortedLongs.EMPTY;
+
+    private final List<Runnable> deferred = new ArrayList<>();
+    private volatile boolean ready;
+    private boolean failed;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::build, "event-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Кандидаты для поиска по {@code text}: возрастающий массив id, который нельзя изменять.
+     * Пустой результат означает, что индекс не применим и искать нужно в базе.
+     */
+    public Optional<long[]> search(String text, List<Long> categoryIds, Boolean paid) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Set<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<long[]> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            long[] posting = postings.get(term);
+            if (posting == null) {
+                return Optional.of(SortedLongs.EMPTY);
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+
+        long[] result = lists.getFirst();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = SortedLongs.intersect(result, lists.get(i));
+        }
+        if (categoryIds != null && !categoryIds.isEmpty()) {
+            result = SortedLongs.intersect(result, SortedLongs.union(categoryIds.stream()
+                    .map(categories::get)
+                    .filter(Objects::nonNull)
+                    .toList()));
+        }
+        if (paid != null) {
+            result = paid ? SortedLongs.intersect(result, paidEvents) : SortedLongs.subtract(result, paidEvents);
+        }
+        return result.length > maxCandidates ? Optional.empty() : Optional.of(result);
+    }
+
+    /**
+     * Отражает сохранённое событие в индексе: опубликованное индексируется заново, остальные удаляются.
+     */
+    public void onSaved(Event event) {
+        if (!enabled) {
+            return;
+        }
+        Long eventId = event.getId();
+        EventSearchDocument document = event.getState() == EventState.PUBLISHED
+                ? new EventSearchDocument(eventId, event.getCategory().getId(), event.getPaid(),
+                event.getTitle(), event.getAnnotation(), event.getDescription())
+                : null;
+        AfterCommit.run(() -> apply(eventId, document));
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Строит индекс по всем опубликованным событиям. Id идут по возрастанию, поэтому списки только дописываются;
+     * изменения, пришедшие во время построения, применяются поверх готового индекса.
+     */
+    void build() {
+        long started = System.nanoTime();
+        Map<String, LongBuffer> termBuffers = new HashMap<>();
+        Map<Long, LongBuffer> categoryBuffers = new HashMap<>();
+        LongBuffer paidBuffer = new LongBuffer();
+        LongBuffer allBuffer = new LongBuffer();
+        try {
+            long afterId = 0;
+            List<EventSearchDocument> chunk;
+            do {
+                chunk = eventRepository.findSearchDocuments(afterId, BUILD_CHUNK);
+                for (EventSearchDocument document : chunk) {
+                    for (String term : documentTerms(document)) {
+                        termBuffers.computeIfAbsent(term, key -> new LongBuffer()).add(document.id());
+                    }
+                    categoryBuffers.computeIfAbsent(document.categoryId(), key -> new LongBuffer()).add(document.id());
+                    if (Boolean.TRUE.equals(document.paid())) {
+                        paidBuffer.add(document.id());
+                    }
+                    allBuffer.add(document.id());
+                    afterId = document.id();
+                }
+            } while (chunk.size() == BUILD_CHUNK);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось построить поисковый индекс событий, поиск выполняется в базе: {}", e.getMessage());
+            synchronized (this) {
+                failed = true;
+                deferred.clear();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            termBuffers.forEach((term, buffer) -> postings.put(term, buffer.toArray()));
+            categoryBuffers.forEach((categoryId, buffer) -> categories.put(categoryId, buffer.toArray()));
+            paidEvents = paidBuffer.toArray();
+            indexedEvents = allBuffer.toArray();
+            deferred.forEach(Runnable::run);
+            deferred.clear();
+            ready = true;
+        }
+        log.info("Поисковый индекс событий построен: {} событий, {} слов за {} мс", indexedEvents.length,
+                postings.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private synchronized void apply(Long eventId, EventSearchDocument document) {
+        if (failed) {
+            return;
+        }
+        if (!ready) {
+            deferred.add(() -> reindex(eventId, document));
+            return;
+        }
+        reindex(eventId, document);
+    }
+
+    private void reindex(Long eventId, EventSearchDocument document) {
+        remove(eventId);
+        if (document != null) {
+            add(document);
+        }
+    }
+
+    private void add(EventSearchDocument document) {
+        long id = document.id();
+        for (String term : documentTerms(document)) {
+            postings.compute(term, (key, list) -> SortedLongs.add(list, id));
+        }
+        categories.compute(document.categoryId(), (key, list) -> SortedLongs.add(list, id));
+        if (Boolean.TRUE.equals(document.paid())) {
+            paidEvents = SortedLongs.add(paidEvents, id);
+        }
+        indexedEvents = SortedLongs.add(indexedEvents, id);
+    }
+
+    /**
+     * Прежний текст события неизвестен, поэтому id ищется во всех списках; изменения событий редки
+     * по сравнению с поиском, а хранить слова каждого события дороже.
+     */
+    private void remove(long id) {
+        if (Arrays.binarySearch(indexedEvents, id) < 0) {
+            return;
+        }
+        for (Map.Entry<String, long[]> entry : postings.entrySet()) {
+            if (Arrays.binarySearch(entry.getValue(), id) >= 0) {
+                postings.computeIfPresent(entry.getKey(), (key, list) -> SortedLongs.remove(list, id));
+            }
+        }
+        for (Long categoryId : categories.keySet()) {
+            categories.computeIfPresent(categoryId, (key, list) -> SortedLongs.remove(list, id));
+        }
+        paidEvents = Objects.requireNonNullElse(SortedLongs.remove(paidEvents, id), SortedLongs.EMPTY);
+        indexedEvents = Objects.requireNonNullElse(SortedLongs.remove(indexedEvents, id), SortedLongs.EMPTY);
+    }
+
+    private static Set<String> documentTerms(EventSearchDocument document) {
+        Set<String> terms = tokenize(document.title());
+        terms.addAll(tokenize(document.annotation()));
+        terms.addAll(tokenize(document.description()));
+        return terms;
+    }
+
+    private static final class LongBuffer {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.event.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Операции над возрастающими массивами long без повторов. Массивы не изменяются, результат — новый массив.
+ */
+final class SortedLongs {
+
+    static final long[] EMPTY = new long[0];
+
+    private SortedLongs() {
+    }
+
+    static long[] add(long[] values, long value) {
+        if (values == null) {
+            return new long[]{value};
+        }
+        int position = Arrays.binarySearch(values, value);
+        if (position >= 0) {
+            return values;
+        }
+        int insertAt = -position - 1;
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(values, insertAt, result, insertAt + 1, values.length - insertAt);
+        return result;
+    }
+
+    /**
+     * Возвращает {@code null} вместо пустого массива, чтобы пустые списки удалялись из словаря.
+     */
+    static long[] remove(long[] values, long value) {
+        if (values == null) {
+            return null;
+        }
+        int position = Arrays.binarySearch(values, value);
+        if (position < 0) {
+            return values;
+        }
+        if (values.length == 1) {
+            return null;
+        }
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, position);
+        System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+        return result;
+    }
+
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static long[] subtract(long[] left, long[] right) {
+        long[] result = new long[left.length];
+        int count = 0;
+        int j = 0;
+        for (long value : left) {
+            while (j < right.length && right[j] < value) {
+                j++;
+            }
+            if (j == right.length || right[j] != value) {
+                result[count++] = value;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static long[] union(List<long[]> lists) {
+        long[] result = EMPTY;
+        for (long[] list : lists) {
+            result = union(result, list);
+        }
+        return result;
+    }
+
+    private static long[] union(long[] left, long[] right) {
+        long[] result = new long[left.length + right.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length || j < right.length) {
+            if (j == right.length || (i < left.length && left[i] < right[j])) {
+                result[count++] = left[i++];
+            } else if (i == left.length || right[j] < left[i]) {
+                result[count++] = right[j++];
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
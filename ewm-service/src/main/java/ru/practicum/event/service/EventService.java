@@ -2,6 +2,7 @@ package ru.practicum.event.service;
 
 import jakarta.servlet.http.HttpServletRequest;
 import ru.practicum.event.model.*;
+import ru.practicum.pagination.CursorPage;
 
 import java.util.List;
 import java.util.Set;
@@ -12,6 +13,8 @@ public interface EventService {
 
     List<EventShortDto> getUserEvents(Long userId, int from, int size);
 
+    CursorPage<EventShortDto> getUserEvents(Long userId, String cursor, int size);
+
     EventFullDto getEventById(Long userId, Long eventId);
 
     Event getEntityById(Long eventId);
@@ -24,6 +27,8 @@ public interface EventService {
 
     void incrementConfirmedRequests(Long eventId, int count);
 
+    int reserveSeats(Long eventId, int count);
+
     void decrementCommentsCount(Long eventId);
 
     void incrementCommentsCount(Long eventId);
@@ -32,7 +37,11 @@ public interface EventService {
 
     List<EventFullDto> getEventsByParams(AdminEventSearchRequest params);
 
+    CursorPage<EventFullDto> getEventsPageByParams(AdminEventSearchRequest params);
+
     List<EventShortDto> getPublicEvents(PublicEventSearchRequest request, HttpServletRequest httpRequest);
 
+    CursorPage<EventShortDto> getPublicEventsPage(PublicEventSearchRequest request, HttpServletRequest httpRequest);
+
     EventFullDto getPublishedEventById(Long eventId, HttpServletRequest httpRequest);
 }
\ No newline at end of file
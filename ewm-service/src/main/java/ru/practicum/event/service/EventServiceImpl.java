@@ -7,23 +7,32 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.StatsClient;
 import ru.practicum.category.service.CategoryService;
+import ru.practicum.compilation.cache.CompilationCache;
 import ru.practicum.dto.EndpointHitDto;
-import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.event.counter.EventCounter;
+import ru.practicum.event.counter.EventCounterService;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.*;
 import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.participation.admission.AdmissionEngine;
 import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.search.EventSearchIndex;
+import ru.practicum.event.views.EventViewsCache;
+import ru.practicum.event.views.EventViewsEnricher;
 import ru.practicum.exception.BadRequestException;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.ForbiddenException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.pagination.PageCursor;
 import ru.practicum.user.model.User;
 import ru.practicum.user.service.UserService;
 
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZoneOffset;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -40,6 +49,12 @@ public class EventServiceImpl implements EventService {
     private final EventMapper eventMapper;
     private final CategoryService categoryService;
     private final StatsClient statsClient;
+    private final EventViewsCache eventViewsCache;
+    private final EventViewsEnricher eventViewsEnricher;
+    private final AdmissionEngine admissionEngine;
+    private final EventCounterService eventCounterService;
+    private final EventSearchIndex eventSearchIndex;
+    private final CompilationCache compilationCache;
 
     @Override
     public EventFullDto create(Long userId, NewEventDto newEventDto) {
@@ -64,7 +79,7 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public EventFullDto updateByInitiator(Long userId, Long eventId, UpdateEventUserRequest updateEventUserRequest) {
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
 
         Event existing = getEntityById(eventId);
 
@@ -102,6 +117,9 @@ public class EventServiceImpl implements EventService {
         }
 
         Event saved = eventRepository.save(existing);
+        admissionEngine.evict(eventId);
+        eventSearchIndex.onSaved(saved);
+        compilationCache.onEventChanged(eventId);
 
         log.info("Событие '{}' обновлено.", saved.getTitle());
         return eventMapper.toEventFullDto(saved);
@@ -141,12 +159,16 @@ public class EventServiceImpl implements EventService {
 
         eventMapper.updateEventFromAdminDto(updateDto, existing);
 
-        return eventMapper.toEventFullDto(eventRepository.save(existing));
+        Event saved = eventRepository.save(existing);
+        admissionEngine.evict(eventId);
+        eventSearchIndex.onSaved(saved);
+        compilationCache.onEventChanged(eventId);
+        return eventMapper.toEventFullDto(saved);
     }
 
     @Override
     public List<EventShortDto> getUserEvents(Long userId, int from, int size) {
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
         List<Event> events = eventRepository.findUserEventsWithOffset(userId, from, size);
 
         return events.stream()
@@ -154,9 +176,20 @@ public class EventServiceImpl implements EventService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<EventShortDto> getUserEvents(Long userId, String cursor, int size) {
+        userService.checkExists(userId);
+        PageCursor after = PageCursor.decode(cursor);
+        List<Event> events = eventRepository.findUserEventsBefore(userId,
+                after == null ? Long.MAX_VALUE : after.id(), CursorPage.rowsToFetch(size));
+
+        return CursorPage.of(events, size, event -> PageCursor.of(null, event.getId()),
+                eventMapper::toEventShortDto);
+    }
+
     @Override
     public EventFullDto getEventById(Long userId, Long eventId) {
-        userService.getEntityById(userId);
+        userService.checkExists(userId);
 
         Event event = getEntityById(eventId);
 
@@ -174,40 +207,53 @@ public class EventServiceImpl implements EventService {
                         new NotFoundException("Событие с id=" + eventId + " не найдено."));
     }
 
+    @Override
     @Transactional
     public void decrementConfirmedRequests(Long eventId) {
-        Event event = getEntityById(eventId);
-        if (event.getConfirmedRequests() > 0) {
-            event.setConfirmedRequests(event.getConfirmedRequests() - 1);
-            eventRepository.save(event);
-            log.info("Количество подтвержденных заявок стало меньше. Теперь {}", event.getConfirmedRequests());
-        }
+        eventCounterService.add(EventCounter.CONFIRMED_REQUESTS, eventId, -1);
     }
 
+    @Override
     @Transactional
     public void incrementConfirmedRequests(Long eventId, int count) {
-        Event event = getEntityById(eventId);
-        event.setConfirmedRequests(event.getConfirmedRequests() + count);
-        eventRepository.save(event);
-        log.info("Количество подтвержденных заявок стало больше. Теперь {}", event.getConfirmedRequests());
+        eventCounterService.add(EventCounter.CONFIRMED_REQUESTS, eventId, count);
     }
 
+    /**
+     * Занимает до {@code count} мест условным UPDATE без блокировки строки на чтение.
+     * Если параллельно кто-то успел занять места, свободный остаток перечитывается и попытка повторяется.
+     *
+     * @return сколько мест удалось занять (от 0 до count)
+     */
+    @Override
     @Transactional
-    public void decrementCommentsCount(Long eventId) {
-        Event event = getEntityById(eventId);
-        if (event.getCommentsCount() > 0) {
-            event.setCommentsCount(event.getCommentsCount() - 1);
-            eventRepository.save(event);
-            log.info("Количество комментариев стало меньше. Теперь {}", event.getCommentsCount());
+    public int reserveSeats(Long eventId, int count) {
+        while (true) {
+            EventCapacity capacity = eventRepository.findCapacity(eventId)
+                    .orElseThrow(() -> new NotFoundException("Событие с id=" + eventId + " не найдено."));
+            int granted = capacity.participantLimit() == 0
+                    ? count
+                    : Math.min(count, capacity.participantLimit() - capacity.confirmedRequests());
+            if (granted <= 0) {
+                return 0;
+            }
+            if (eventRepository.addConfirmedRequestsWithinLimit(eventId, granted) == 1) {
+                log.info("Событию id={} подтверждено мест: {}", eventId, granted);
+                return granted;
+            }
         }
     }
 
+    @Override
+    @Transactional
+    public void decrementCommentsCount(Long eventId) {
+        eventCounterService.add(EventCounter.COMMENTS, eventId, -1);
+    }
+
+    @Override
     @Transactional
     public void incrementCommentsCount(Long eventId) {
-        Event event = getEntityById(eventId);
-        event.setCommentsCount(event.getCommentsCount() + 1);
-        eventRepository.save(event);
-        log.info("Количество комментариев стало больше. Теперь {}", event.getCommentsCount());
+        eventCounterService.add(EventCounter.COMMENTS, eventId, 1);
     }
 
 
@@ -218,22 +264,45 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public List<EventFullDto> getEventsByParams(AdminEventSearchRequest request) {
+        return getEventsPageByParams(request).items();
+    }
+
+    @Override
+    public CursorPage<EventFullDto> getEventsPageByParams(AdminEventSearchRequest request) {
         List<Event> events = eventRepository.findByAdminFilter(request);
+        eventViewsEnricher.enrich(CursorPage.pageRows(events, request.getSize()));
 
-        return events.stream()
-                .map(eventMapper::toEventFullDto)
-                .toList();
+        return CursorPage.of(events, request.getSize(), event -> PageCursor.of(event.getEventDate(), event.getId()),
+                eventMapper::toEventFullDto);
     }
 
     @Override
     public List<EventShortDto> getPublicEvents(PublicEventSearchRequest request, HttpServletRequest httpRequest) {
+        return getPublicEventsPage(request, httpRequest).items();
+    }
+
+    @Override
+    public CursorPage<EventShortDto> getPublicEventsPage(PublicEventSearchRequest request,
+                                                         HttpServletRequest httpRequest) {
+        if (Set.of("RELEVANCE", "DISTANCE").contains(request.getSort()) && request.getCursor() != null) {
+            throw new BadRequestException("Выборка по курсору не поддерживается для sort=" + request.getSort());
+        }
         sendStatistics(httpRequest);
 
-        List<Event> events = eventRepository.findPublicEventsByFilter(request);
+        List<EventShortView> rows = findPublicEventShorts(request);
+        Map<Long, LocalDateTime> publishedOn = new HashMap<>();
+        for (EventShortView row : CursorPage.pageRows(rows, request.getSize())) {
+            if (row.publishedOn() != null) {
+                publishedOn.put(row.id(), row.publishedOn());
+            }
+        }
+        Map<Long, Integer> views = eventViewsEnricher.getViews(publishedOn);
 
-        return events.stream()
-                .map(eventMapper::toEventShortDto)
-                .toList();
+        return CursorPage.of(rows, request.getSize(), row -> publicCursor(request.getSort(), row), row -> {
+            EventShortDto dto = eventMapper.toEventShortDto(row);
+            dto.setViews(views.getOrDefault(row.id(), 0));
+            return dto;
+        });
     }
 
     @Override
@@ -243,21 +312,37 @@ public class EventServiceImpl implements EventService {
 
         sendStatistics(httpRequest);
 
-        List<ViewStatsDto> stats = statsClient.getStats(
-                event.getPublishedOn().atZone(ZoneId.systemDefault())
-                        .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime().minusSeconds(1),
-                LocalDateTime.now().atZone(ZoneId.systemDefault())
-                                .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime(),
-                List.of("/events/" + eventId),
-                true
-        );
-
-        int views = stats.isEmpty() ? 0 : stats.getFirst().getHits().intValue();
+        int views = (int) eventViewsCache.getViews(eventId, event.getPublishedOn());
         event.setViews(views);
 
         return eventMapper.toEventFullDto(event);
     }
 
+    /**
+     * Поиск по тексту сначала через индекс в памяти, база проверяет остальные условия только у его кандидатов.
+     */
+    private List<EventShortView> findPublicEventShorts(PublicEventSearchRequest request) {
+        if (request.getText() == null) {
+            return eventRepository.findPublicEventShortsByFilter(request);
+        }
+        Optional<long[]> candidates = eventSearchIndex.search(request.getText(), request.getCategories(),
+                request.getPaid());
+        if (candidates.isEmpty()) {
+            return eventRepository.findPublicEventShortsByFilter(request);
+        }
+        return candidates.get().length == 0 ? List.of()
+                : eventRepository.findPublicEventShortsByIds(request, candidates.get());
+    }
+
+    private static PageCursor publicCursor(String sort, EventShortView row) {
+        if ("COMMENTS".equals(sort)) {
+            return PageCursor.of(row.commentsCount(), row.id());
+        } else if ("VIEWS".equals(sort)) {
+            return PageCursor.of(row.syncedViews(), row.id());
+        }
+        return PageCursor.of(row.eventDate(), row.id());
+    }
+
     private void sendStatistics(HttpServletRequest httpRequest) {
         EndpointHitDto hitDto = EndpointHitDto.builder()
                 .app("ewm-main-service")
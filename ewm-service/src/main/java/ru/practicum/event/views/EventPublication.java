@@ -0,0 +1,6 @@
+package ru.practicum.event.views;
+
+import java.time.LocalDateTime;
+
+public record EventPublication(Long id, LocalDateTime publishedOn) {
+}
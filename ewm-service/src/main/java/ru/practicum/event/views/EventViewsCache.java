@@ -0,0 +1,104 @@
+package ru.practicum.event.views;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.StatsClient;
+import ru.practicum.dto.ViewStatsDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Локальный кэш числа уникальных просмотров опубликованных событий.
+ * Размер и время жизни записей ограничены; устаревшая запись отдаётся сразу и обновляется в фоне,
+ * а одновременные промахи по одному событию приводят к единственному запросу в сервис статистики.
+ * Метрики кэша публикуются в actuator под именем {@value #CACHE_NAME}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsCache {
+
+    static final String CACHE_NAME = "eventViews";
+
+    private final StatsClient statsClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ewm.views.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ewm.views.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${ewm.views.cache.expire-after-write:5m}")
+    private Duration expireAfterWrite;
+
+    @Value("${ewm.views.cache.refresh-after-write:30s}")
+    private Duration refreshAfterWrite;
+
+    private LoadingCache<Key, Long> cache;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Кэш просмотров событий включён: размер {}, срок жизни {}, обновление через {}",
+                maximumSize, expireAfterWrite, refreshAfterWrite);
+    }
+
+    /**
+     * Возвращает число уникальных просмотров события с момента публикации.
+     * При недоступности сервиса статистики возвращает 0, не сохраняя его в кэш.
+     */
+    public long getViews(Long eventId, LocalDateTime publishedOn) {
+        Key key = new Key(eventId, publishedOn);
+        try {
+            return cache != null ? cache.get(key) : load(key);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось получить просмотры события {}: {}", eventId, e.getMessage());
+            return 0;
+        }
+    }
+
+    private long load(Key key) {
+        List<ViewStatsDto> stats = statsClient.fetchStats(
+                toUtc(key.publishedOn()).minusSeconds(1),
+                toUtc(LocalDateTime.now()),
+                List.of(uriOf(key.eventId())),
+                true
+        );
+        return stats.isEmpty() ? 0 : stats.getFirst().getHits();
+    }
+
+    static String uriOf(Long eventId) {
+        return "/events/" + eventId;
+    }
+
+    static LocalDateTime toUtc(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    /**
+     * Дата публикации входит в ключ: при повторной публикации отсчёт просмотров начинается заново.
+     */
+    private record Key(Long eventId, LocalDateTime publishedOn) {
+    }
+}
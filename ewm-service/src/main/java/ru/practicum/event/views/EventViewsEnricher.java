@@ -0,0 +1,72 @@
+package ru.practicum.event.views;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.StatsClient;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.event.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Заполняет просмотры у набора событий одним запросом к сервису статистики по всем их URI.
+ * Просмотры уникальные; запрос один, поэтому начало интервала общее — самая ранняя дата публикации в наборе.
+ * Результат тот же, что и при отсчёте каждого события от своей публикации, как в {@code GET /events/{id}}:
+ * хит на {@code /events/{id}} записывается только для опубликованного события, а опубликованное событие
+ * нельзя изменить или опубликовать повторно, поэтому до своей публикации у события хитов нет.
+ * Неопубликованные события получают 0 и в запрос не попадают.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventViewsEnricher {
+
+    private final StatsClient statsClient;
+
+    public void enrich(Collection<Event> events) {
+        Map<Long, LocalDateTime> publishedOn = new HashMap<>();
+        for (Event event : events) {
+            if (event.getPublishedOn() != null) {
+                publishedOn.put(event.getId(), event.getPublishedOn());
+            }
+        }
+        Map<Long, Integer> views = getViews(publishedOn);
+        for (Event event : events) {
+            event.setViews(views.getOrDefault(event.getId(), 0));
+        }
+    }
+
+    /**
+     * Просмотры по идентификаторам событий; на вход — даты публикации опубликованных событий.
+     * Событий без просмотров в результате нет.
+     */
+    public Map<Long, Integer> getViews(Map<Long, LocalDateTime> publishedOn) {
+        if (publishedOn.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> idsByUri = new HashMap<>();
+        LocalDateTime start = null;
+        for (Map.Entry<Long, LocalDateTime> entry : publishedOn.entrySet()) {
+            idsByUri.put(EventViewsCache.uriOf(entry.getKey()), entry.getKey());
+            if (start == null || entry.getValue().isBefore(start)) {
+                start = entry.getValue();
+            }
+        }
+
+        List<ViewStatsDto> stats = statsClient.getStats(
+                EventViewsCache.toUtc(start).minusSeconds(1),
+                EventViewsCache.toUtc(LocalDateTime.now()),
+                List.copyOf(idsByUri.keySet()),
+                true
+        );
+
+        Map<Long, Integer> views = new HashMap<>();
+        for (ViewStatsDto view : stats) {
+            Long eventId = idsByUri.get(view.getUri());
+            if (eventId != null) {
+                views.merge(eventId, view.getHits().intValue(), Integer::sum);
+            }
+        }
+        return views;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.event.views;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.StatsClient;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Периодически переносит уникальные просмотры опубликованных событий из сервиса статистики
+ * в колонку {@code events.synced_views}, по которой база сортирует выдачу при {@code sort=VIEWS}.
+ * События обходятся порциями по id, на каждую порцию — один запрос статистики от самой ранней публикации
+ * в порции (почему это не меняет результат — см. {@link EventViewsEnricher}). Колонка пишется в обход Hibernate,
+ * поэтому изменённые события вытесняются из кэша второго уровня.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsSyncJob {
+
+    private final EventRepository eventRepository;
+    private final StatsClient statsClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${ewm.views.sync.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ewm.views.sync.chunk-size:100}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${ewm.views.sync.cron:0 */5 * * * *}")
+    public void scheduledSync() {
+        if (enabled) {
+            sync();
+        }
+    }
+
+    /**
+     * Синхронизирует все опубликованные события. При недоступности сервиса статистики обход прерывается,
+     * уже записанные значения остаются, остальные обновятся при следующем запуске.
+     *
+     * @return число событий, у которых изменилось значение просмотров
+     */
+    public int sync() {
+        long afterId = 0;
+        int updated = 0;
+        while (true) {
+            List<EventPublication> chunk = eventRepository.findPublications(afterId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            try {
+                updated += syncChunk(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Синхронизация просмотров прервана на событии {}: {}", afterId, e.getMessage());
+                return updated;
+            }
+            afterId = chunk.getLast().id();
+        }
+        log.info("Синхронизация просмотров завершена, обновлено событий: {}", updated);
+        return updated;
+    }
+
+    private int syncChunk(List<EventPublication> chunk) {
+        Map<String, Long> idsByUri = new HashMap<>();
+        Map<Long, Long> views = new HashMap<>();
+        LocalDateTime start = null;
+        for (EventPublication publication : chunk) {
+            if (publication.publishedOn() == null) {
+                continue;
+            }
+            idsByUri.put(EventViewsCache.uriOf(publication.id()), publication.id());
+            views.put(publication.id(), 0L);
+            if (start == null || publication.publishedOn().isBefore(start)) {
+                start = publication.publishedOn();
+            }
+        }
+        if (views.isEmpty()) {
+            return 0;
+        }
+
+        List<ViewStatsDto> stats = statsClient.fetchStats(
+                EventViewsCache.toUtc(start).minusSeconds(1),
+                EventViewsCache.toUtc(LocalDateTime.now()),
+                List.copyOf(idsByUri.keySet()),
+                true
+        );
+        for (ViewStatsDto view : stats) {
+            Long eventId = idsByUri.get(view.getUri());
+            if (eventId != null) {
+                views.merge(eventId, view.getHits(), Long::sum);
+            }
+        }
+
+        List<Object[]> args = views.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey(), entry.getValue()})
+                .toList();
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE events SET synced_views = ? WHERE id = ? AND synced_views <> ?", args);
+        int updated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                entityManagerFactory.getCache().evict(Event.class, args.get(i)[1]);
+                updated++;
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.pagination;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница выборки и курсор следующей страницы; {@code nextCursor == null}, если страница последняя.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Сколько строк выбирать для страницы из {@code size}: лишняя строка показывает, что есть следующая страница.
+     */
+    public static int rowsToFetch(int size) {
+        return size + 1;
+    }
+
+    /**
+     * Строки самой страницы без лишней строки, выбранной по {@link #rowsToFetch}.
+     */
+    public static <R> List<R> pageRows(List<R> rows, int size) {
+        return rows.size() > size ? rows.subList(0, size) : rows;
+    }
+
+    /**
+     * Страница из строк, выбранных с лимитом {@link #rowsToFetch}: курсор берётся по последней строке страницы,
+     * только если выбралась лишняя строка.
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int size, Function<R, PageCursor> cursorOf,
+                                          Function<R, T> mapper) {
+        List<R> page = pageRows(rows, size);
+        String next = rows.size() > size ? cursorOf.apply(page.getLast()).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+
+    /**
+     * Выставляет заголовок {@link PageCursor#NEXT_CURSOR_HEADER}, если есть следующая страница, и отдаёт элементы.
+     */
+    public List<T> writeTo(HttpServletResponse response) {
+        if (nextCursor != null) {
+            response.setHeader(PageCursor.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return items;
+    }
+}
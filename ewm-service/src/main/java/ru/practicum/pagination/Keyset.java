@@ -0,0 +1,34 @@
+package ru.practicum.pagination;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Условия постраничной выборки по курсору для Criteria API.
+ */
+public final class Keyset {
+
+    private Keyset() {
+    }
+
+    /**
+     * Строки после курсора при сортировке по {@code key}, а при равном ключе — по {@code id}.
+     */
+    public static <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb,
+                                                                    Expression<? extends Y> key, boolean keyDescending,
+                                                                    Y lastKey,
+                                                                    Expression<Long> id, boolean idDescending,
+                                                                    long lastId) {
+        Predicate beyondKey = keyDescending ? cb.lessThan(key, lastKey) : cb.greaterThan(key, lastKey);
+        Predicate beyondId = idDescending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+        return cb.or(beyondKey, cb.and(cb.equal(key, lastKey), beyondId));
+    }
+
+    /**
+     * В режиме курсора смещение не применяется.
+     */
+    public static int firstResult(String cursor, int from) {
+        return cursor != null ? 0 : from;
+    }
+}
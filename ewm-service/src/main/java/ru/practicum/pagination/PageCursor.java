@@ -0,0 +1,75 @@
+package ru.practicum.pagination;
+
+import ru.practicum.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция последней отданной строки: значение ключа сортировки и id для различения равных ключей.
+ * Клиент получает её в заголовке {@link #NEXT_CURSOR_HEADER} как непрозрачную строку и передаёт в параметре
+ * {@code cursor}; следующая страница выбирается условием по ключу, а не смещением, и стоит одинаково на любой глубине.
+ */
+public record PageCursor(String key, long id) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final char SEPARATOR = ':';
+
+    public static PageCursor of(Object key, long id) {
+        return new PageCursor(key == null ? null : key.toString(), id);
+    }
+
+    /**
+     * Пустой токен означает первую страницу, для него возвращается {@code null}.
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new PageCursor(null, Long.parseLong(value));
+            }
+            return new PageCursor(value.substring(separator + 1), Long.parseLong(value.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    public String encode() {
+        String value = key == null ? Long.toString(id) : id + String.valueOf(SEPARATOR) + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime dateTimeKey() {
+        try {
+            return LocalDateTime.parse(requireKey());
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    public long longKey() {
+        try {
+            return Long.parseLong(requireKey());
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private String requireKey() {
+        if (key == null) {
+            throw invalid();
+        }
+        return key;
+    }
+
+    private static BadRequestException invalid() {
+        return new BadRequestException("Некорректный курсор страницы");
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.user.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.transaction.AfterCommit;
+import ru.practicum.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Множество id существующих пользователей в памяти — битовая карта, бит на id. Проверка известного id
+ * обходится без запроса к базе; неизвестный id проверяется в базе и при наличии добавляется в карту.
+ * Создание и удаление пользователей через сервис отражаются после коммита. Пользователь, удалённый
+ * другим экземпляром сервиса, останется в карте, поэтому включать кэш стоит для одного экземпляра.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserExistenceCache implements SmartInitializingSingleton {
+
+    private static final int LOAD_CHUNK = 10_000;
+    private static final long MAX_ID = (long) Integer.MAX_VALUE << 6;
+
+    private final UserRepository userRepository;
+
+    @Value("${ewm.users.existence-cache.enabled:false}")
+    private boolean enabled;
+
+    private volatile AtomicLongArray words = new AtomicLongArray(0);
+    private volatile boolean ready;
+
+    /**
+     * Число удалений: id, найденный в базе одновременно с удалением, в карту не добавляется.
+     */
+    private long deletions;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    void load() {
+        long afterId = 0;
+        int count = 0;
+        List<Long> ids;
+        while (!(ids = userRepository.findIdsAfter(afterId, LOAD_CHUNK)).isEmpty()) {
+            synchronized (this) {
+                ids.forEach(this::set);
+            }
+            afterId = ids.getLast();
+            count += ids.size();
+        }
+        ready = true;
+        log.info("Кэш существования пользователей загружен: {}", count);
+    }
+
+    public boolean exists(Long userId) {
+        if (!ready) {
+            return userRepository.existsById(userId);
+        }
+        if (contains(userId)) {
+            return true;
+        }
+        long seenDeletions = deletionsSoFar();
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            addIfNotDeletedSince(userId, seenDeletions);
+        }
+        return exists;
+    }
+
+    public void onCreated(Long userId) {
+        if (enabled) {
+            AfterCommit.run(() -> add(userId));
+        }
+    }
+
+    public void onDeleted(Long userId) {
+        if (enabled) {
+            AfterCommit.run(() -> remove(userId));
+        }
+    }
+
+    private boolean contains(long id) {
+        AtomicLongArray current = words;
+        int index = (int) (id >>> 6);
+        return id > 0 && id < MAX_ID && index < current.length() && (current.get(index) & (1L << id)) != 0;
+    }
+
+    private synchronized long deletionsSoFar() {
+        return deletions;
+    }
+
+    private synchronized void add(long id) {
+        set(id);
+    }
+
+    private synchronized void addIfNotDeletedSince(long id, long seenDeletions) {
+        if (deletions == seenDeletions) {
+            set(id);
+        }
+    }
+
+    private synchronized void remove(long id) {
+        deletions++;
+        int index = (int) (id >>> 6);
+        if (id > 0 && id < MAX_ID && index < words.length()) {
+            words.set(index, words.get(index) & ~(1L << id));
+        }
+    }
+
+    private void set(long id) {
+        if (id <= 0 || id >= MAX_ID) {
+            return;
+        }
+        int index = (int) (id >>> 6);
+        AtomicLongArray current = words;
+        if (index >= current.length()) {
+            AtomicLongArray grown = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE,
+                    Math.max(index + 1L, current.length() * 2L)));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            words = grown;
+            current = grown;
+        }
+        current.set(index, current.get(index) | (1L << id));
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.user.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -32,8 +33,13 @@ public class AdminUserController {
     public List<UserDto> getUsers(
             @RequestParam(required = false) List<Long> ids,
             @RequestParam(defaultValue = "0") int from,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response
     ) {
+        if (cursor != null) {
+            return userService.getUsers(ids, cursor, size).writeTo(response);
+        }
         return userService.getUsers(ids, from, size);
     }
 
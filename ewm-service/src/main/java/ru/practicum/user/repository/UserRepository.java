@@ -22,4 +22,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
             @Param("from") int from,
             @Param("size") int size
     );
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id LIMIT :size")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, @Param("size") int size);
+
+    @Query("SELECT u FROM User u WHERE (:ids IS NULL OR u.id IN :ids) AND u.id > :afterId ORDER BY u.id LIMIT :size")
+    List<User> findUsersAfter(
+            @Param("ids") List<Long> ids,
+            @Param("afterId") long afterId,
+            @Param("size") int size
+    );
 }
\ No newline at end of file
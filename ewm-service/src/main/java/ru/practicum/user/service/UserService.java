@@ -1,5 +1,6 @@
 package ru.practicum.user.service;
 
+import ru.practicum.pagination.CursorPage;
 import ru.practicum.user.model.NewUserRequest;
 import ru.practicum.user.model.User;
 import ru.practicum.user.model.UserDto;
@@ -14,7 +15,11 @@ public interface UserService {
 
     List<UserDto> getUsers(List<Long> ids, int from, int size);
 
+    CursorPage<UserDto> getUsers(List<Long> ids, String cursor, int size);
+
     void delete(Long userId);
 
     User getEntityById(Long id);
+
+    void checkExists(Long id);
 }
\ No newline at end of file
@@ -3,8 +3,14 @@ package ru.practicum.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.compilation.cache.CompilationCache;
+import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.pagination.PageCursor;
+import ru.practicum.user.cache.UserExistenceCache;
 import ru.practicum.user.mapper.UserMapper;
 import ru.practicum.user.model.NewUserRequest;
 import ru.practicum.user.model.User;
@@ -19,7 +25,10 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final EventRepository eventRepository;
     private final UserMapper userMapper;
+    private final CompilationCache compilationCache;
+    private final UserExistenceCache userExistenceCache;
 
     @Override
     public UserDto create(NewUserRequest newUserRequest) {
@@ -28,6 +37,7 @@ public class UserServiceImpl implements UserService {
         }
         User user = userMapper.toUser(newUserRequest);
         User createdUser = userRepository.save(user);
+        userExistenceCache.onCreated(createdUser.getId());
 
         log.info("Пользователь успешно создан с id: {}, email: {}",
                 user.getId(), user.getEmail());
@@ -53,9 +63,24 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    public CursorPage<UserDto> getUsers(List<Long> ids, String cursor, int size) {
+        if (size <= 0) throw new IllegalArgumentException("Size parameter must be positive");
+
+        PageCursor after = PageCursor.decode(cursor);
+        List<User> users = userRepository.findUsersAfter(ids, after == null ? 0 : after.id(),
+                CursorPage.rowsToFetch(size));
+
+        return CursorPage.of(users, size, user -> PageCursor.of(null, user.getId()), userMapper::toUserDto);
+    }
+
+    @Override
+    @Transactional
     public void delete(Long userId) {
         getEntityById(userId);
+        eventRepository.deleteByInitiatorId(userId);
         userRepository.deleteById(userId);
+        compilationCache.onUserDeleted(userId);
+        userExistenceCache.onDeleted(userId);
 
         log.info("Пользователь с id {} удалён", userId);
     }
@@ -66,4 +91,11 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() ->
                         new NotFoundException("Пользователь с id=" + id + " не найден"));
     }
+
+    @Override
+    public void checkExists(Long id) {
+        if (!userExistenceCache.exists(id)) {
+            throw new NotFoundException("Пользователь с id=" + id + " не найден");
+        }
+    }
 }
\ No newline at end of file
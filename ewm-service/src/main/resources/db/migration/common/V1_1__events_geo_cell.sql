@@ -0,0 +1,11 @@
+-- Ячейка сетки 0.01° (GeoGrid.cellOf) для поиска событий по расстоянию. В базе, созданной schema.sql после
+-- появления колонки, она уже есть — операторы идемпотентны.
+ALTER TABLE events ADD COLUMN IF NOT EXISTS geo_cell BIGINT;
+
+-- Ячейка для событий, сохранённых до появления колонки
+UPDATE events
+SET geo_cell = LEAST(CAST(FLOOR((location_lat + 90) * 100) AS BIGINT), 17999) * 36000
+    + LEAST(CAST(FLOOR((location_lon + 180) * 100) AS BIGINT), 35999)
+WHERE geo_cell IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_events_geo_cell ON events (geo_cell);
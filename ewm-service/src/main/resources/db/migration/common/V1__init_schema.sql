@@ -1,3 +1,6 @@
+-- Схема на момент перехода на Flyway. Все операторы идемпотентны: в базе, которую раньше создавали
+-- schema.sql и ddl-auto=update, миграция только добавит недостающее (baseline-version=0).
+
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
     email VARCHAR(254) NOT NULL,
@@ -26,15 +29,25 @@ CREATE TABLE IF NOT EXISTS events (
     request_moderation BOOLEAN DEFAULT TRUE,
     state VARCHAR(32) NOT NULL,
     title VARCHAR(120) NOT NULL,
-    comments_count BIGINT NOT NULL DEFAULT 0
+    comments_count BIGINT NOT NULL DEFAULT 0,
+    synced_views BIGINT NOT NULL DEFAULT 0
 );
 
-CREATE TABLE IF NOT EXISTS participation_requests (
+ALTER TABLE events ADD COLUMN IF NOT EXISTS synced_views BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_events_state_synced_views ON events (state, synced_views DESC);
+
+-- Индексы под выборку страниц по курсору: ключ сортировки и id
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date_id ON events (state, event_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_events_initiator_id ON events (initiator_id, id DESC);
+
+-- Заявки на участие: сущность ParticipationRequest всегда писала в requests, таблицу создавал ddl-auto=update
+CREATE TABLE IF NOT EXISTS requests (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
     created TIMESTAMP NOT NULL,
     event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
     requester_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    status VARCHAR(16) NOT NULL,
+    status VARCHAR(32) NOT NULL,
     CONSTRAINT uniq_event_request UNIQUE (event_id, requester_id)
 );
 
@@ -56,4 +69,6 @@ CREATE TABLE IF NOT EXISTS comments (
     event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
     author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_created_id ON comments (created DESC, id DESC);
@@ -0,0 +1,10 @@
+-- Фильтр администратора по инициаторам с сортировкой по дате события (findByAdminFilter)
+CREATE INDEX IF NOT EXISTS idx_events_initiator_event_date ON events (initiator_id, event_date DESC, id DESC);
+
+-- Комментарии события и комментарии автора в порядке created DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_comments_event_created ON comments (event_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_author_created ON comments (author_id, created DESC, id DESC);
+
+-- Заявки пользователя и заявки на событие: PostgreSQL не индексирует внешние ключи сам
+CREATE INDEX IF NOT EXISTS idx_requests_requester_id ON requests (requester_id);
+CREATE INDEX IF NOT EXISTS idx_requests_event_id ON requests (event_id);
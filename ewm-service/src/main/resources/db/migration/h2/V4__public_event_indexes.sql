@@ -0,0 +1,8 @@
+-- H2 не поддерживает частичные индексы: те же индексы, что в postgresql/V4, но по всем событиям.
+-- Поиск по списку значений H2 выполняет только по первой колонке индекса, поэтому category_id и paid — первые.
+
+CREATE INDEX IF NOT EXISTS idx_events_published_category_date ON events (category_id, event_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_events_published_paid_date ON events (paid, event_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_events_published_comments ON events (state, comments_count DESC, id DESC);
@@ -0,0 +1,4 @@
+-- H2 не собирает статистику сам и считает все колонки одинаково избирательными. У state всего несколько
+-- значений: без этой подсказки выбор между индексом по state и индексами по category_id, paid или geo_cell
+-- зависит от порядка их создания, а PostgreSQL по статистике выбирает более избирательный.
+ALTER TABLE events ALTER COLUMN state SELECTIVITY 1;
@@ -0,0 +1,6 @@
+-- Полнотекстовый поиск событий (ewm.search.full-text.enabled): выражение совпадает с функцией fts_match
+-- из EventSearchFunctions, иначе планировщик не использует индекс
+CREATE INDEX IF NOT EXISTS idx_events_search ON events USING GIN ((
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+    || setweight(to_tsvector('simple', coalesce(annotation, '')), 'B')
+    || setweight(to_tsvector('simple', coalesce(description, '')), 'C')));
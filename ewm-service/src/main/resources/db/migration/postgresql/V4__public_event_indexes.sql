@@ -0,0 +1,14 @@
+-- Публичный поиск видит только опубликованные события, поэтому индексы частичные: в них нет черновиков
+-- и отменённых событий, а state не нужен в ключе. Порядок колонок повторяет сортировку publicOrder.
+
+-- Фильтр по категориям (category_id IN ...) с сортировкой по дате события
+CREATE INDEX IF NOT EXISTS idx_events_published_category_date
+    ON events (category_id, event_date DESC, id DESC) WHERE state = 'PUBLISHED';
+
+-- Фильтр paid с сортировкой по дате события
+CREATE INDEX IF NOT EXISTS idx_events_published_paid_date
+    ON events (paid, event_date DESC, id DESC) WHERE state = 'PUBLISHED';
+
+-- sort=COMMENTS
+CREATE INDEX IF NOT EXISTS idx_events_published_comments
+    ON events (comments_count DESC, id DESC) WHERE state = 'PUBLISHED';
@@ -0,0 +1,72 @@
+package ru.practicum.category.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.category.mapper.CategoryMapperImpl;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.model.CategoryDto;
+import ru.practicum.category.repository.CategoryRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryDictionaryTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final CategoryDictionary dictionary = new CategoryDictionary(categoryRepository, new CategoryMapperImpl());
+
+    @Test
+    void afterSingletonsInstantiated_shouldLoadAllCategories() {
+        when(categoryRepository.findAll()).thenReturn(List.of(new Category(1L, "Концерты"), new Category(2L, "Кино")));
+
+        dictionary.afterSingletonsInstantiated();
+
+        assertThat(dictionary.contains(1L)).isTrue();
+        assertThat(dictionary.find(2L)).contains(new CategoryDto(2L, "Кино"));
+        assertThat(dictionary.find(3L)).isEmpty();
+    }
+
+    @Test
+    void toDto_shouldTakeNameFromDictionaryById() {
+        when(categoryRepository.findAll()).thenReturn(List.of(new Category(1L, "Концерты")));
+        dictionary.reload();
+
+        assertThat(dictionary.toDto(new Category(1L, null))).isEqualTo(new CategoryDto(1L, "Концерты"));
+        assertThat(dictionary.toDto(new Category(5L, "Театр"))).isEqualTo(new CategoryDto(5L, "Театр"));
+        assertThat(dictionary.toDto(null)).isNull();
+    }
+
+    @Test
+    void find_shouldReturnCopies() {
+        dictionary.onSaved(new Category(1L, "Концерты"));
+
+        dictionary.find(1L).orElseThrow().setName("Изменено");
+
+        assertThat(dictionary.find(1L)).contains(new CategoryDto(1L, "Концерты"));
+    }
+
+    @Test
+    void onSavedAndOnDeleted_inTransaction_shouldApplyAfterCommit() {
+        dictionary.onSaved(new Category(1L, "Концерты"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dictionary.onSaved(new Category(1L, "Кино"));
+            dictionary.onDeleted(1L);
+            dictionary.onSaved(new Category(2L, "Театр"));
+            assertThat(dictionary.find(1L)).contains(new CategoryDto(1L, "Концерты"));
+            assertThat(dictionary.contains(2L)).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(dictionary.contains(1L)).isFalse();
+        assertThat(dictionary.find(2L)).contains(new CategoryDto(2L, "Театр"));
+    }
+}
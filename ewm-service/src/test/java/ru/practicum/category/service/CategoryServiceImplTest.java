@@ -5,11 +5,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.category.cache.CategoryDictionary;
 import ru.practicum.category.mapper.CategoryMapper;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.model.CategoryDto;
 import ru.practicum.category.model.NewCategoryDto;
 import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.compilation.cache.CompilationCache;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
@@ -33,6 +35,12 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private CompilationCache compilationCache;
+
+    @Mock
+    private CategoryDictionary categoryDictionary;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -51,6 +59,7 @@ class CategoryServiceImplTest {
 
         assertEquals(categoryDto, result);
         verify(categoryRepository).save(category);
+        verify(categoryDictionary).onSaved(category);
     }
 
     @Test
@@ -103,6 +112,7 @@ class CategoryServiceImplTest {
 
         assertEquals(updatedDto, result);
         verify(categoryRepository).save(category);
+        verify(compilationCache).onCategoryChanged(1L);
     }
 
     @Test
@@ -139,6 +149,17 @@ class CategoryServiceImplTest {
         assertEquals(category, result);
     }
 
+    @Test
+    void getEntityById_whenInDictionary_shouldReturnReferenceWithoutQuery() {
+        when(categoryDictionary.contains(1L)).thenReturn(true);
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
+
+        Category result = categoryService.getEntityById(1L);
+
+        assertEquals(category, result);
+        verify(categoryRepository, never()).findById(any());
+    }
+
     @Test
     void getEntityById_whenNotExists_shouldThrowNotFoundException() {
         when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
@@ -156,6 +177,16 @@ class CategoryServiceImplTest {
         assertEquals(categoryDto, result);
     }
 
+    @Test
+    void getCategoryById_whenInDictionary_shouldNotQueryRepository() {
+        when(categoryDictionary.find(1L)).thenReturn(Optional.of(categoryDto));
+
+        CategoryDto result = categoryService.getCategoryById(1L);
+
+        assertEquals(categoryDto, result);
+        verifyNoInteractions(categoryRepository);
+    }
+
     @Test
     void getCategories_shouldReturnPaginatedResults() {
         int from = 0;
@@ -0,0 +1,274 @@
+package ru.practicum.compilation.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.category.cache.CategoryDictionary;
+import ru.practicum.category.mapper.CategoryMapperImpl;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.compilation.mapper.CompilationMapperImpl;
+import ru.practicum.compilation.model.Compilation;
+import ru.practicum.compilation.model.CompilationDto;
+import ru.practicum.event.mapper.EventMapperImpl;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventCounters;
+import ru.practicum.event.model.EventShortDto;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.views.EventViewsEnricher;
+import ru.practicum.user.mapper.UserMapperImpl;
+import ru.practicum.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CompilationCacheTest {
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final EventViewsEnricher eventViewsEnricher = mock(EventViewsEnricher.class);
+
+    private final Compilation c5 = compilation(5L, true, event(51L, 1L, 1L));
+    private final Compilation c4 = compilation(4L, false, event(41L, 2L, 2L));
+    private final Compilation c3 = compilation(3L, true, event(31L, 1L, 3L));
+    private final Compilation c2 = compilation(2L, false);
+
+    @Test
+    void getPage_disabled_shouldLoadEveryTime() {
+        CompilationCache cache = cache(false, Duration.ofSeconds(30));
+        CountingLoader loader = new CountingLoader(List.of(c5, c4));
+
+        cache.getPage(null, 0, 2, loader);
+        cache.getPage(null, 0, 2, loader);
+
+        assertThat(loader.calls).hasValue(2);
+    }
+
+    @Test
+    void getPage_enabled_shouldServeRenderedPageWithViews() {
+        CompilationCache cache = cache(true, Duration.ofSeconds(30));
+        CountingLoader loader = new CountingLoader(List.of(c5, c4));
+        when(eventViewsEnricher.getViews(any())).thenReturn(Map.of(51L, 7));
+
+        List<CompilationDto> first = cache.getPage(null, 0, 2, loader);
+        List<CompilationDto> second = cache.getPage(null, 0, 2, loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first).extracting(CompilationDto::getId).containsExactly(5L, 4L);
+        assertThat(first.getFirst().getEvents()).extracting(EventShortDto::getViews).containsExactly(7);
+        assertThat(loader.calls).hasValue(1);
+        verify(eventViewsEnricher, times(1)).getViews(any());
+    }
+
+    @Test
+    void getPage_afterLiveTtl_shouldRefreshViewsAndCountersWithoutReloading() {
+        CompilationCache cache = cache(true, Duration.ZERO);
+        CountingLoader loader = new CountingLoader(List.of(c5));
+        when(eventViewsEnricher.getViews(any())).thenReturn(Map.of(51L, 7), Map.of(51L, 9));
+        when(eventRepository.findCounters(Set.of(51L))).thenReturn(List.of(new EventCounters(51L, 3, 2)));
+
+        EventShortDto before = cache.getPage(null, 0, 1, loader).getFirst().getEvents().getFirst();
+        EventShortDto after = cache.getPage(null, 0, 1, loader).getFirst().getEvents().getFirst();
+
+        assertThat(loader.calls).hasValue(1);
+        assertThat(before.getViews()).isEqualTo(7);
+        assertThat(before.getConfirmedRequests()).isZero();
+        assertThat(after.getViews()).isEqualTo(9);
+        assertThat(after.getConfirmedRequests()).isEqualTo(3);
+        assertThat(after.getCommentsCount()).isEqualTo(2);
+        assertThat(after.getTitle()).isEqualTo(before.getTitle());
+    }
+
+    @Test
+    void onCompilationUpdated_shouldEvictOnlyPagesAndEntryWithCompilation() {
+        CompilationCache cache = cache(true, Duration.ofSeconds(30));
+        CountingLoader firstPage = new CountingLoader(List.of(c5, c4));
+        CountingLoader secondPage = new CountingLoader(List.of(c3, c2));
+        CountingLoader byId = new CountingLoader(List.of(c3));
+
+        load(cache, firstPage, secondPage, byId);
+        cache.onCompilationUpdated(3L, true, true);
+        load(cache, firstPage, secondPage, byId);
+
+        assertThat(firstPage.calls).hasValue(1);
+        assertThat(secondPage.calls).hasValue(2);
+        assertThat(byId.calls).hasValue(2);
+    }
+
+    @Test
+    void onCompilationUpdated_pinnedChanged_shouldEvictShiftedPagesOfBothFilters() {
+        CompilationCache cache = cache(true, Duration.ofSeconds(30));
+        CountingLoader pinned = new CountingLoader(List.of(c5, c3));
+        CountingLoader unpinned = new CountingLoader(List.of(c4, c2));
+        CountingLoader all = new CountingLoader(List.of(c5));
+
+        cache.getPage(true, 0, 2, pinned);
+        cache.getPage(false, 0, 2, unpinned);
+        cache.getPage(null, 0, 1, all);
+        cache.onCompilationUpdated(3L, true, false);
+        cache.getPage(true, 0, 2, pinned);
+        cache.getPage(false, 0, 2, unpinned);
+        cache.getPage(null, 0, 1, all);
+
+        assertThat(pinned.calls).hasValue(2);
+        assertThat(unpinned.calls).hasValue(2);
+        assertThat(all.calls).hasValue(1);
+    }
+
+    @Test
+    void onCompilationCreated_shouldEvictPagesOfMatchingFilter() {
+        CompilationCache cache = cache(true, Duration.ofSeconds(30));
+        CountingLoader pinned = new CountingLoader(List.of(c5, c3));
+        CountingLoader unpinned = new CountingLoader(List.of(c4, c2));
+
+        cache.getPage(true, 0, 2, pinned);
+        cache.getPage(false, 0, 2, unpinned);
+        cache.onCompilationCreated(6L, false);
+        cache.getPage(true, 0, 2, pinned);
+        cache.getPage(false, 0, 2, unpinned);
+
+        assertThat(pinned.calls).hasValue(1);
+        assertThat(unpinned.calls).hasValue(2);
+    }
+
+    @Test
+    void onCompilationCreated_emptyPage_shouldEvictPage() {
+        CompilationCache cache = cache(true, Duration.ofSeconds(30));
+        CountingLoader empty = new CountingLoader(List.of());
+
+        cache.getPage(null, 0, 0, empty);
+        cache.onCompilationCreated(6L, true);
+        cache.getPage(null, 0, 0, empty);
+
+        assertThat(empty.calls).hasValue(2);
+    }
+
+    @Test
+    void onCompilationDeleted_shouldKeepPagesBeforeCompilation() {
+        CompilationCache cache = cache(true, Duration.ofSeconds(30));
+        CountingLoader head = new CountingLoader(List.of(c5));
+        CountingLoader withDeleted = new CountingLoader(List.of(c5, c4));
+        CountingLoader after = new CountingLoader(List.of(c3, c2));
+
+        cache.getPage(null, 0, 1, head);
+        cache.getPage(null, 0, 2, withDeleted);
+        cache.getPage(null, 2, 2, after);
+        cache.onCompilationDeleted(4L, false);
+        cache.getPage(null, 0, 1, head);
+        cache.getPage(null, 0, 2, withDeleted);
+        cache.getPage(null, 2, 2, after);
+
+        assertThat(head.calls).hasValue(1);
+        assertThat(withDeleted.calls).hasValue(2);
+        assertThat(after.calls).hasValue(2);
+    }
+
+    @Test
+    void onEventCategoryOrUserChanged_shouldEvictEntriesWithAffectedEvents() {
+        CompilationCache cache = cache(true, Duration.ofSeconds(30));
+        CountingLoader withEvent = new CountingLoader(List.of(c4));
+        CountingLoader other = new CountingLoader(List.of(c2));
+
+        cache.get(4L, () -> withEvent.get().getFirst());
+        cache.get(2L, () -> other.get().getFirst());
+        cache.onEventChanged(41L);
+        cache.get(4L, () -> withEvent.get().getFirst());
+        cache.onCategoryChanged(2L);
+        cache.get(4L, () -> withEvent.get().getFirst());
+        cache.onUserDeleted(2L);
+        cache.get(4L, () -> withEvent.get().getFirst());
+        cache.get(2L, () -> other.get().getFirst());
+
+        assertThat(withEvent.calls).hasValue(4);
+        assertThat(other.calls).hasValue(1);
+    }
+
+    @Test
+    void onEventChanged_inTransaction_shouldEvictAfterCommit() {
+        CompilationCache cache = cache(true, Duration.ofSeconds(30));
+        CountingLoader loader = new CountingLoader(List.of(c5));
+
+        cache.getPage(null, 0, 1, loader);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.onEventChanged(51L);
+            cache.getPage(null, 0, 1, loader);
+            assertThat(loader.calls).hasValue(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.getPage(null, 0, 1, loader);
+
+        assertThat(loader.calls).hasValue(2);
+    }
+
+    private void load(CompilationCache cache, CountingLoader firstPage, CountingLoader secondPage,
+                      CountingLoader byId) {
+        cache.getPage(null, 0, 2, firstPage);
+        cache.getPage(null, 2, 2, secondPage);
+        cache.get(3L, () -> byId.get().getFirst());
+    }
+
+    private CompilationCache cache(boolean enabled, Duration liveTtl) {
+        EventMapperImpl eventMapper = new EventMapperImpl();
+        ReflectionTestUtils.setField(eventMapper, "categoryDictionary",
+                new CategoryDictionary(mock(CategoryRepository.class), new CategoryMapperImpl()));
+        ReflectionTestUtils.setField(eventMapper, "userMapper", new UserMapperImpl());
+        CompilationMapperImpl compilationMapper = new CompilationMapperImpl();
+        ReflectionTestUtils.setField(compilationMapper, "eventMapper", eventMapper);
+
+        CompilationCache cache = new CompilationCache(compilationMapper, eventRepository, eventViewsEnricher,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "expireAfterWrite", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "liveTtl", liveTtl);
+        cache.init();
+        return cache;
+    }
+
+    private static Compilation compilation(Long id, boolean pinned, Event... events) {
+        return new Compilation(id, "Подборка " + id, pinned, new HashSet<>(List.of(events)));
+    }
+
+    private static Event event(Long id, Long categoryId, Long userId) {
+        return Event.builder()
+                .id(id)
+                .title("Событие " + id)
+                .annotation("Odio sint delectus beatae nulla")
+                .category(new Category(categoryId, "Категория " + categoryId))
+                .initiator(new User(userId, "u" + userId + "@test.com", "User " + userId))
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .publishedOn(LocalDateTime.now().minusDays(1))
+                .paid(false)
+                .build();
+    }
+
+    private static class CountingLoader implements Supplier<List<Compilation>> {
+        private final List<Compilation> result;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingLoader(List<Compilation> result) {
+            this.result = result;
+        }
+
+        @Override
+        public List<Compilation> get() {
+            calls.incrementAndGet();
+            return result;
+        }
+    }
+}
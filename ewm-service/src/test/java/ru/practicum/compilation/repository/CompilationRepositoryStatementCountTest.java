@@ -0,0 +1,133 @@
+package ru.practicum.compilation.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.category.cache.CategoryDictionary;
+import ru.practicum.category.mapper.CategoryMapperImpl;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.compilation.mapper.CompilationMapper;
+import ru.practicum.compilation.mapper.CompilationMapperImpl;
+import ru.practicum.compilation.model.Compilation;
+import ru.practicum.compilation.model.CompilationDto;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.mapper.EventMapperImpl;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.user.mapper.UserMapperImpl;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов на страницу подборок вместе с маппингом в DTO не должно зависеть от числа подборок и событий.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({CompilationMapperImpl.class, EventMapperImpl.class, CategoryMapperImpl.class, UserMapperImpl.class,
+        CategoryDictionary.class})
+class CompilationRepositoryStatementCountTest {
+
+    private static final int COMPILATIONS = 10;
+    private static final int EVENTS_PER_COMPILATION = 4;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CompilationMapper compilationMapper;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        for (int c = 0; c < COMPILATIONS; c++) {
+            Set<Event> events = new HashSet<>();
+            for (int e = 0; e < EVENTS_PER_COMPILATION; e++) {
+                int i = c * EVENTS_PER_COMPILATION + e;
+                User user = userRepository.save(new User(null, "n" + i + "@test.com", "User " + i));
+                Category category = categoryRepository.save(new Category(null, "Category " + i));
+                events.add(eventRepository.save(Event.builder()
+                        .title("Event " + i)
+                        .annotation("Odio sint delectus beatae nulla")
+                        .description("Odio sint delectus beatae nulla")
+                        .category(category)
+                        .initiator(user)
+                        .eventDate(LocalDateTime.now().plusDays(1 + i))
+                        .createdOn(LocalDateTime.now())
+                        .publishedOn(LocalDateTime.now())
+                        .state(EventState.PUBLISHED)
+                        .paid(false)
+                        .location(new Location(0.0, 0.0))
+                        .build()));
+            }
+            compilationRepository.save(new Compilation(null, "Подборка " + c, c % 2 == 0, events));
+        }
+        compilationRepository.save(new Compilation(null, "Пустая", false, new HashSet<>()));
+        entityManager.flush();
+    }
+
+    @Test
+    void findCompilations_shouldUseTwoStatementsPerPage() {
+        assertThat(statementsFor(() -> page(null, 3))).isEqualTo(2);
+        assertThat(statementsFor(() -> page(null, COMPILATIONS + 1))).isEqualTo(2);
+        assertThat(statementsFor(() -> page(true, COMPILATIONS))).isEqualTo(2);
+    }
+
+    @Test
+    void findCompilations_shouldKeepPageOrderAndAllEvents() {
+        entityManager.clear();
+
+        List<CompilationDto> page = page(null, COMPILATIONS + 1);
+
+        assertThat(page).extracting(CompilationDto::getTitle)
+                .startsWith("Пустая", "Подборка 9", "Подборка 8");
+        assertThat(page.getFirst().getEvents()).isEmpty();
+        assertThat(page.subList(1, page.size()))
+                .allSatisfy(dto -> assertThat(dto.getEvents()).hasSize(EVENTS_PER_COMPILATION));
+    }
+
+    @Test
+    void findWithEventsById_shouldUseOneStatement() {
+        Long id = compilationRepository.findCompilations(null, 1, 1).getFirst().getId();
+
+        assertThat(statementsFor(() -> List.of(compilationMapper.toDto(
+                compilationRepository.findWithEventsById(id).orElseThrow())))).isEqualTo(1);
+    }
+
+    private List<CompilationDto> page(Boolean pinned, int size) {
+        return compilationRepository.findCompilations(pinned, 0, size).stream()
+                .map(compilationMapper::toDto)
+                .toList();
+    }
+
+    private long statementsFor(Supplier<List<CompilationDto>> page) {
+        entityManager.clear();
+        statistics.clear();
+        assertThat(page.get()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.compilation.cache.CompilationCache;
 import ru.practicum.compilation.mapper.CompilationMapper;
 import ru.practicum.compilation.model.Compilation;
 import ru.practicum.compilation.model.CompilationDto;
@@ -16,6 +17,7 @@ import ru.practicum.event.service.EventService;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -33,6 +35,9 @@ class CompilationServiceImplTest {
     @Mock
     EventService eventService;
 
+    @Mock
+    CompilationCache compilationCache;
+
     @InjectMocks
     CompilationServiceImpl compilationService;
 
@@ -54,6 +59,7 @@ class CompilationServiceImplTest {
 
         assertThat(result).isEqualTo(expectedDto);
         verify(compilationRepository).save(entity);
+        verify(compilationCache).onCompilationCreated(saved.getId(), saved.getPinned());
     }
 
     @Test
@@ -61,6 +67,7 @@ class CompilationServiceImplTest {
         Long compId = 1L;
         UpdateCompilationRequest updateDto = new UpdateCompilationRequest(Set.of(5L), false, "Новое");
         Compilation existing = new Compilation();
+        existing.setPinned(true);
         CompilationDto dto = new CompilationDto();
         Set<Event> events = Set.of(new Event());
 
@@ -73,6 +80,7 @@ class CompilationServiceImplTest {
 
         assertThat(result).isEqualTo(dto);
         verify(compilationMapper).updateCompilationFromDto(updateDto, existing);
+        verify(compilationCache).onCompilationUpdated(compId, true, existing.getPinned());
     }
 
     @Test
@@ -83,6 +91,7 @@ class CompilationServiceImplTest {
         compilationService.delete(42L);
 
         verify(compilationRepository).delete(existing);
+        verify(compilationCache).onCompilationDeleted(42L, existing.getPinned());
     }
 
     @Test
@@ -90,11 +99,16 @@ class CompilationServiceImplTest {
         Compilation comp = new Compilation();
         CompilationDto dto = new CompilationDto();
 
-        when(compilationRepository.findById(1L)).thenReturn(Optional.of(comp));
-        when(compilationMapper.toDto(comp)).thenReturn(dto);
+        when(compilationRepository.findWithEventsById(1L)).thenReturn(Optional.of(comp));
+        when(compilationCache.get(eq(1L), any())).thenAnswer(invocation -> {
+            Supplier<Compilation> loader = invocation.getArgument(1);
+            assertThat(loader.get()).isSameAs(comp);
+            return dto;
+        });
 
         CompilationDto result = compilationService.getCompilationById(1L, null);
 
         assertThat(result).isEqualTo(dto);
+        verify(compilationRepository).findWithEventsById(1L);
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import ru.practicum.event.comment.model.Comment;
 import ru.practicum.event.comment.model.UserCommentSearchRequest;
 import ru.practicum.event.location.Location;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.state.EventState;
 import ru.practicum.user.model.User;
 
 import java.time.LocalDateTime;
@@ -51,6 +52,7 @@ class CommentRepositoryCustomImplTest {
                 .description("Odio sint delectus beatae nulla")
                 .eventDate(LocalDateTime.now().plusDays(1))
                 .createdOn(LocalDateTime.now())
+                .state(EventState.PUBLISHED)
                 .initiator(user)
                 .paid(false)
                 .location(new Location(1.0, 1.0))
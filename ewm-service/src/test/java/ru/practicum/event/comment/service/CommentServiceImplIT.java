@@ -66,6 +66,7 @@ class CommentServiceImplIT {
                 .annotation("Odio sint delectus beatae nulla")
                 .description("Odio sint delectus beatae nulla")
                 .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
                 .location(new Location(55.75, 37.62))
                 .paid(false)
                 .category(category)
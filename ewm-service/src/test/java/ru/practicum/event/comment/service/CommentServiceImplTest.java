@@ -104,7 +104,6 @@ class CommentServiceImplTest {
     @Test
     void updateComment_shouldUpdateCommentText() {
         UpdateCommentRequest request = new UpdateCommentRequest("Updated text");
-        when(userService.getEntityById(anyLong())).thenReturn(user);
         when(commentRepository.findById(anyLong())).thenReturn(Optional.of(comment));
         when(commentMapper.toDto(any(Comment.class))).thenReturn(
                 new CommentDto(1L, "Updated text", "User", LocalDateTime.now()));
@@ -118,10 +117,7 @@ class CommentServiceImplTest {
 
     @Test
     void updateComment_shouldThrowForbiddenForNonAuthor() {
-        User otherUser = new User();
-        otherUser.setId(2L);
         UpdateCommentRequest request = new UpdateCommentRequest("Updated text");
-        when(userService.getEntityById(anyLong())).thenReturn(otherUser);
         when(commentRepository.findById(anyLong())).thenReturn(Optional.of(comment));
 
         assertThrows(ForbiddenException.class, () ->
@@ -130,7 +126,6 @@ class CommentServiceImplTest {
 
     @Test
     void deleteComment_shouldDeleteComment() {
-        when(userService.getEntityById(anyLong())).thenReturn(user);
         when(commentRepository.findById(anyLong())).thenReturn(Optional.of(comment));
 
         commentService.deleteComment(1L, 1L);
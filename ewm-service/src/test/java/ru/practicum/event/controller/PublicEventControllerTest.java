@@ -79,4 +79,22 @@ class PublicEventControllerTest {
                         .param("rangeEnd", "2030-01-01 12:00:00"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void getPublicEvents_shouldReturn400_whenGeoFilterIncomplete() throws Exception {
+        mockMvc.perform(get("/events")
+                        .param("lat", "55.75")
+                        .param("lon", "37.61"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/events")
+                        .param("sort", "DISTANCE"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/events")
+                        .param("lat", "95")
+                        .param("lon", "37.61")
+                        .param("radius", "5"))
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package ru.practicum.event.counter;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.event.repository.EventRepository;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EventCounterServiceTest {
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final TransactionTemplate transactionTemplate =
+            new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Test
+    void add_withoutCoalescing_shouldWriteEachDelta() {
+        EventCounterService service = service(false);
+
+        service.add(EventCounter.COMMENTS, 1L, 1);
+        service.add(EventCounter.COMMENTS, 1L, -1);
+
+        verify(eventRepository).addCommentsCount(1L, 1);
+        verify(eventRepository).addCommentsCount(1L, -1);
+    }
+
+    @Test
+    void add_withCoalescing_shouldWriteOneDeltaPerEvent() {
+        EventCounterService service = service(true);
+
+        for (int i = 0; i < 50; i++) {
+            service.add(EventCounter.COMMENTS, 1L, 1);
+        }
+        service.add(EventCounter.COMMENTS, 2L, 1);
+        service.add(EventCounter.COMMENTS, 2L, -1);
+        verifyNoInteractions(eventRepository);
+
+        service.flush();
+
+        verify(eventRepository).addCommentsCount(1L, 50);
+        verify(eventRepository, never()).addCommentsCount(eq(2L), anyInt());
+    }
+
+    @Test
+    void add_withCoalescing_shouldWriteConfirmedRequestsImmediately() {
+        EventCounterService service = service(true);
+
+        service.add(EventCounter.CONFIRMED_REQUESTS, 1L, -1);
+
+        verify(eventRepository).addConfirmedRequests(1L, -1);
+    }
+
+    @Test
+    void flush_shouldKeepDeltaWhenWriteFails() {
+        EventCounterService service = service(true);
+        when(eventRepository.addCommentsCount(anyLong(), anyInt()))
+                .thenThrow(new IllegalStateException("база недоступна"))
+                .thenReturn(1);
+
+        service.add(EventCounter.COMMENTS, 1L, 3);
+        service.flush();
+        service.add(EventCounter.COMMENTS, 1L, 1);
+        service.flush();
+
+        verify(eventRepository).addCommentsCount(1L, 4);
+    }
+
+    private EventCounterService service(boolean coalesce) {
+        EventCounterService service = new EventCounterService(eventRepository, transactionTemplate,
+                mock(EntityManager.class));
+        ReflectionTestUtils.setField(service, "coalesceEnabled", coalesce);
+        return service;
+    }
+}
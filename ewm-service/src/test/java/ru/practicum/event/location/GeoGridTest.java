@@ -0,0 +1,59 @@
+package ru.practicum.event.location;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoGridTest {
+
+    @Test
+    void cellOf_shouldNumberColumnsWithinRowConsecutively() {
+        long cell = GeoGrid.cellOf(55.7558, 37.6173);
+
+        assertThat(GeoGrid.cellOf(55.7558, 37.6273)).isEqualTo(cell + 1);
+        assertThat(GeoGrid.cellOf(55.7658, 37.6173)).isEqualTo(cell + GeoGrid.COLUMNS);
+        assertThat(GeoGrid.cellOf(90, 180)).isEqualTo((long) GeoGrid.ROWS * GeoGrid.COLUMNS - 1);
+        assertThat(GeoGrid.cellOf(-90, -180)).isZero();
+    }
+
+    @Test
+    void cellRanges_shouldCoverEveryPointInsideRadius() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            double lat = -80 + random.nextDouble() * 160;
+            double lon = -170 + random.nextDouble() * 340;
+            double radiusKm = 0.1 + random.nextDouble() * 20;
+            List<long[]> ranges = GeoGrid.cellRanges(lat, lon, radiusKm);
+
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double distance = radiusKm * 0.999;
+            double pointLat = lat + distance * Math.cos(bearing) / GeoGrid.KM_PER_DEGREE;
+            double pointLon = lon + distance * Math.sin(bearing) / GeoGrid.kmPerDegreeLon(pointLat);
+            long cell = GeoGrid.cellOf(pointLat, pointLon);
+
+            assertThat(ranges).anySatisfy(range -> assertThat(cell).isBetween(range[0], range[1]));
+        }
+    }
+
+    @Test
+    void cellRanges_shouldUseOneRangePerRowAndBandForLargeRadius() {
+        assertThat(GeoGrid.cellRanges(55.75, 37.61, 2)).hasSize(4);
+
+        List<long[]> band = GeoGrid.cellRanges(55.75, 37.61, 500);
+
+        assertThat(band).hasSize(1);
+        assertThat(band.getFirst()[0] % GeoGrid.COLUMNS).isZero();
+        assertThat(band.getFirst()[1] % GeoGrid.COLUMNS).isEqualTo(GeoGrid.COLUMNS - 1);
+    }
+
+    @Test
+    void cells_shouldListCellsOfRangesUpToLimit() {
+        List<long[]> ranges = List.of(new long[]{10, 12}, new long[]{20, 21});
+
+        assertThat(GeoGrid.cells(ranges, 5)).containsExactly(10L, 11L, 12L, 20L, 21L);
+        assertThat(GeoGrid.cells(ranges, 4)).isNull();
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.event.participation.admission;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.participation.model.ParticipationRequest;
+import ru.practicum.event.participation.repository.ParticipationRequestRepository;
+import ru.practicum.event.participation.service.ParticipationRequestService;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Пул из двух соединений и 16 одновременных заявок: ожидающие записи заявки не должны держать соединения,
+ * иначе их не достанется фоновому потоку записи. Через HTTP запрос ещё и держит менеджер сущностей open-in-view.
+ */
+@SpringBootTest(properties = {
+        "ewm.admission.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureMockMvc
+class AdmissionEngineBoundedPoolTest {
+
+    private static final int REQUESTERS = 200;
+    private static final int LIMIT = 50;
+    private static final int THREADS = 16;
+
+    @Autowired private AdmissionEngine admissionEngine;
+    @Autowired private ParticipationRequestService requestService;
+    @Autowired private ParticipationRequestRepository requestRepository;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private MockMvc mockMvc;
+
+    private List<User> requesters;
+    private User initiator;
+    private Category category;
+    private Event event;
+
+    @BeforeEach
+    void setup() {
+        initiator = userRepository.save(new User(null, "pool-organizer@mail.com", "Организатор"));
+        category = categoryRepository.save(new Category(null, "Pool"));
+        requesters = userRepository.saveAll(IntStream.range(0, REQUESTERS)
+                .mapToObj(i -> new User(null, "pool" + i + "@mail.com", "Fan " + i))
+                .toList());
+        event = eventRepository.save(Event.builder()
+                .title("Билеты")
+                .annotation("Odio sint delectus beatae nulla")
+                .description("Odio sint delectus beatae nulla")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .paid(false)
+                .participantLimit(LIMIT)
+                .requestModeration(false)
+                .initiator(initiator)
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .location(new Location(1.0, 1.0))
+                .createdOn(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        admissionEngine.evict(event.getId());
+        requestRepository.deleteAll(requestsOfEvent());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteAll(requesters);
+        userRepository.delete(initiator);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void createRequest_moreCallersThanConnections_shouldNotStarveWriter() throws Exception {
+        burst(requester -> {
+            requestService.createRequest(requester.getId(), event.getId());
+            return true;
+        });
+    }
+
+    @Test
+    void postRequest_moreCallersThanConnections_shouldNotStarveWriter() throws Exception {
+        burst(requester -> {
+            int status = mockMvc.perform(post("/users/{userId}/requests", requester.getId())
+                            .param("eventId", event.getId().toString()))
+                    .andReturn().getResponse().getStatus();
+            assertThat(status).isIn(201, 409);
+            return status == 201;
+        });
+    }
+
+    /**
+     * @param createRequest true, если заявка принята, false или {@link ConflictException} — если мест нет
+     */
+    private void burst(RequestCall createRequest) throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (User requester : requesters) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    (createRequest.call(requester) ? accepted : soldOut).incrementAndGet();
+                } catch (ConflictException e) {
+                    soldOut.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(failures).isEmpty();
+        assertThat(accepted).hasValue(LIMIT);
+        assertThat(soldOut).hasValue(REQUESTERS - LIMIT);
+        assertThat(requestsOfEvent()).hasSize(LIMIT);
+    }
+
+    private interface RequestCall {
+        boolean call(User requester) throws Exception;
+    }
+
+    private List<ParticipationRequest> requestsOfEvent() {
+        return requestRepository.findAll().stream()
+                .filter(request -> request.getEvent().getId().equals(event.getId()))
+                .toList();
+    }
+}
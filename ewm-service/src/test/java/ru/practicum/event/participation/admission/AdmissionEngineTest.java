@@ -0,0 +1,286 @@
+package ru.practicum.event.participation.admission;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.participation.model.ParticipationRequest;
+import ru.practicum.event.participation.model.ParticipationRequestDto;
+import ru.practicum.event.participation.model.RequestState;
+import ru.practicum.event.participation.repository.ParticipationRequestRepository;
+import ru.practicum.event.participation.service.ParticipationRequestService;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.user.cache.UserExistenceCache;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {"ewm.admission.enabled=true", "ewm.users.existence-cache.enabled=true"})
+@AutoConfigureTestDatabase
+class AdmissionEngineTest {
+
+    private static final int REQUESTERS = 1000;
+    private static final int LIMIT = 100;
+
+    @Autowired private AdmissionEngine admissionEngine;
+    @Autowired private ParticipationRequestService requestService;
+    @Autowired private ParticipationRequestRepository requestRepository;
+    @Autowired private EventRepository eventRepository;
+    @SpyBean private UserRepository userRepository;
+    @Autowired private UserExistenceCache userExistenceCache;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private List<User> requesters;
+    private User initiator;
+    private Category category;
+    private Event event;
+
+    @BeforeEach
+    void setup() {
+        initiator = userRepository.save(new User(null, "engine-organizer@mail.com", "Организатор"));
+        category = categoryRepository.save(new Category(null, "Engine"));
+        requesters = userRepository.saveAll(IntStream.range(0, REQUESTERS)
+                .mapToObj(i -> new User(null, "engine" + i + "@mail.com", "Fan " + i))
+                .toList());
+        event = eventRepository.save(Event.builder()
+                .title("Билеты")
+                .annotation("Odio sint delectus beatae nulla")
+                .description("Odio sint delectus beatae nulla")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .paid(false)
+                .participantLimit(LIMIT)
+                .requestModeration(false)
+                .initiator(initiator)
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .location(new Location(1.0, 1.0))
+                .createdOn(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        admissionEngine.evict(event.getId());
+        requestRepository.deleteAll(requestsOfEvent());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteAll(requesters);
+        userRepository.delete(initiator);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void createRequest_shouldAdmitExactlyLimitAndPersistInBatches() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<?>> futures = new ArrayList<>();
+        for (User requester : requesters) {
+            futures.add(executor.submit(() -> {
+                try {
+                    ParticipationRequestDto dto = requestService.createRequest(requester.getId(), event.getId());
+                    assertThat(dto.getId()).isNotNull();
+                    assertThat(dto.getStatus()).isEqualTo(RequestState.CONFIRMED);
+                    accepted.incrementAndGet();
+                } catch (ConflictException e) {
+                    soldOut.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(failures).isEmpty();
+        assertThat(accepted).hasValue(LIMIT);
+        assertThat(soldOut).hasValue(REQUESTERS - LIMIT);
+        assertThat(eventRepository.findById(event.getId())).get()
+                .extracting(Event::getConfirmedRequests).isEqualTo(LIMIT);
+        assertThat(requestsOfEvent()).hasSize(LIMIT)
+                .allMatch(request -> request.getStatus() == RequestState.CONFIRMED);
+    }
+
+    @Test
+    void createRequest_shouldRejectDuplicateWithoutSecondRow() {
+        User requester = requesters.getFirst();
+        requestService.createRequest(requester.getId(), event.getId());
+
+        assertThatThrownBy(() -> requestService.createRequest(requester.getId(), event.getId()))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Запрос на участие уже имеется");
+        assertThat(requestsOfEvent()).hasSize(1);
+        assertThat(admissionEngine.getRemaining(event.getId())).isEqualTo(LIMIT - 1);
+    }
+
+    @Test
+    void createRequest_knownUser_shouldNotQueryUserTable() {
+        User requester = requesters.getFirst();
+        assertThat(userExistenceCache.exists(requester.getId())).isTrue();
+        clearInvocations(userRepository);
+
+        requestService.createRequest(requester.getId(), event.getId());
+
+        verify(userRepository, never()).existsById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void createRequest_timedOutBeforeWrite_shouldBeCancelledAndNotPersisted() {
+        User requester = requesters.getFirst();
+        Duration awaitTimeout = (Duration) ReflectionTestUtils.getField(admissionEngine, "awaitTimeout");
+        Duration linger = (Duration) ReflectionTestUtils.getField(admissionEngine, "linger");
+        // Пачка копится дольше, чем заявка ждёт записи
+        ReflectionTestUtils.setField(admissionEngine, "linger", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(admissionEngine, "awaitTimeout", Duration.ZERO);
+        try {
+            assertThatThrownBy(() -> requestService.createRequest(requester.getId(), event.getId()))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("отменена");
+            assertThat(admissionEngine.getRemaining(event.getId())).isEqualTo(LIMIT);
+        } finally {
+            ReflectionTestUtils.setField(admissionEngine, "awaitTimeout", awaitTimeout);
+            ReflectionTestUtils.setField(admissionEngine, "linger", linger);
+        }
+
+        ParticipationRequestDto retried = requestService.createRequest(requester.getId(), event.getId());
+
+        assertThat(requestsOfEvent()).singleElement()
+                .extracting(ParticipationRequest::getId).isEqualTo(retried.getId());
+        assertThat(eventRepository.findById(event.getId())).get()
+                .extracting(Event::getConfirmedRequests).isEqualTo(1);
+    }
+
+    @Test
+    void createRequest_evictedWhileInFlight_shouldRejectSecondSeat() throws Exception {
+        User requester = requesters.getFirst();
+        Duration linger = (Duration) ReflectionTestUtils.getField(admissionEngine, "linger");
+        // Пачка копится достаточно долго, чтобы успеть вытеснить событие, пока заявка не записана
+        ReflectionTestUtils.setField(admissionEngine, "linger", Duration.ofSeconds(2));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ParticipationRequestDto> first = executor.submit(
+                    () -> requestService.createRequest(requester.getId(), event.getId()));
+            while (admissionEngine.getRemaining(event.getId()) != LIMIT - 1) {
+                Thread.onSpinWait();
+            }
+            admissionEngine.evict(event.getId());
+
+            assertThatThrownBy(() -> requestService.createRequest(requester.getId(), event.getId()))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("Запрос на участие уже имеется");
+            // Повтор отклонён по состоянию в памяти, не дожидаясь записи первой заявки
+            assertThat(first).isNotDone();
+            assertThat(admissionEngine.getRemaining(event.getId())).isEqualTo(LIMIT - 1);
+            assertThat(first.get(1, TimeUnit.MINUTES).getStatus()).isEqualTo(RequestState.CONFIRMED);
+        } finally {
+            executor.shutdown();
+            ReflectionTestUtils.setField(admissionEngine, "linger", linger);
+        }
+
+        assertThat(requestsOfEvent()).hasSize(1);
+    }
+
+    @Test
+    void createRequest_rowAlreadyInDatabase_shouldReturnConflictAndSeat() {
+        User requester = requesters.getFirst();
+        requestService.createRequest(requesters.get(1).getId(), event.getId());
+        // Заявка, записанная мимо движка, в его состоянии не отмечена
+        requestRepository.save(ParticipationRequest.builder()
+                .created(LocalDateTime.now())
+                .event(event)
+                .requester(requester)
+                .status(RequestState.PENDING)
+                .build());
+
+        assertThatThrownBy(() -> requestService.createRequest(requester.getId(), event.getId()))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Запрос на участие уже имеется");
+        assertThat(admissionEngine.getRemaining(event.getId())).isEqualTo(LIMIT - 1);
+        assertThatThrownBy(() -> requestService.createRequest(requester.getId(), event.getId()))
+                .isInstanceOf(ConflictException.class);
+        assertThat(requestsOfEvent()).hasSize(2);
+    }
+
+    @Test
+    void cancelRequest_concurrentCancels_shouldReturnSeatOnce() throws Exception {
+        ParticipationRequestDto confirmed = requestService.createRequest(requesters.getFirst().getId(), event.getId());
+        assertThat(admissionEngine.getRemaining(event.getId())).isEqualTo(LIMIT - 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ParticipationRequestDto>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return requestService.cancelRequest(requesters.getFirst().getId(), confirmed.getId());
+            }));
+        }
+        start.countDown();
+        for (Future<ParticipationRequestDto> future : futures) {
+            assertThat(future.get(1, TimeUnit.MINUTES).getStatus()).isEqualTo(RequestState.CANCELED);
+        }
+        executor.shutdown();
+
+        assertThat(eventRepository.findById(event.getId())).get()
+                .extracting(Event::getConfirmedRequests).isEqualTo(0);
+        assertThat(admissionEngine.getRemaining(event.getId())).isEqualTo(LIMIT);
+        assertThat(requestRepository.findById(confirmed.getId())).get()
+                .extracting(ParticipationRequest::getStatus).isEqualTo(RequestState.CANCELED);
+    }
+
+    @Test
+    void reconcile_shouldFixDriftedCounterAndSeedRequesters() {
+        User requester = requesters.getFirst();
+        requestRepository.save(ParticipationRequest.builder()
+                .created(LocalDateTime.now())
+                .event(event)
+                .requester(requester)
+                .status(RequestState.CONFIRMED)
+                .build());
+        transactionTemplate.executeWithoutResult(status -> eventRepository.setConfirmedRequests(event.getId(), 7));
+
+        admissionEngine.reconcile();
+
+        assertThat(eventRepository.findById(event.getId())).get()
+                .extracting(Event::getConfirmedRequests).isEqualTo(1);
+        assertThat(admissionEngine.getRemaining(event.getId())).isEqualTo(LIMIT - 1);
+        assertThatThrownBy(() -> requestService.createRequest(requester.getId(), event.getId()))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    private List<ParticipationRequest> requestsOfEvent() {
+        return requestRepository.findAll().stream()
+                .filter(request -> request.getEvent().getId().equals(event.getId()))
+                .toList();
+    }
+}
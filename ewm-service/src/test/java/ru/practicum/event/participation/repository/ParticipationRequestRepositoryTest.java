@@ -112,7 +112,7 @@ class ParticipationRequestRepositoryTest {
 
         ParticipationRequest req2 = em.persist(ParticipationRequest.builder()
                 .event(event)
-                .requester(initiator)
+                .requester(requester)
                 .created(LocalDateTime.now())
                 .status(RequestState.REJECTED)
                 .build());
@@ -0,0 +1,106 @@
+package ru.practicum.event.participation.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.EwmServerApplication;
+import ru.practicum.exception.ConflictException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Задержка заявки на участие при наплыве на популярное событие без модерации: 16 потоков подают заявки
+ * на одно событие с лимитом мест, на каждую итерацию — новое событие. Отказы из-за исчерпанного лимита входят
+ * в замер. Перцентили (p0.99 и др.) — в выводе режима SampleTime; корректность проверяет
+ * {@link ParticipationAdmissionConcurrencyTest}.
+ * Запуск: mvn -pl ewm-service -Pbenchmark test-compile exec:exec -Dbenchmark=ParticipationAdmission
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class ParticipationAdmissionBenchmark {
+
+    private static final int REQUESTERS = 50_000;
+    private static final int LIMIT = 150;
+
+    private ConfigurableApplicationContext context;
+    private ParticipationRequestService requestService;
+    private JdbcTemplate jdbcTemplate;
+    private long firstRequesterId;
+    private long initiatorId;
+    private long categoryId;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile long eventId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EwmServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Аргументами, а не properties(): иначе уровни логов из application.properties их перекрывают,
+                // и логирование каждой транзакции попадает в замер
+                .run("--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--ewm.views.sync.enabled=false");
+        requestService = context.getBean(ParticipationRequestService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)",
+                range(REQUESTERS + 1), 1000, (ps, i) -> {
+                    ps.setString(1, "Fan " + i);
+                    ps.setString(2, "fan" + i + "@test.com");
+                });
+        initiatorId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        firstRequesterId = initiatorId + 1;
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('Drop')");
+        categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM categories", Long.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void newEvent() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("""
+                        INSERT INTO events (annotation, category_id, confirmed_requests, created_on, description,
+                            event_date, initiator_id, location_lat, location_lon, paid, participant_limit,
+                            published_on, request_moderation, state, title, synced_views, comments_count)
+                        VALUES (?, ?, 0, ?, ?, ?, ?, 0, 0, false, ?, ?, false, 'PUBLISHED', ?, 0, 0)""",
+                "Odio sint delectus beatae nulla", categoryId, now, "Odio sint delectus beatae nulla",
+                now.plusDays(1), initiatorId, LIMIT, now, "Билеты");
+        eventId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM events", Long.class);
+        next.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object createRequest() {
+        long requesterId = firstRequesterId + next.getAndIncrement() % REQUESTERS;
+        try {
+            return requestService.createRequest(requesterId, eventId);
+        } catch (ConflictException e) {
+            return e;
+        }
+    }
+
+    private static List<Integer> range(int count) {
+        return IntStream.range(0, count).boxed().toList();
+    }
+}
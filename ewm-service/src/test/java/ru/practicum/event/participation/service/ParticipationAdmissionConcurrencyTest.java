@@ -0,0 +1,127 @@
+package ru.practicum.event.participation.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.participation.model.RequestState;
+import ru.practicum.event.participation.repository.ParticipationRequestRepository;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Наплыв заявок на популярное событие без модерации: параллельные транзакции не должны превысить лимит.
+ * Данные коммитятся по-настоящему, поэтому тест сам за собой убирает. Задержку измеряет
+ * {@link ParticipationAdmissionBenchmark}.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class ParticipationAdmissionConcurrencyTest {
+
+    private static final int REQUESTERS = 2000;
+    private static final int LIMIT = 150;
+    private static final int THREADS = 16;
+
+    @Autowired private ParticipationRequestService requestService;
+    @Autowired private ParticipationRequestRepository requestRepository;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CategoryRepository categoryRepository;
+
+    private List<User> requesters;
+    private User initiator;
+    private Category category;
+    private Event event;
+
+    @BeforeEach
+    void setup() {
+        initiator = userRepository.save(new User(null, "drop-organizer@mail.com", "Организатор"));
+        category = categoryRepository.save(new Category(null, "Drop"));
+        requesters = userRepository.saveAll(IntStream.range(0, REQUESTERS)
+                .mapToObj(i -> new User(null, "fan" + i + "@mail.com", "Fan " + i))
+                .toList());
+        event = eventRepository.save(Event.builder()
+                .title("Билеты")
+                .annotation("Odio sint delectus beatae nulla")
+                .description("Odio sint delectus beatae nulla")
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .paid(false)
+                .participantLimit(LIMIT)
+                .requestModeration(false)
+                .initiator(initiator)
+                .category(category)
+                .state(EventState.PUBLISHED)
+                .location(new Location(1.0, 1.0))
+                .createdOn(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        requestRepository.deleteAll(requestRepository.findAll().stream()
+                .filter(request -> request.getEvent().getId().equals(event.getId()))
+                .toList());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteAll(requesters);
+        userRepository.delete(initiator);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void createRequest_shouldNotOverbookUnderConcurrentBurst() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (User requester : requesters) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    requestService.createRequest(requester.getId(), event.getId());
+                    accepted.incrementAndGet();
+                } catch (ConflictException e) {
+                    soldOut.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(failures).isEmpty();
+        assertThat(accepted).hasValue(LIMIT);
+        assertThat(soldOut).hasValue(REQUESTERS - LIMIT);
+        assertThat(eventRepository.findById(event.getId())).get()
+                .extracting(Event::getConfirmedRequests).isEqualTo(LIMIT);
+        assertThat(requestRepository.findAll().stream()
+                .filter(request -> request.getEvent().getId().equals(event.getId()))
+                .filter(request -> request.getStatus() == RequestState.CONFIRMED)
+                .count()).isEqualTo(LIMIT);
+    }
+}
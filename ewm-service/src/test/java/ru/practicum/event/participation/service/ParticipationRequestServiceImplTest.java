@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.event.model.Event;
 import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.participation.admission.AdmissionEngine;
 import ru.practicum.event.participation.mapper.ParticipationRequestMapper;
 import ru.practicum.event.participation.model.*;
 import ru.practicum.event.participation.repository.ParticipationRequestRepository;
@@ -23,6 +24,8 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +39,8 @@ class ParticipationRequestServiceImplTest {
     private ParticipationRequestRepository requestRepository;
     @Mock
     private ParticipationRequestMapper requestMapper;
+    @Mock
+    private AdmissionEngine admissionEngine;
 
     @InjectMocks
     private ParticipationRequestServiceImpl service;
@@ -66,7 +71,6 @@ class ParticipationRequestServiceImplTest {
 
     @Test
     void getOwnRequests_returnsList() {
-        when(userService.getEntityById(1L)).thenReturn(user);
         when(requestRepository.findAllByRequesterId(1L)).thenReturn(List.of(request));
         ParticipationRequestDto dto = new ParticipationRequestDto();
         when(requestMapper.toDto(any())).thenReturn(dto);
@@ -75,10 +79,18 @@ class ParticipationRequestServiceImplTest {
         assertThat(result).hasSize(1);
     }
 
+    @Test
+    void getOwnRequests_whenUserNotFound_thenNotFound() {
+        doThrow(new NotFoundException("Пользователь с id=1 не найден")).when(userService).checkExists(1L);
+
+        assertThatThrownBy(() -> service.getOwnRequests(1L))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(requestRepository);
+    }
+
     @Test
     void getParticipationRequestsOwnEvents_whenNotInitiator_thenForbidden() {
         event.setInitiator(user);
-        when(userService.getEntityById(1L)).thenReturn(user);
         when(eventService.getEntityById(100L)).thenReturn(event);
         event.setInitiator(new User(9L, "other@mail.com", "Other"));
 
@@ -96,9 +108,9 @@ class ParticipationRequestServiceImplTest {
         request.setStatus(RequestState.PENDING);
         EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest(List.of(55L), RequestState.CONFIRMED);
 
-        when(userService.getEntityById(1L)).thenReturn(user);
         when(eventService.getEntityById(100L)).thenReturn(event);
         when(requestRepository.findAllByIdIn(List.of(55L))).thenReturn(List.of(request));
+        when(eventService.reserveSeats(100L, 1)).thenReturn(1);
         when(requestMapper.toDto(any())).thenReturn(new ParticipationRequestDto());
 
         EventRequestStatusUpdateResult result = service.updateStatusForRequests(1L, 100L, updateRequest);
@@ -112,7 +124,6 @@ class ParticipationRequestServiceImplTest {
         request.setStatus(RequestState.CONFIRMED);
         EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest(List.of(55L), RequestState.CONFIRMED);
 
-        when(userService.getEntityById(1L)).thenReturn(user);
         when(eventService.getEntityById(100L)).thenReturn(event);
 
         assertThatThrownBy(() -> service.updateStatusForRequests(1L, 100L, updateRequest))
@@ -124,7 +135,6 @@ class ParticipationRequestServiceImplTest {
         event.setInitiator(user);
         EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest(List.of(777L), RequestState.CONFIRMED);
 
-        when(userService.getEntityById(1L)).thenReturn(user);
         when(eventService.getEntityById(100L)).thenReturn(event);
         when(requestRepository.findAllByIdIn(List.of(777L))).thenReturn(List.of());
 
@@ -142,7 +152,6 @@ class ParticipationRequestServiceImplTest {
 
         EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest(List.of(55L), RequestState.REJECTED);
 
-        when(userService.getEntityById(1L)).thenReturn(user);
         when(eventService.getEntityById(100L)).thenReturn(event);
         when(requestRepository.findAllByIdIn(List.of(55L))).thenReturn(List.of(request));
         when(requestMapper.toDto(any())).thenReturn(new ParticipationRequestDto());
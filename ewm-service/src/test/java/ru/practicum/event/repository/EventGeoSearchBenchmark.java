@@ -0,0 +1,161 @@
+package ru.practicum.event.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.EwmServerApplication;
+import ru.practicum.event.location.GeoGrid;
+import ru.practicum.event.model.PublicEventSearchRequest;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Поиск событий рядом с точкой на масштабе города: 200 000 опубликованных событий в квадрате 45×45 км
+ * (Москва), половина — в плотном центре. Диапазоны ячеек по индексу {@code geo_cell} против
+ * проверки расстояния у каждого события. Данные — в H2, поэтому важны относительные цифры.
+ * Запуск: mvn -pl ewm-service -Pbenchmark test-compile exec:exec -Dbenchmark=EventGeoSearch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventGeoSearchBenchmark {
+
+    private static final int EVENTS = 200_000;
+    private static final double CENTER_LAT = 55.7539;
+    private static final double CENTER_LON = 37.6208;
+    private static final double MIN_LAT = 55.55;
+    private static final double MIN_LON = 37.35;
+    private static final double SPAN_LAT = 0.4;
+    private static final double SPAN_LON = 0.7;
+    private static final int POINTS = 1024;
+
+    @Param({"1", "5"})
+    private double radius;
+
+    private ConfigurableApplicationContext context;
+    private EventRepository eventRepository;
+    private JdbcTemplate jdbcTemplate;
+    private double[][] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EwmServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "ewm.views.sync.enabled=false")
+                .run();
+        eventRepository = context.getBean(EventRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        fill();
+
+        Random random = new Random(7);
+        points = new double[POINTS][];
+        for (int i = 0; i < POINTS; i++) {
+            points[i] = randomPoint(random);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void gridCells(Blackhole blackhole) {
+        double[] point = nextPoint();
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setLat(point[0]);
+        request.setLon(point[1]);
+        request.setRadius(radius);
+        request.setSort("DISTANCE");
+        blackhole.consume(eventRepository.findPublicEventShortsByFilter(request));
+    }
+
+    @Benchmark
+    public void distanceOnly(Blackhole blackhole) {
+        double[] point = nextPoint();
+        double kx = GeoGrid.kmPerDegreeLon(point[0]);
+        double ky = GeoGrid.KM_PER_DEGREE;
+        LocalDateTime now = LocalDateTime.now();
+        blackhole.consume(jdbcTemplate.queryForList("""
+                        SELECT e.id, e.annotation, c.id, c.name, e.confirmed_requests, e.event_date, u.id, u.name,
+                            e.paid, e.request_moderation, e.title, e.comments_count, e.published_on, e.synced_views
+                        FROM events e
+                        JOIN categories c ON c.id = e.category_id
+                        JOIN users u ON u.id = e.initiator_id
+                        WHERE e.state = 'PUBLISHED' AND e.event_date BETWEEN ? AND ?
+                            AND (e.location_lon - ?) * ? * (e.location_lon - ?) * ?
+                                + (e.location_lat - ?) * ? * (e.location_lat - ?) * ? <= ?
+                        ORDER BY (e.location_lon - ?) * ? * (e.location_lon - ?) * ?
+                                + (e.location_lat - ?) * ? * (e.location_lat - ?) * ?, e.id
+                        LIMIT 10""",
+                now, now.plusYears(1),
+                point[1], kx, point[1], kx, point[0], ky, point[0], ky, radius * radius,
+                point[1], kx, point[1], kx, point[0], ky, point[0], ky));
+    }
+
+    private double[] nextPoint() {
+        double[] point = points[next];
+        next = (next + 1) % POINTS;
+        return point;
+    }
+
+    private void fill() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)",
+                IntStream.range(0, 100).boxed().toList(), 100, (ps, i) -> {
+                    ps.setString(1, "User " + i);
+                    ps.setString(2, "user" + i + "@test.com");
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO categories (name) VALUES (?)",
+                IntStream.range(0, 20).boxed().toList(), 20, (ps, i) -> ps.setString(1, "Category " + i));
+        Long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        Long categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM categories", Long.class);
+        Random random = new Random(42);
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO events (annotation, category_id, confirmed_requests, created_on, description,
+                            event_date, initiator_id, location_lat, location_lon, geo_cell, paid, participant_limit,
+                            published_on, request_moderation, state, title, synced_views, comments_count)
+                        VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?, ?, false, 0, ?, true, 'PUBLISHED', ?, 0, 0)""",
+                IntStream.range(0, EVENTS).boxed().toList(), 1_000, (ps, i) -> {
+                    double[] point = randomPoint(random);
+                    ps.setString(1, "Annotation of the event number " + i);
+                    ps.setLong(2, categoryId + i % 20);
+                    ps.setObject(3, now);
+                    ps.setString(4, "Description of the event number " + i);
+                    ps.setObject(5, now.plusHours(1 + i % 5_000));
+                    ps.setLong(6, userId + i % 100);
+                    ps.setDouble(7, point[0]);
+                    ps.setDouble(8, point[1]);
+                    ps.setLong(9, GeoGrid.cellOf(point[0], point[1]));
+                    ps.setObject(10, now);
+                    ps.setString(11, "Event " + i);
+                });
+    }
+
+    private static double[] randomPoint(Random random) {
+        // половина точек — вокруг центра с отклонением 4 км, остальные равномерно по всей площади
+        if (random.nextBoolean()) {
+            return new double[]{CENTER_LAT + random.nextGaussian() * 4 / GeoGrid.KM_PER_DEGREE,
+                    CENTER_LON + random.nextGaussian() * 4 / GeoGrid.kmPerDegreeLon(CENTER_LAT)};
+        }
+        return new double[]{MIN_LAT + random.nextDouble() * SPAN_LAT, MIN_LON + random.nextDouble() * SPAN_LON};
+    }
+}
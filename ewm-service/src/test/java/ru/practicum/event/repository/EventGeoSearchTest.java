@@ -0,0 +1,173 @@
+package ru.practicum.event.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.event.location.GeoGrid;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
+import ru.practicum.event.model.PublicEventSearchRequest;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EventGeoSearchTest {
+
+    private static final double CENTER_LAT = 55.7539;
+    private static final double CENTER_LON = 37.6208;
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "geo@test.com", "User"));
+        category = categoryRepository.save(new Category(null, "Geo"));
+    }
+
+    @Test
+    void findPublicEventShortsByFilter_shouldReturnEventsInsideRadiusByDistance() {
+        save("Bolshoi", 55.7601, 37.6186);
+        save("Red Square", 55.7539, 37.6210);
+        save("Gorky Park", 55.7298, 37.6011);
+        save("Sheremetyevo", 55.9726, 37.4146);
+
+        List<EventShortView> found = eventRepository.findPublicEventShortsByFilter(request(3.0, "DISTANCE"));
+
+        assertThat(found).extracting(EventShortView::title)
+                .containsExactly("Red Square", "Bolshoi", "Gorky Park");
+        assertThat(eventRepository.findPublicEventShortsByFilter(request(1.0, "EVENT_DATE")))
+                .extracting(EventShortView::title)
+                .containsExactlyInAnyOrder("Bolshoi", "Red Square");
+    }
+
+    @Test
+    void save_shouldRecalculateCellWhenLocationChanges() {
+        Event event = save("Moved", 55.7539, 37.6208);
+        event.setLocation(new Location(59.9398, 30.3146));
+        eventRepository.saveAndFlush(event);
+        entityManager.clear();
+
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getGeoCell())
+                .isEqualTo(GeoGrid.cellOf(59.9398, 30.3146));
+    }
+
+    @Test
+    void schemaBackfill_shouldMatchGeoGrid() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:backfill-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        // База до появления geo_cell: события уже сохранены, колонки ещё нет
+        legacy.execute("""
+                CREATE TABLE users (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+                    email VARCHAR(254) NOT NULL,
+                    name VARCHAR(250) NOT NULL
+                );
+                CREATE TABLE categories (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+                    name VARCHAR(50) NOT NULL UNIQUE
+                );
+                CREATE TABLE events (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+                    annotation VARCHAR(2000) NOT NULL,
+                    category_id BIGINT NOT NULL REFERENCES categories(id) ON DELETE CASCADE,
+                    description VARCHAR(7000) NOT NULL,
+                    confirmed_requests BIGINT DEFAULT 0,
+                    created_on TIMESTAMP NOT NULL,
+                    event_date TIMESTAMP NOT NULL,
+                    initiator_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+                    location_lat DOUBLE PRECISION NOT NULL,
+                    location_lon DOUBLE PRECISION NOT NULL,
+                    paid BOOLEAN NOT NULL DEFAULT FALSE,
+                    participant_limit INTEGER DEFAULT 0,
+                    published_on TIMESTAMP,
+                    request_moderation BOOLEAN DEFAULT TRUE,
+                    state VARCHAR(32) NOT NULL,
+                    title VARCHAR(120) NOT NULL,
+                    comments_count BIGINT NOT NULL DEFAULT 0
+                );
+                INSERT INTO users (email, name) VALUES ('geo@test.com', 'User');
+                INSERT INTO categories (name) VALUES ('Geo');""");
+        double[][] points = {{55.7539, 37.6208}, {-33.8568, 151.2153}, {40.6892, -74.0445}, {0.005, -0.005},
+                {90.0, 180.0}};
+        LocalDateTime now = LocalDateTime.now();
+        for (double[] point : points) {
+            legacy.update("""
+                            INSERT INTO events (annotation, category_id, description, created_on, event_date,
+                                initiator_id, location_lat, location_lon, state, title)
+                            VALUES ('Odio sint delectus beatae nulla', 1, 'Odio sint delectus beatae nulla', ?, ?,
+                                1, ?, ?, 'PUBLISHED', 'Geo')""",
+                    now, now.plusDays(1), point[0], point[1]);
+        }
+
+        MigrateResult result = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertThat(result.migrations).extracting(migration -> migration.version).contains("1.1");
+
+        List<double[]> migrated = legacy.query("SELECT location_lat, location_lon, geo_cell FROM events ORDER BY id",
+                (rs, rowNum) -> new double[]{rs.getDouble(1), rs.getDouble(2), rs.getLong(3)});
+        assertThat(migrated).hasSize(points.length);
+        for (double[] row : migrated) {
+            assertThat((long) row[2]).isEqualTo(GeoGrid.cellOf(row[0], row[1]));
+        }
+    }
+
+    private PublicEventSearchRequest request(double radius, String sort) {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setLat(CENTER_LAT);
+        request.setLon(CENTER_LON);
+        request.setRadius(radius);
+        request.setSort(sort);
+        return request;
+    }
+
+    private Event save(String title, double lat, double lon) {
+        return eventRepository.saveAndFlush(Event.builder()
+                .title(title)
+                .annotation("Odio sint delectus beatae nulla")
+                .description("Odio sint delectus beatae nulla")
+                .category(category)
+                .initiator(user)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .publishedOn(LocalDateTime.now())
+                .state(EventState.PUBLISHED)
+                .paid(false)
+                .location(new Location(lat, lon))
+                .build());
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.event.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.event.comment.model.AdminCommentSearchRequest;
+import ru.practicum.event.comment.model.UserCommentSearchRequest;
+import ru.practicum.event.comment.repository.CommentRepository;
+import ru.practicum.event.model.AdminEventSearchRequest;
+import ru.practicum.event.model.PublicEventSearchRequest;
+import ru.practicum.event.participation.repository.ParticipationRequestRepository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Запросы фильтров событий, комментариев и заявок не должны сканировать таблицу целиком. SQL берётся у Hibernate
+ * как есть, план — через EXPLAIN в H2. H2 сам индексирует внешние ключи и при равной оценке выбирает их, поэтому
+ * для фильтров по category_id, initiator_id, event_id и requester_id проверяется поиск по индексу с нужным
+ * условием, а не имя составного индекса; частичные индексы PostgreSQL здесь не проверяются.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.event.repository.EventIndexPlanTest$SqlRecorder")
+@ActiveProfiles("test")
+class EventIndexPlanTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ParticipationRequestRepository requestRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void publicFilter_shouldUseStateEventDateIndex() {
+        assertThat(planOf(() -> eventRepository.findPublicEventShortsByFilter(new PublicEventSearchRequest())))
+                .contains("/* PUBLIC.IDX_EVENTS_STATE_EVENT_DATE_ID: STATE = ");
+    }
+
+    @Test
+    void publicFilterByCategories_shouldLookUpByCategory() {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setCategories(List.of(1L, 2L));
+
+        assertIndexLookup(planOf(() -> eventRepository.findPublicEventShortsByFilter(request)), "CATEGORY_ID IN(");
+    }
+
+    @Test
+    void publicFilterByPaid_shouldLookUpByIndex() {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setPaid(true);
+
+        assertIndexLookup(planOf(() -> eventRepository.findPublicEventShortsByFilter(request)), "PAID = ");
+    }
+
+    @Test
+    void publicSortByComments_shouldLookUpByIndex() {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setSort("COMMENTS");
+
+        assertIndexLookup(planOf(() -> eventRepository.findPublicEventShortsByFilter(request)), "STATE = ");
+    }
+
+    @Test
+    void publicFilterByLocation_shouldUseGeoCellIndex() {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setLat(55.75);
+        request.setLon(37.62);
+        request.setRadius(2.0);
+
+        assertThat(planOf(() -> eventRepository.findPublicEventShortsByFilter(request)))
+                .contains("/* PUBLIC.IDX_EVENTS_GEO_CELL: GEO_CELL IN(");
+    }
+
+    @Test
+    void adminFilterByUsers_shouldLookUpByInitiator() {
+        AdminEventSearchRequest request = new AdminEventSearchRequest();
+        request.setUsers(List.of(1L, 2L));
+
+        assertIndexLookup(planOf(() -> eventRepository.findByAdminFilter(request)), "INITIATOR_ID IN(");
+    }
+
+    @Test
+    void commentFilters_shouldLookUpByEventAndAuthor() {
+        AdminCommentSearchRequest byEvent = new AdminCommentSearchRequest();
+        byEvent.setEventIds(List.of(1L));
+
+        assertIndexLookup(planOf(() -> commentRepository.findByAdminFilter(byEvent)), "EVENT_ID ");
+        assertIndexLookup(planOf(() -> commentRepository.findByUserFilter(1L, new UserCommentSearchRequest())),
+                "AUTHOR_ID = ");
+    }
+
+    @Test
+    void requestsOfUser_shouldLookUpByRequester() {
+        assertIndexLookup(planOf(() -> requestRepository.findAllByRequesterId(1L)), "REQUESTER_ID = ");
+    }
+
+    private void assertIndexLookup(String plan, String condition) {
+        assertThat(plan).doesNotContain("TABLESCAN").containsPattern(
+                "/\\* PUBLIC\\.\\w+: [^*]*" + Pattern.quote(condition));
+    }
+
+    private String planOf(Runnable query) {
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        assertThat(SqlRecorder.STATEMENTS).hasSize(1);
+        return jdbcTemplate.queryForObject("EXPLAIN " + SqlRecorder.STATEMENTS.getFirst(), String.class)
+                .toUpperCase();
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.event.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.EwmServerApplication;
+import ru.practicum.event.mapper.EventMapper;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.PublicEventSearchRequest;
+import ru.practicum.event.model.state.EventState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Страница публичного списка событий: сущности с маппингом MapStruct против проекции в {@code EventShortView}.
+ * Сущности загружаются тем же запросом, что был в сервисе до перехода на проекцию: с категорией и инициатором,
+ * в порядке выдачи по умолчанию.
+ * Каждая операция — отдельная транзакция, как запрос с open-in-view. Данные — в H2, поэтому важны
+ * относительные цифры; выделенная память на операцию — в строке gc.alloc.rate.norm.
+ * Запуск: mvn -pl ewm-service -Pbenchmark test-compile exec:exec -Dbenchmark=EventListing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventListingBenchmark {
+
+    private static final int EVENTS = 2_000;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private EventRepository eventRepository;
+    private EventMapper eventMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private PublicEventSearchRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EwmServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Аргументами, а не properties(): иначе уровни логов из application.properties их перекрывают
+                .run("--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--ewm.views.sync.enabled=false");
+        eventRepository = context.getBean(EventRepository.class);
+        eventMapper = context.getBean(EventMapper.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        fill(context.getBean(JdbcTemplate.class));
+
+        request = new PublicEventSearchRequest();
+        request.setSize(pageSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void entityPage(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> findPublicEvents()
+                .forEach(event -> blackhole.consume(eventMapper.toEventShortDto(event))));
+    }
+
+    @Benchmark
+    public void projectionPage(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> eventRepository.findPublicEventShortsByFilter(request)
+                .forEach(view -> blackhole.consume(eventMapper.toEventShortDto(view))));
+    }
+
+    private List<Event> findPublicEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        return entityManager.createQuery("""
+                        SELECT e FROM Event e JOIN FETCH e.category JOIN FETCH e.initiator
+                        WHERE e.state = :state AND e.eventDate BETWEEN :start AND :end
+                        ORDER BY e.eventDate DESC, e.id DESC""", Event.class)
+                .setParameter("state", EventState.PUBLISHED)
+                .setParameter("start", now)
+                .setParameter("end", now.plusYears(1))
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    private void fill(JdbcTemplate jdbcTemplate) {
+        String description = "Odio sint delectus beatae nulla. ".repeat(210);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)",
+                range(100), 100, (ps, i) -> {
+                    ps.setString(1, "User " + i);
+                    ps.setString(2, "user" + i + "@test.com");
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO categories (name) VALUES (?)",
+                range(20), 20, (ps, i) -> ps.setString(1, "Category " + i));
+        Long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        Long categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM categories", Long.class);
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO events (annotation, category_id, confirmed_requests, created_on, description,
+                            event_date, initiator_id, location_lat, location_lon, paid, participant_limit,
+                            published_on, request_moderation, state, title, synced_views, comments_count)
+                        VALUES (?, ?, 0, ?, ?, ?, ?, 0, 0, false, 0, ?, true, 'PUBLISHED', ?, 0, 0)""",
+                range(EVENTS), 500, (ps, i) -> {
+                    ps.setString(1, "Annotation of the event number " + i);
+                    ps.setLong(2, categoryId + i % 20);
+                    ps.setObject(3, now);
+                    ps.setString(4, description);
+                    ps.setObject(5, now.plusHours(1 + i));
+                    ps.setLong(6, userId + i % 100);
+                    ps.setObject(7, now);
+                    ps.setString(8, "Event " + i);
+                });
+    }
+
+    private static List<Integer> range(int count) {
+        return IntStream.range(0, count).boxed().toList();
+    }
+}
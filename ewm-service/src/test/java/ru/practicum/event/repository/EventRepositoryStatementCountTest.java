@@ -0,0 +1,149 @@
+package ru.practicum.event.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.category.cache.CategoryDictionary;
+import ru.practicum.category.mapper.CategoryMapperImpl;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.mapper.EventMapper;
+import ru.practicum.event.mapper.EventMapperImpl;
+import ru.practicum.event.model.AdminEventSearchRequest;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortDto;
+import ru.practicum.event.model.EventShortView;
+import ru.practicum.event.model.PublicEventSearchRequest;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.user.mapper.UserMapperImpl;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов на страницу событий вместе с маппингом в DTO не должно зависеть от размера страницы.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({EventMapperImpl.class, CategoryMapperImpl.class, UserMapperImpl.class, CategoryDictionary.class})
+class EventRepositoryStatementCountTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventMapper eventMapper;
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < 40; i++) {
+            User user = userRepository.save(new User(null, "n" + i + "@test.com", "User " + i));
+            Category category = categoryRepository.save(new Category(null, "Category " + i));
+            eventRepository.save(Event.builder()
+                    .title("Event " + i)
+                    .annotation("Odio sint delectus beatae nulla")
+                    .description("Odio sint delectus beatae nulla")
+                    .category(category)
+                    .initiator(user)
+                    .eventDate(LocalDateTime.now().plusDays(1 + i))
+                    .createdOn(LocalDateTime.now())
+                    .publishedOn(LocalDateTime.now())
+                    .state(EventState.PUBLISHED)
+                    .paid(false)
+                    .location(new Location(0.0, 0.0))
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void findPublicEventShortsByFilter_shouldNotLoadEntities() {
+        assertThat(statementsFor(() -> publicShortPage(40))).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findPublicEventShortsByFilter_shouldMatchEntityMapping() {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setSize(10);
+        entityManager.clear();
+
+        List<EventShortView> rows = eventRepository.findPublicEventShortsByFilter(request);
+        List<EventShortDto> fromProjection = rows.stream()
+                .map(eventMapper::toEventShortDto)
+                .toList();
+        List<EventShortDto> fromEntities = rows.stream()
+                .map(row -> eventMapper.toEventShortDto(eventRepository.findById(row.id()).orElseThrow()))
+                .toList();
+
+        assertThat(fromProjection).hasSize(CursorPage.rowsToFetch(10)).isEqualTo(fromEntities);
+    }
+
+    @Test
+    void findUserEvents_withCategoryDictionary_shouldNotLoadCategories() {
+        Long userId = userRepository.findAll().getFirst().getId();
+        categoryDictionary.reload();
+
+        statementsFor(() -> eventRepository.findUserEventsWithOffset(userId, 0, 10).stream()
+                .map(eventMapper::toEventShortDto)
+                .peek(dto -> assertThat(dto.getCategory().getName()).startsWith("Category "))
+                .toList()
+                .size());
+
+        assertThat(statistics.getEntityStatistics(Category.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void findByAdminFilter_shouldUseOneStatementPerPage() {
+        assertThat(statementsFor(() -> adminPage(5))).isEqualTo(1);
+        assertThat(statementsFor(() -> adminPage(40))).isEqualTo(1);
+    }
+
+    private int publicShortPage(int size) {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setSize(size);
+        return eventRepository.findPublicEventShortsByFilter(request).stream()
+                .map(eventMapper::toEventShortDto)
+                .toList()
+                .size();
+    }
+
+    private int adminPage(int size) {
+        AdminEventSearchRequest request = new AdminEventSearchRequest();
+        request.setSize(size);
+        return eventRepository.findByAdminFilter(request).stream()
+                .map(eventMapper::toEventFullDto)
+                .toList()
+                .size();
+    }
+
+    private long statementsFor(IntSupplier page) {
+        entityManager.clear();
+        statistics.clear();
+        assertThat(page.getAsInt()).isPositive();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.event.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.compilation.cache.CompilationCache;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.user.cache.UserExistenceCache;
+import ru.practicum.user.mapper.UserMapperImpl;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+import ru.practicum.user.service.UserServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Кэш второго уровня: повторное чтение не идёт в базу, а после изменения через Hibernate — массового UPDATE,
+ * сохранения сущности или удаления пользователя вместе с событиями — читается актуальное состояние.
+ * Каждый шаг выполняется в своей транзакции, как в сервисе.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cache = entityManagerFactory.getCache();
+        cache.evictAll();
+    }
+
+    @Test
+    void category_shouldBeReadFromCacheAndRefreshedAfterUpdate() {
+        Category category = categoryRepository.save(new Category(null, "Категория " + SEQUENCE.incrementAndGet()));
+        categoryRepository.findById(category.getId());
+        statistics.clear();
+
+        assertThat(categoryRepository.findById(category.getId())).isPresent();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        category.setName("Переименована " + SEQUENCE.incrementAndGet());
+        categoryRepository.save(category);
+
+        assertThat(categoryRepository.findById(category.getId()).orElseThrow().getName())
+                .isEqualTo(category.getName());
+    }
+
+    @Test
+    void event_shouldBeEvictedAfterCounterUpdate() {
+        Event event = saveEvent(EventState.PUBLISHED);
+        eventRepository.findById(event.getId());
+        assertThat(cache.contains(Event.class, event.getId())).isTrue();
+
+        transaction.executeWithoutResult(status -> eventRepository.addCommentsCount(event.getId(), 1));
+
+        assertThat(cache.contains(Event.class, event.getId())).isFalse();
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getCommentsCount()).isEqualTo(1);
+    }
+
+    @Test
+    void counterUpdate_shouldKeepOtherEventsCached() {
+        Event updated = saveEvent(EventState.PUBLISHED);
+        Event other = saveEvent(EventState.PUBLISHED);
+        eventRepository.findById(updated.getId());
+        eventRepository.findById(other.getId());
+
+        transaction.executeWithoutResult(status -> {
+            eventRepository.addCommentsCount(updated.getId(), 1);
+            eventRepository.addConfirmedRequests(updated.getId(), 1);
+            eventRepository.addConfirmedRequestsWithinLimit(updated.getId(), 1);
+        });
+
+        assertThat(cache.contains(Event.class, updated.getId())).isFalse();
+        assertThat(cache.contains(Event.class, other.getId())).isTrue();
+        assertThat(eventRepository.findById(updated.getId()).orElseThrow().getConfirmedRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void findByIdAndState_shouldBeReadFromQueryCacheAndInvalidatedBySave() {
+        Event event = saveEvent(EventState.PUBLISHED);
+        eventRepository.findByIdAndState(event.getId(), EventState.PUBLISHED);
+        statistics.clear();
+
+        assertThat(eventRepository.findByIdAndState(event.getId(), EventState.PUBLISHED)).isPresent();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        event.setTitle("Новое название");
+        eventRepository.save(event);
+        assertThat(eventRepository.findByIdAndState(event.getId(), EventState.PUBLISHED).orElseThrow().getTitle())
+                .isEqualTo("Новое название");
+
+        event.setState(EventState.CANCELED);
+        eventRepository.save(event);
+        assertThat(eventRepository.findByIdAndState(event.getId(), EventState.PUBLISHED)).isEmpty();
+    }
+
+    @Test
+    void userDelete_shouldEvictUserAndTheirEvents() {
+        Event event = saveEvent(EventState.PUBLISHED);
+        Long userId = event.getInitiator().getId();
+        eventRepository.findById(event.getId());
+        userRepository.findById(userId);
+        assertThat(cache.contains(Event.class, event.getId())).isTrue();
+        assertThat(cache.contains(User.class, userId)).isTrue();
+
+        UserServiceImpl userService = new UserServiceImpl(userRepository, eventRepository, new UserMapperImpl(),
+                mock(CompilationCache.class), new UserExistenceCache(userRepository));
+        transaction.executeWithoutResult(status -> userService.delete(userId));
+
+        assertThat(cache.contains(Event.class, event.getId())).isFalse();
+        assertThat(cache.contains(User.class, userId)).isFalse();
+        assertThat(eventRepository.findById(event.getId())).isEmpty();
+        assertThat(userRepository.findById(userId)).isEmpty();
+    }
+
+    private Event saveEvent(EventState state) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = userRepository.save(new User(null, "cache" + n + "@test.com", "User " + n));
+        Category category = categoryRepository.save(new Category(null, "Категория " + n));
+        return eventRepository.save(Event.builder()
+                .title("Событие " + n)
+                .annotation("Odio sint delectus beatae nulla")
+                .description("Odio sint delectus beatae nulla")
+                .category(category)
+                .initiator(user)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .publishedOn(LocalDateTime.now())
+                .state(state)
+                .paid(false)
+                .location(new Location(0.0, 0.0))
+                .build());
+    }
+}
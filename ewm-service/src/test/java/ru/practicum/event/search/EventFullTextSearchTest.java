@@ -0,0 +1,113 @@
+package ru.practicum.event.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
+import ru.practicum.event.model.PublicEventSearchRequest;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * На H2 функции поиска работают в запасном варианте (подстрока), но проверяют подключение функций,
+ * поиск по title и порядок sort=RELEVANCE.
+ */
+@DataJpaTest(properties = "ewm.search.full-text.enabled=true")
+@ActiveProfiles("test")
+class EventFullTextSearchTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(new User(null, "search@test.com", "User"));
+        category = categoryRepository.save(new Category(null, "Search"));
+        save(user, "Jazz night", "Odio sint delectus beatae nulla", "Odio sint delectus beatae nulla", 1);
+        save(user, "Open air", "Odio sint delectus beatae nulla", "Late JAZZ session after the main stage", 2);
+        save(user, "Festival", "Jazz and blues on the river bank", "Odio sint delectus beatae nulla", 3);
+        save(user, "Lecture", "Odio sint delectus beatae nulla", "Odio sint delectus beatae nulla", 4);
+    }
+
+    @Test
+    void findPublicEventShortsByFilter_shouldSearchTitleAnnotationAndDescription() {
+        List<EventShortView> found = eventRepository.findPublicEventShortsByFilter(request("jazz", "EVENT_DATE"));
+
+        assertThat(found).extracting(EventShortView::title)
+                .containsExactly("Festival", "Open air", "Jazz night");
+    }
+
+    @Test
+    void findPublicEventShortsByFilter_shouldRankTitleMatchesFirst() {
+        List<EventShortView> found = eventRepository.findPublicEventShortsByFilter(request("jazz", "RELEVANCE"));
+
+        assertThat(found).extracting(EventShortView::title)
+                .containsExactly("Jazz night", "Festival", "Open air");
+    }
+
+    @Test
+    void findPublicEventShortsByFilter_relevanceWithoutText_shouldSortByEventDate() {
+        List<EventShortView> found = eventRepository.findPublicEventShortsByFilter(request(null, "RELEVANCE"));
+
+        assertThat(found).extracting(EventShortView::title)
+                .containsExactly("Lecture", "Festival", "Open air", "Jazz night");
+    }
+
+    @Test
+    void findPublicEventShortsByIds_shouldReplaceTextSearchWithCandidates() {
+        List<EventSearchDocument> documents = eventRepository.findSearchDocuments(0, 3);
+        long[] ids = documents.stream().mapToLong(EventSearchDocument::id).toArray();
+
+        List<EventShortView> found = eventRepository.findPublicEventShortsByIds(request("opera", "EVENT_DATE"), ids);
+
+        assertThat(documents).extracting(EventSearchDocument::title)
+                .containsExactly("Jazz night", "Open air", "Festival");
+        assertThat(found).extracting(EventShortView::title)
+                .containsExactly("Festival", "Open air", "Jazz night");
+        assertThat(eventRepository.findSearchDocuments(ids[2], 3)).extracting(EventSearchDocument::title)
+                .containsExactly("Lecture");
+    }
+
+    private PublicEventSearchRequest request(String text, String sort) {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setText(text);
+        request.setSort(sort);
+        request.setCategories(List.of(category.getId()));
+        return request;
+    }
+
+    private void save(User user, String title, String annotation, String description, int days) {
+        eventRepository.save(Event.builder()
+                .title(title)
+                .annotation(annotation)
+                .description(description)
+                .category(category)
+                .initiator(user)
+                .eventDate(LocalDateTime.now().plusDays(days))
+                .createdOn(LocalDateTime.now())
+                .publishedOn(LocalDateTime.now())
+                .state(EventState.PUBLISHED)
+                .paid(false)
+                .location(new Location(0.0, 0.0))
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.event.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.EwmServerApplication;
+import ru.practicum.event.model.PublicEventSearchRequest;
+import ru.practicum.event.repository.EventRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Публичный поиск по тексту на миллионе опубликованных событий в PostgreSQL: поиск подстроки (LIKE)
+ * против полнотекстового поиска по GIN-индексу. Нужен отдельный PostgreSQL, H2 индекс не поддерживает:
+ * EWM_BENCH_DB_URL (по умолчанию jdbc:postgresql://localhost:5432/ewm_bench), EWM_BENCH_DB_USER, EWM_BENCH_DB_PASSWORD.
+ * Данные создаются при первом запуске и переиспользуются. Слова текста — w0..w4999 с убывающей частотой,
+ * w4000 встречается редко, w3 — почти в каждом событии.
+ * Запуск: mvn -pl ewm-service -Pbenchmark test-compile exec:exec -Dbenchmark=EventSearch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventSearchBenchmark {
+
+    private static final int EVENTS = 1_000_000;
+    private static final int CHUNK = 100_000;
+
+    @Param({"false", "true"})
+    private boolean fullText;
+
+    @Param({"w4000", "w3"})
+    private String term;
+
+    private ConfigurableApplicationContext context;
+    private EventRepository eventRepository;
+    private PublicEventSearchRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EwmServerApplication.class)
+                .web(WebApplicationType.NONE)
+                // Аргументами, а не properties(): иначе настройки из application.properties их перекрывают,
+                // и бенчмарк подключится к рабочей базе ewm_main вместо EWM_BENCH_DB_URL
+                .run("--spring.datasource.url=" + env("EWM_BENCH_DB_URL", "jdbc:postgresql://localhost:5432/ewm_bench"),
+                        "--spring.datasource.username=" + env("EWM_BENCH_DB_USER", "dbuser"),
+                        "--spring.datasource.password=" + env("EWM_BENCH_DB_PASSWORD", "12345"),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--ewm.views.sync.enabled=false",
+                        "--ewm.search.full-text.enabled=" + fullText);
+        eventRepository = context.getBean(EventRepository.class);
+        fill(context.getBean(JdbcTemplate.class));
+
+        request = new PublicEventSearchRequest();
+        request.setText(term);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void search(Blackhole blackhole) {
+        blackhole.consume(eventRepository.findPublicEventShortsByFilter(request));
+    }
+
+    private void fill(JdbcTemplate jdbcTemplate) {
+        Long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM events", Long.class);
+        if (existing != null && existing >= EVENTS) {
+            return;
+        }
+        Long userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (name, email) VALUES ('Bench', 'bench@bench.test') RETURNING id", Long.class);
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO categories (name) VALUES ('Bench " + System.nanoTime() + "') RETURNING id", Long.class);
+        // 0 * g связывает подзапрос со строкой, иначе PostgreSQL вычислит его один раз для всех строк
+        String words = "(SELECT string_agg('w' || floor(power(random(), 3) * 5000)::int, ' ')"
+                + " FROM generate_series(1, %d + 0 * g))";
+        for (long from = existing == null ? 0 : existing; from < EVENTS; from += CHUNK) {
+            jdbcTemplate.update("""
+                    INSERT INTO events (annotation, category_id, confirmed_requests, created_on, description,
+                        event_date, initiator_id, location_lat, location_lon, paid, participant_limit,
+                        published_on, request_moderation, state, title, synced_views, comments_count)
+                    SELECT %s, ?, 0, now(), %s, now() + (g %% 360) * interval '1 day', ?, 0, 0, false, 0,
+                        now(), true, 'PUBLISHED', %s, 0, 0
+                    FROM generate_series(1, ?) g""".formatted(
+                            words.formatted(20), words.formatted(300), words.formatted(4)),
+                    categoryId, userId, (int) Math.min(CHUNK, EVENTS - from));
+        }
+        jdbcTemplate.execute("ANALYZE events");
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.event.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.category.model.Category;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.repository.EventRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventSearchIndexTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EventSearchIndex(eventRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "maxCandidates", 10_000);
+    }
+
+    @Test
+    void search_shouldIntersectTermsCategoriesAndPaid() {
+        build(
+                new EventSearchDocument(1L, 10L, false, "Jazz night", "Live jazz", "Club"),
+                new EventSearchDocument(2L, 10L, true, "Jazz-концерт", "Night show", "Club"),
+                new EventSearchDocument(3L, 20L, true, "Lecture", "Night of Jazz history", "Hall"),
+                new EventSearchDocument(4L, 20L, false, "Lecture", "Physics", "Hall"));
+
+        assertThat(found("JAZZ", null, null)).containsExactly(1, 2, 3);
+        assertThat(found("night jazz", null, null)).containsExactly(1, 2, 3);
+        assertThat(found("jazz", List.of(10L), null)).containsExactly(1, 2);
+        assertThat(found("jazz", List.of(10L, 20L), true)).containsExactly(2, 3);
+        assertThat(found("jazz", null, false)).containsExactly(1);
+        assertThat(found("концерт", null, null)).containsExactly(2);
+        assertThat(found("jazz opera", null, null)).isEmpty();
+    }
+
+    @Test
+    void search_shouldFallBackToDatabase() {
+        assertThat(index.search("jazz", null, null)).isEmpty();
+
+        build(new EventSearchDocument(1L, 10L, false, "Jazz", "Jazz", "Jazz"),
+                new EventSearchDocument(2L, 10L, false, "Jazz", "Jazz", "Jazz"));
+
+        assertThat(index.search("  ---  ", null, null)).isEmpty();
+        ReflectionTestUtils.setField(index, "maxCandidates", 1);
+        assertThat(index.search("jazz", null, null)).isEmpty();
+    }
+
+    @Test
+    void onSaved_shouldReindexChangedEventAndRemoveUnpublished() {
+        build(new EventSearchDocument(1L, 10L, true, "Jazz night", "Live", "Club"));
+
+        index.onSaved(event(1L, 20L, false, EventState.PUBLISHED, "Blues night"));
+
+        assertThat(found("jazz", null, null)).isEmpty();
+        assertThat(found("blues", List.of(20L), false)).containsExactly(1);
+        assertThat(found("night", List.of(10L), null)).isEmpty();
+
+        index.onSaved(event(1L, 20L, false, EventState.CANCELED, "Blues night"));
+
+        assertThat(found("blues", null, null)).isEmpty();
+    }
+
+    @Test
+    void onSaved_beforeBuild_shouldApplyOnTopOfBuiltIndex() {
+        index.onSaved(event(1L, 10L, false, EventState.PUBLISHED, "Blues night"));
+        index.onSaved(event(2L, 10L, false, EventState.PUBLISHED, "Rock night"));
+
+        build(new EventSearchDocument(1L, 10L, false, "Jazz night", "Live", "Club"));
+
+        assertThat(found("jazz", null, null)).isEmpty();
+        assertThat(found("night", null, null)).containsExactly(1, 2);
+    }
+
+    @Test
+    void build_whenRepositoryFails_shouldKeepSearchInDatabase() {
+        when(eventRepository.findSearchDocuments(anyLong(), anyInt())).thenThrow(new IllegalStateException("down"));
+
+        index.build();
+        index.onSaved(event(1L, 10L, false, EventState.PUBLISHED, "Jazz"));
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.search("jazz", null, null)).isEmpty();
+    }
+
+    private void build(EventSearchDocument... documents) {
+        when(eventRepository.findSearchDocuments(anyLong(), anyInt())).thenReturn(List.of(documents));
+        index.build();
+        assertThat(index.isReady()).isTrue();
+    }
+
+    private long[] found(String text, List<Long> categoryIds, Boolean paid) {
+        return index.search(text, categoryIds, paid).orElseThrow();
+    }
+
+    private Event event(Long id, Long categoryId, boolean paid, EventState state, String title) {
+        return Event.builder()
+                .id(id)
+                .category(new Category(categoryId, "Category"))
+                .paid(paid)
+                .state(state)
+                .title(title)
+                .annotation("")
+                .description("")
+                .build();
+    }
+}
@@ -9,12 +9,18 @@ import org.mockito.MockitoAnnotations;
 import ru.practicum.StatsClient;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.service.CategoryService;
-import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.compilation.cache.CompilationCache;
+import ru.practicum.event.counter.EventCounter;
+import ru.practicum.event.counter.EventCounterService;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.*;
 import ru.practicum.event.model.state.EventState;
 import ru.practicum.event.model.state.UpdateEventState;
+import ru.practicum.event.participation.admission.AdmissionEngine;
 import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.search.EventSearchIndex;
+import ru.practicum.event.views.EventViewsCache;
+import ru.practicum.event.views.EventViewsEnricher;
 import ru.practicum.exception.BadRequestException;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.ForbiddenException;
@@ -23,6 +29,7 @@ import ru.practicum.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -30,6 +37,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,6 +48,12 @@ class EventServiceImplTest {
     @Mock private EventMapper eventMapper;
     @Mock private CategoryService categoryService;
     @Mock private StatsClient statsClient;
+    @Mock private EventViewsCache eventViewsCache;
+    @Mock private EventViewsEnricher eventViewsEnricher;
+    @Mock private AdmissionEngine admissionEngine;
+    @Mock private EventCounterService eventCounterService;
+    @Mock private EventSearchIndex eventSearchIndex;
+    @Mock private CompilationCache compilationCache;
     @Mock private HttpServletRequest request;
 
     @InjectMocks private EventServiceImpl eventService;
@@ -226,27 +240,19 @@ class EventServiceImplTest {
     }
 
     @Test
-    void incrementConfirmedRequests_shouldIncreaseValue() {
-        Event e = new Event();
-        e.setConfirmedRequests(2);
-        when(eventRepository.findById(1L)).thenReturn(Optional.of(e));
-
+    void incrementConfirmedRequests_shouldAddDeltaInPlace() {
         eventService.incrementConfirmedRequests(1L, 3);
 
-        assertThat(e.getConfirmedRequests()).isEqualTo(5);
-        verify(eventRepository).save(e);
+        verify(eventCounterService).add(EventCounter.CONFIRMED_REQUESTS, 1L, 3);
+        verify(eventRepository, never()).save(any());
     }
 
     @Test
-    void decrementConfirmedRequests_shouldDecreaseValue() {
-        Event e = new Event();
-        e.setConfirmedRequests(2);
-        when(eventRepository.findById(1L)).thenReturn(Optional.of(e));
-
+    void decrementConfirmedRequests_shouldAddNegativeDelta() {
         eventService.decrementConfirmedRequests(1L);
 
-        assertThat(e.getConfirmedRequests()).isEqualTo(1);
-        verify(eventRepository).save(e);
+        verify(eventCounterService).add(EventCounter.CONFIRMED_REQUESTS, 1L, -1);
+        verify(eventRepository, never()).save(any());
     }
 
     @Test
@@ -275,19 +281,20 @@ class EventServiceImplTest {
         r.setSize(10);
         r.setSort("EVENT_DATE");
 
-        Event e = new Event();
+        LocalDateTime publishedOn = LocalDateTime.now().minusDays(1);
+        EventShortView row = new EventShortView(1L, "annotation", 2L, "category", 0,
+                LocalDateTime.now().plusDays(3), 3L, "user", false, true, "title", 0, publishedOn, 0);
         EventShortDto dto = new EventShortDto();
 
-//        when(eventRepository.findPublicEvents(any(), any(), any(), any(), any(), anyBoolean(), any()))
-//                .thenReturn(new PageImpl<>(List.of(e)));
-        when(eventRepository.findPublicEventsByFilter(any())).thenReturn(List.of(e));
-
-        when(eventMapper.toEventShortDto(e)).thenReturn(dto);
+        when(eventRepository.findPublicEventShortsByFilter(any())).thenReturn(List.of(row));
+        when(eventViewsEnricher.getViews(Map.of(1L, publishedOn))).thenReturn(Map.of(1L, 7));
+        when(eventMapper.toEventShortDto(row)).thenReturn(dto);
 
         List<EventShortDto> result = eventService.getPublicEvents(r, request);
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0)).isEqualTo(dto);
+        assertThat(dto.getViews()).isEqualTo(7);
     }
 
     @Test
@@ -297,10 +304,8 @@ class EventServiceImplTest {
         e.setState(EventState.PUBLISHED);
         e.setPublishedOn(LocalDateTime.now().minusHours(1));
 
-        ViewStatsDto view = new ViewStatsDto("/events/1", "app", 5L);
-
         when(eventRepository.findByIdAndState(eq(1L), eq(EventState.PUBLISHED))).thenReturn(Optional.of(e));
-        when(statsClient.getStats(any(), any(), any(), eq(true))).thenReturn(List.of(view));
+        when(eventViewsCache.getViews(1L, e.getPublishedOn())).thenReturn(5L);
         when(eventMapper.toEventFullDto(e)).thenReturn(new EventFullDto());
 
         EventFullDto result = eventService.getPublishedEventById(1L, request);
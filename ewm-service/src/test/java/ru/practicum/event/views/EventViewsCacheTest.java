@@ -0,0 +1,98 @@
+package ru.practicum.event.views;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.StatsClient;
+import ru.practicum.dto.ViewStatsDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EventViewsCacheTest {
+
+    private static final LocalDateTime PUBLISHED_ON = LocalDateTime.now().minusDays(1);
+
+    private final StatsClient statsClient = mock(StatsClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void getViews_disabled_shouldQueryStatsEveryTime() {
+        EventViewsCache cache = cache(false);
+        when(statsClient.fetchStats(any(), any(), eq(List.of("/events/1")), eq(true)))
+                .thenReturn(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 3L)));
+
+        assertThat(cache.getViews(1L, PUBLISHED_ON)).isEqualTo(3);
+        assertThat(cache.getViews(1L, PUBLISHED_ON)).isEqualTo(3);
+
+        verify(statsClient, times(2)).fetchStats(any(), any(), any(), eq(true));
+    }
+
+    @Test
+    void getViews_enabled_shouldLoadHotEventOnceForConcurrentMisses() throws Exception {
+        EventViewsCache cache = cache(true);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(statsClient.fetchStats(any(), any(), any(), eq(true))).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new ViewStatsDto("ewm-main-service", "/events/1", 7L));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.getViews(1L, PUBLISHED_ON)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Long> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(7);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void getViews_enabled_shouldNotCacheStatsFailures() {
+        EventViewsCache cache = cache(true);
+        when(statsClient.fetchStats(any(), any(), any(), eq(true)))
+                .thenThrow(new IllegalStateException("stats-server недоступен"))
+                .thenReturn(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 4L)));
+
+        assertThat(cache.getViews(1L, PUBLISHED_ON)).isZero();
+        assertThat(cache.getViews(1L, PUBLISHED_ON)).isEqualTo(4);
+        assertThat(cache.getViews(1L, PUBLISHED_ON)).isEqualTo(4);
+
+        verify(statsClient, times(2)).fetchStats(any(), any(), any(), eq(true));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", EventViewsCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    private EventViewsCache cache(boolean enabled) {
+        EventViewsCache cache = new EventViewsCache(statsClient, meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "expireAfterWrite", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(cache, "refreshAfterWrite", Duration.ofSeconds(30));
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.event.views;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.StatsClient;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.event.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EventViewsEnricherTest {
+
+    private final StatsClient statsClient = mock(StatsClient.class);
+    private final EventViewsEnricher enricher = new EventViewsEnricher(statsClient);
+
+    @Test
+    void enrich_shouldFillViewsWithSingleStatsRequest() {
+        Event first = event(1L, LocalDateTime.now().minusDays(2));
+        Event second = event(2L, LocalDateTime.now().minusDays(1));
+        Event third = event(3L, LocalDateTime.now().minusHours(1));
+        when(statsClient.getStats(any(), any(), anyList(), eq(true))).thenReturn(List.of(
+                new ViewStatsDto("ewm-main-service", "/events/1", 4L),
+                new ViewStatsDto("ewm-main-service", "/events/2", 2L)));
+
+        enricher.enrich(List.of(first, second, third));
+
+        assertThat(first.getViews()).isEqualTo(4);
+        assertThat(second.getViews()).isEqualTo(2);
+        assertThat(third.getViews()).isZero();
+        verify(statsClient).getStats(any(), any(),
+                argThat(uris -> uris.size() == 3 && uris.containsAll(List.of("/events/1", "/events/2", "/events/3"))),
+                eq(true));
+    }
+
+    @Test
+    void getViews_mixedPublicationDates_shouldCountEachUriFromEarliestPublication() {
+        LocalDateTime early = LocalDateTime.now().minusDays(30);
+        LocalDateTime late = LocalDateTime.now().minusMinutes(5);
+        when(statsClient.getStats(any(), any(), anyList(), eq(true))).thenReturn(List.of(
+                new ViewStatsDto("ewm-main-service", "/events/1", 7L),
+                new ViewStatsDto("ewm-main-service", "/events/2", 1L)));
+
+        Map<Long, Integer> views = enricher.getViews(Map.of(1L, early, 2L, late));
+
+        assertThat(views).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 7, 2L, 1));
+        verify(statsClient).getStats(eq(EventViewsCache.toUtc(early).minusSeconds(1)), any(),
+                argThat(uris -> uris.size() == 2 && uris.containsAll(List.of("/events/1", "/events/2"))),
+                eq(true));
+        verifyNoMoreInteractions(statsClient);
+    }
+
+    @Test
+    void enrich_shouldSkipStatsForUnpublishedEvents() {
+        Event pending = event(1L, null);
+        pending.setViews(10);
+
+        enricher.enrich(List.of(pending));
+
+        assertThat(pending.getViews()).isZero();
+        verifyNoInteractions(statsClient);
+    }
+
+    private Event event(Long id, LocalDateTime publishedOn) {
+        Event event = new Event();
+        event.setId(id);
+        event.setPublishedOn(publishedOn);
+        return event;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.event.views;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.StatsClient;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
+import ru.practicum.event.model.PublicEventSearchRequest;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.user.model.User;
+import ru.practicum.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EventViewsSyncJobTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final StatsClient statsClient = mock(StatsClient.class);
+    private EventViewsSyncJob job;
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        job = new EventViewsSyncJob(eventRepository, statsClient, jdbcTemplate,
+                entityManager.getEntityManagerFactory());
+        ReflectionTestUtils.setField(job, "chunkSize", 2);
+        user = userRepository.save(new User(null, "sync@test.com", "Sync"));
+        category = categoryRepository.save(new Category(null, "Theatre"));
+    }
+
+    @Test
+    void sync_shouldPersistViewsAndEnableViewsSort() {
+        Event quiet = eventRepository.save(event(EventState.PUBLISHED));
+        Event popular = eventRepository.save(event(EventState.PUBLISHED));
+        Event medium = eventRepository.save(event(EventState.PUBLISHED));
+        eventRepository.save(event(EventState.PENDING));
+        when(statsClient.fetchStats(any(), any(), anyList(), eq(true))).thenReturn(List.of(
+                new ViewStatsDto("ewm-main-service", "/events/" + popular.getId(), 9L),
+                new ViewStatsDto("ewm-main-service", "/events/" + medium.getId(), 3L)));
+
+        int updated = job.sync();
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(2);
+        verify(statsClient, times(2)).fetchStats(any(), any(), anyList(), eq(true));
+
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setSort("VIEWS");
+        assertThat(eventRepository.findPublicEventShortsByFilter(request))
+                .extracting(EventShortView::id)
+                .containsExactly(popular.getId(), medium.getId(), quiet.getId());
+    }
+
+    @Test
+    void sync_shouldKeepPreviousViewsWhenStatsUnavailable() {
+        Event event = eventRepository.save(event(EventState.PUBLISHED));
+        when(statsClient.fetchStats(any(), any(), anyList(), eq(true)))
+                .thenReturn(List.of(new ViewStatsDto("ewm-main-service", "/events/" + event.getId(), 5L)))
+                .thenThrow(new IllegalStateException("stats-server недоступен"));
+
+        job.sync();
+        int updated = job.sync();
+        entityManager.clear();
+
+        assertThat(updated).isZero();
+        assertThat(eventRepository.findById(event.getId())).get()
+                .extracting(Event::getSyncedViews).isEqualTo(5L);
+    }
+
+    private Event event(EventState state) {
+        return Event.builder()
+                .title("Test")
+                .annotation("Odio sint delectus beatae nulla")
+                .description("Odio sint delectus beatae nulla")
+                .category(category)
+                .initiator(user)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .publishedOn(state == EventState.PUBLISHED ? LocalDateTime.now().minusHours(1) : null)
+                .state(state)
+                .paid(false)
+                .location(new Location(0.0, 0.0))
+                .build();
+    }
+}
@@ -0,0 +1,222 @@
+package ru.practicum.pagination;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.StatsClient;
+import ru.practicum.category.model.Category;
+import ru.practicum.category.model.CategoryDto;
+import ru.practicum.category.repository.CategoryRepository;
+import ru.practicum.category.service.CategoryService;
+import ru.practicum.event.comment.model.AdminCommentSearchRequest;
+import ru.practicum.event.comment.model.Comment;
+import ru.practicum.event.comment.model.CommentFullDto;
+import ru.practicum.event.comment.repository.CommentRepository;
+import ru.practicum.event.comment.service.CommentService;
+import ru.practicum.event.location.Location;
+import ru.practicum.event.model.AdminEventSearchRequest;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventFullDto;
+import ru.practicum.event.model.EventShortDto;
+import ru.practicum.event.model.PublicEventSearchRequest;
+import ru.practicum.event.model.state.EventState;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.service.EventService;
+import ru.practicum.user.model.User;
+import ru.practicum.user.model.UserDto;
+import ru.practicum.user.repository.UserRepository;
+import ru.practicum.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Обход списков по курсору должен отдавать те же строки в том же порядке, что и одна большая страница со смещением,
+ * в том числе при равных ключах сортировки.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class KeysetPaginationTest {
+
+    private static final int PAGE = 4;
+
+    @MockBean
+    private StatsClient statsClient;
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User author;
+    private Category category;
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 9; i++) {
+            userIds.add(userRepository.save(new User(null, "keyset" + i + "@test.com", "User " + i)).getId());
+        }
+        author = userRepository.findById(userIds.getFirst()).orElseThrow();
+        category = categoryRepository.save(new Category(null, "Keyset"));
+
+        for (int i = 0; i < 17; i++) {
+            Event event = eventRepository.save(Event.builder()
+                    .title("Event " + i)
+                    .annotation("Odio sint delectus beatae nulla")
+                    .description("Odio sint delectus beatae nulla")
+                    .category(category)
+                    .initiator(author)
+                    .eventDate(now.plusDays(1).plusHours(i / 3))
+                    .createdOn(now)
+                    .publishedOn(now)
+                    .state(EventState.PUBLISHED)
+                    .paid(false)
+                    .location(new Location(0.0, 0.0))
+                    .syncedViews(i % 4)
+                    .commentsCount(i % 5)
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .text("Comment " + i)
+                    .event(event)
+                    .author(author)
+                    .created(now.minusMinutes(i / 2))
+                    .build());
+        }
+    }
+
+    @Test
+    void publicEvents_shouldWalkAllSortsWithoutGapsOrDuplicates() {
+        for (String sort : List.of("EVENT_DATE", "COMMENTS", "VIEWS")) {
+            List<EventShortDto> all = eventService.getPublicEvents(publicRequest(sort, null, 100),
+                    new MockHttpServletRequest());
+
+            List<EventShortDto> walked = walk(cursor -> eventService.getPublicEventsPage(
+                    publicRequest(sort, cursor, PAGE), new MockHttpServletRequest()));
+
+            assertThat(all).hasSize(17);
+            assertThat(walked).extracting(EventShortDto::getId)
+                    .as(sort)
+                    .containsExactlyElementsOf(all.stream().map(EventShortDto::getId).toList());
+        }
+    }
+
+    @Test
+    void adminEvents_shouldWalkInEventDateOrder() {
+        List<EventFullDto> all = eventService.getEventsByParams(adminRequest(null, 100));
+
+        List<EventFullDto> walked = walk(cursor -> eventService.getEventsPageByParams(adminRequest(cursor, PAGE)));
+
+        assertThat(walked).extracting(EventFullDto::getId)
+                .containsExactlyElementsOf(all.stream().map(EventFullDto::getId).toList())
+                .hasSize(17);
+    }
+
+    @Test
+    void userEvents_shouldWalkInIdOrder() {
+        List<EventShortDto> all = eventService.getUserEvents(author.getId(), 0, 100);
+
+        List<EventShortDto> walked = walk(cursor -> eventService.getUserEvents(author.getId(), cursor, PAGE));
+
+        assertThat(walked).extracting(EventShortDto::getId)
+                .containsExactlyElementsOf(all.stream().map(EventShortDto::getId).toList())
+                .hasSize(17);
+    }
+
+    @Test
+    void comments_shouldWalkInCreatedOrder() {
+        List<CommentFullDto> all = commentService.getCommentsForModeration(commentRequest(null, 100));
+
+        List<CommentFullDto> walked = walk(cursor ->
+                commentService.getCommentsPageForModeration(commentRequest(cursor, PAGE)));
+
+        assertThat(walked).extracting(CommentFullDto::getId)
+                .containsExactlyElementsOf(all.stream().map(CommentFullDto::getId).toList())
+                .hasSize(17);
+    }
+
+    @Test
+    void usersAndCategories_shouldWalkInIdOrder() {
+        List<UserDto> users = walk(cursor -> userService.getUsers(userIds, cursor, PAGE));
+        List<CategoryDto> categories = walk(cursor -> categoryService.getCategories(cursor, PAGE));
+
+        assertThat(users).extracting(UserDto::getId).containsExactlyElementsOf(userIds);
+        assertThat(categories).extracting(CategoryDto::getId)
+                .containsExactlyElementsOf(categoryService.getCategories(0, 1000).stream()
+                        .map(CategoryDto::getId).toList())
+                .contains(category.getId());
+    }
+
+    @Test
+    void exactlyFullLastPage_shouldNotIssueCursor() {
+        List<Long> twoPages = List.copyOf(userIds.subList(0, 2 * PAGE));
+
+        CursorPage<UserDto> first = userService.getUsers(twoPages, "", PAGE);
+        CursorPage<UserDto> last = userService.getUsers(twoPages, first.nextCursor(), PAGE);
+
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(last.items()).extracting(UserDto::getId).containsExactlyElementsOf(twoPages.subList(PAGE, 2 * PAGE));
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    private <T> List<T> walk(Function<String, CursorPage<T>> fetch) {
+        List<T> items = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            CursorPage<T> page = fetch.apply(cursor);
+            assertThat(page.items()).isNotEmpty().hasSizeLessThanOrEqualTo(PAGE);
+            items.addAll(page.items());
+            cursor = page.nextCursor();
+        }
+        return items;
+    }
+
+    private PublicEventSearchRequest publicRequest(String sort, String cursor, int size) {
+        PublicEventSearchRequest request = new PublicEventSearchRequest();
+        request.setCategories(List.of(category.getId()));
+        request.setSort(sort);
+        request.setCursor(cursor);
+        request.setSize(size);
+        return request;
+    }
+
+    private AdminEventSearchRequest adminRequest(String cursor, int size) {
+        return AdminEventSearchRequest.builder()
+                .users(List.of(author.getId()))
+                .cursor(cursor)
+                .size(size)
+                .build();
+    }
+
+    private AdminCommentSearchRequest commentRequest(String cursor, int size) {
+        return AdminCommentSearchRequest.builder()
+                .authorIds(List.of(author.getId()))
+                .cursor(cursor)
+                .size(size)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void decode_shouldRestoreEncodedCursor() {
+        LocalDateTime eventDate = LocalDateTime.of(2026, 5, 1, 18, 30, 15, 123_000);
+
+        PageCursor cursor = PageCursor.decode(PageCursor.of(eventDate, 42L).encode());
+
+        assertThat(cursor.id()).isEqualTo(42L);
+        assertThat(cursor.dateTimeKey()).isEqualTo(eventDate);
+    }
+
+    @Test
+    void decode_shouldRestoreIdOnlyCursor() {
+        PageCursor cursor = PageCursor.decode(PageCursor.of(null, 7L).encode());
+
+        assertThat(cursor).isEqualTo(new PageCursor(null, 7L));
+    }
+
+    @Test
+    void decode_shouldTreatBlankTokenAsFirstPage() {
+        assertThat(PageCursor.decode("")).isNull();
+        assertThat(PageCursor.decode(null)).isNull();
+    }
+
+    @Test
+    void decode_shouldRejectMalformedToken() {
+        assertThrows(BadRequestException.class, () -> PageCursor.decode("не курсор"));
+        assertThrows(BadRequestException.class, () -> PageCursor.decode(PageCursor.of(5, 1L).encode()).dateTimeKey());
+    }
+}
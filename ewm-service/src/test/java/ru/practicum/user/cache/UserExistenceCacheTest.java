@@ -0,0 +1,105 @@
+package ru.practicum.user.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class UserExistenceCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserExistenceCache cache = new UserExistenceCache(userRepository);
+
+    @Test
+    void exists_disabled_shouldQueryDatabase() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        cache.afterSingletonsInstantiated();
+        cache.onCreated(1L);
+
+        assertThat(cache.exists(1L)).isTrue();
+        assertThat(cache.exists(1L)).isTrue();
+        verify(userRepository, times(2)).existsById(1L);
+        verify(userRepository, never()).findIdsAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldLoadIdsInChunks() {
+        when(userRepository.findIdsAfter(0L, 10_000)).thenReturn(List.of(1L, 2L, 130L));
+        when(userRepository.findIdsAfter(130L, 10_000)).thenReturn(List.of(100_000L));
+        when(userRepository.findIdsAfter(100_000L, 10_000)).thenReturn(List.of());
+
+        enabled().afterSingletonsInstantiated();
+
+        assertThat(cache.exists(1L)).isTrue();
+        assertThat(cache.exists(130L)).isTrue();
+        assertThat(cache.exists(100_000L)).isTrue();
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void exists_unknownId_shouldFallBackToDatabaseAndRememberFoundId() {
+        when(userRepository.findIdsAfter(anyLong(), anyInt())).thenReturn(List.of());
+        when(userRepository.existsById(5L)).thenReturn(true);
+        when(userRepository.existsById(6L)).thenReturn(false);
+        enabled().afterSingletonsInstantiated();
+
+        assertThat(cache.exists(5L)).isTrue();
+        assertThat(cache.exists(5L)).isTrue();
+        assertThat(cache.exists(6L)).isFalse();
+        assertThat(cache.exists(6L)).isFalse();
+        assertThat(cache.exists(-1L)).isFalse();
+
+        verify(userRepository, times(1)).existsById(5L);
+        verify(userRepository, times(2)).existsById(6L);
+    }
+
+    @Test
+    void onCreatedAndOnDeleted_inTransaction_shouldApplyAfterCommit() {
+        when(userRepository.findIdsAfter(0L, 10_000)).thenReturn(List.of(1L));
+        when(userRepository.findIdsAfter(1L, 10_000)).thenReturn(List.of());
+        enabled().afterSingletonsInstantiated();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.onCreated(2L);
+            cache.onDeleted(1L);
+            assertThat(cache.exists(1L)).isTrue();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.exists(2L)).isTrue();
+        assertThat(cache.exists(1L)).isFalse();
+        verify(userRepository).existsById(1L);
+        verify(userRepository, never()).existsById(2L);
+    }
+
+    @Test
+    void exists_deletionDuringFallback_shouldNotRememberId() {
+        when(userRepository.findIdsAfter(anyLong(), anyInt())).thenReturn(List.of());
+        enabled().afterSingletonsInstantiated();
+        when(userRepository.existsById(3L)).thenAnswer(invocation -> {
+            cache.onDeleted(3L);
+            return true;
+        }).thenReturn(false);
+
+        assertThat(cache.exists(3L)).isTrue();
+        assertThat(cache.exists(3L)).isFalse();
+    }
+
+    private UserExistenceCache enabled() {
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        return cache;
+    }
+}
@@ -5,8 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.compilation.cache.CompilationCache;
+import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.user.cache.UserExistenceCache;
 import ru.practicum.user.mapper.UserMapperImpl;
 import ru.practicum.user.model.NewUserRequest;
 import ru.practicum.user.model.User;
@@ -17,6 +20,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
 
 @DataJpaTest
 class UserServiceImplIntegrationTest {
@@ -24,6 +28,9 @@ class UserServiceImplIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EventRepository eventRepository;
+
     @Autowired
     private TestEntityManager em;
 
@@ -31,7 +38,8 @@ class UserServiceImplIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository, new UserMapperImpl());
+        userService = new UserServiceImpl(userRepository, eventRepository, new UserMapperImpl(), mock(CompilationCache.class),
+                new UserExistenceCache(userRepository));
     }
 
     @Test
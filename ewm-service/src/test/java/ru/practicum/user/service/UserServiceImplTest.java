@@ -5,8 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import ru.practicum.compilation.cache.CompilationCache;
 import ru.practicum.exception.ConflictException;
+import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.user.cache.UserExistenceCache;
 import ru.practicum.user.mapper.UserMapper;
 import ru.practicum.user.model.NewUserRequest;
 import ru.practicum.user.model.User;
@@ -25,9 +28,18 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EventRepository eventRepository;
+
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CompilationCache compilationCache;
+
+    @Mock
+    private UserExistenceCache userExistenceCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -51,6 +63,7 @@ class UserServiceImplTest {
         UserDto result = userService.create(request);
 
         assertThat(result).isEqualTo(expectedDto);
+        verify(userExistenceCache).onCreated(1L);
     }
 
     @Test
@@ -125,7 +138,10 @@ class UserServiceImplTest {
 
         userService.delete(1L);
 
+        verify(eventRepository).deleteByInitiatorId(1L);
         verify(userRepository).deleteById(1L);
+        verify(compilationCache).onUserDeleted(1L);
+        verify(userExistenceCache).onDeleted(1L);
     }
 
     @Test
@@ -135,4 +151,22 @@ class UserServiceImplTest {
         assertThatThrownBy(() -> userService.delete(77L))
                 .isInstanceOf(NotFoundException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkExists_shouldPass_whenUserKnown() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+
+        userService.checkExists(1L);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkExists_shouldThrowNotFound_whenUserMissing() {
+        when(userExistenceCache.exists(77L)).thenReturn(false);
+
+        assertThatThrownBy(() -> userService.checkExists(77L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("id=77");
+    }
+}
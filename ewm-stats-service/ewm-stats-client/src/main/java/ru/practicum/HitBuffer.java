@@ -0,0 +1,179 @@
+package ru.practicum;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.dto.EndpointHitDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченный буфер хитов с фоновой отправкой пачками.
+ * Пачка уходит, как только набрано batchSize хитов или с момента первого хита в пачке прошло flushInterval.
+ */
+@Slf4j
+public class HitBuffer {
+
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final HitOverflowPolicy overflowPolicy;
+    private final Consumer<List<EndpointHitDto>> sender;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread worker;
+
+    public HitBuffer(int capacity, int batchSize, Duration flushInterval, HitOverflowPolicy overflowPolicy,
+                     Consumer<List<EndpointHitDto>> sender) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Размер буфера и пачки должны быть положительными");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.sender = sender;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        stopped = false;
+        worker = new Thread(this::runLoop, "stats-hit-flusher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Останавливает фоновый поток и отправляет всё, что осталось в буфере.
+     * Хиты, поступившие после остановки, отправляются сразу в вызывающем потоке.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        stopped = true;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void offer(EndpointHitDto hit) {
+        if (stopped) {
+            send(List.of(hit));
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> {
+                if (!queue.offer(hit)) {
+                    dropped.incrementAndGet();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(hit)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    queue.put(hit);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+        if (stopped) {
+            // Фоновый поток мог дочистить буфер раньше, чем в него попал этот хит
+            drainRemaining();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFlushedCount() {
+        return flushed.get();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void runLoop() {
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                collectBatch(batch);
+                if (!batch.isEmpty()) {
+                    send(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (InterruptedException e) {
+            // штатная остановка — дочищаем буфер ниже
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+        drainRemaining();
+    }
+
+    private void collectBatch(List<EndpointHitDto> batch) throws InterruptedException {
+        EndpointHitDto first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            EndpointHitDto next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void drainRemaining() {
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            send(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void send(List<EndpointHitDto> batch) {
+        try {
+            sender.accept(batch);
+            flushed.addAndGet(batch.size());
+        } catch (Exception e) {
+            dropped.addAndGet(batch.size());
+            log.warn("Не удалось отправить пачку из {} хитов: {}", batch.size(), e.getMessage());
+        }
+    }
+}
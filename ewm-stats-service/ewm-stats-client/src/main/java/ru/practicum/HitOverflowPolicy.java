@@ -0,0 +1,13 @@
+package ru.practicum;
+
+/**
+ * Поведение буфера хитов при переполнении.
+ */
+public enum HitOverflowPolicy {
+    /** Вытеснить самый старый хит из буфера. */
+    DROP_OLDEST,
+    /** Заблокировать вызывающий поток до освобождения места. */
+    BLOCK,
+    /** Отбросить новый хит. */
+    DROP_NEWEST
+}
@@ -1,5 +1,7 @@
 package ru.practicum;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,10 +11,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.HitBatchResultDto;
+import ru.practicum.dto.StatsWireFormat;
 import ru.practicum.dto.ViewStatsDto;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -27,43 +32,138 @@ public class StatsClient {
     @Value("${stats.server.url}")
     private String serverUrl;
 
+    @Value("${stats.client.wire-format:json}")
+    private String wireFormat;
+
+    /**
+     * Уникальные IP запрашиваются с approximate=true: оценка по скетчам одинаково считается и по свежим,
+     * и по прореженным сервером статистики данным, где сырых хитов для точного подсчёта уже нет.
+     */
+    @Value("${stats.client.approximate-unique:false}")
+    private boolean approximateUnique;
+
+    @Value("${stats.client.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${stats.client.async.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${stats.client.async.batch-size:500}")
+    private int batchSize;
+
+    @Value("${stats.client.async.flush-interval:1s}")
+    private Duration flushInterval;
+
+    @Value("${stats.client.async.overflow-policy:DROP_OLDEST}")
+    private HitOverflowPolicy overflowPolicy;
+
+    private HitBuffer hitBuffer;
+
+    @PostConstruct
+    void init() {
+        configureWireFormat();
+        startAsyncSender();
+    }
+
+    /**
+     * В режиме smile хиты отправляются, а статистика запрашивается в бинарном формате Smile.
+     * Конвертер ставится первым, поэтому он выбирается и для тела запроса, и для заголовка Accept.
+     */
+    private void configureWireFormat() {
+        if ("smile".equalsIgnoreCase(wireFormat)) {
+            restTemplate.getMessageConverters().add(0, StatsWireFormat.smileConverter());
+            log.info("Обмен с сервером статистики в формате Smile");
+        }
+    }
+
+    private void startAsyncSender() {
+        if (asyncEnabled) {
+            hitBuffer = new HitBuffer(bufferCapacity, batchSize, flushInterval, overflowPolicy, this::sendHits);
+            hitBuffer.start();
+            log.info("Асинхронная отправка хитов включена: буфер {}, пачка {}, интервал {}, переполнение {}",
+                    bufferCapacity, batchSize, flushInterval, overflowPolicy);
+        }
+    }
+
+    @PreDestroy
+    void stopAsyncSender() {
+        if (hitBuffer != null) {
+            hitBuffer.stop();
+        }
+    }
+
+    /**
+     * В асинхронном режиме хит кладётся в буфер и уходит на сервер статистики фоновым потоком,
+     * иначе отправляется сразу в вызывающем потоке.
+     */
     public void saveHit(EndpointHitDto hitDto) {
+        if (hitBuffer != null) {
+            hitBuffer.offer(hitDto);
+            return;
+        }
         try {
             HttpEntity<EndpointHitDto> request = new HttpEntity<>(hitDto);
             restTemplate.postForEntity(serverUrl + "/hit", request, Void.class);
         } catch (Exception e) {
-            System.out.println("⚠️ Ошибка при отправке hit: " + e.getMessage());
+            log.debug("Ошибка при отправке hit: {}", e.getMessage());
         }
     }
 
-    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            String startStr = start.format(formatter).replace(" ", "+");
-            String endStr = end.format(formatter).replace(" ", "+");
-
-            UriComponentsBuilder builder = UriComponentsBuilder
-                    .fromHttpUrl(serverUrl + "/stats")
-                    .queryParam("start", startStr)
-                    .queryParam("end", endStr)
-                    .queryParam("unique", unique);
-
-            if (uris != null && !uris.isEmpty()) {
-                for (String uri : uris) {
-                    builder.queryParam("uris", uri);
-                }
-            }
+    public long getDroppedHits() {
+        return hitBuffer != null ? hitBuffer.getDroppedCount() : 0;
+    }
+
+    public long getFlushedHits() {
+        return hitBuffer != null ? hitBuffer.getFlushedCount() : 0;
+    }
 
-            String url = builder.build().toUriString();
+    private void sendHits(List<EndpointHitDto> hits) {
+        HitBatchResultDto result = restTemplate.postForObject(
+                serverUrl + "/hits/batch", new HttpEntity<>(hits), HitBatchResultDto.class);
+        if (result != null && result.getRejected() > 0) {
+            log.warn("Сервер статистики отклонил {} из {} хитов", result.getRejected(), hits.size());
+        }
+    }
 
-            ResponseEntity<ViewStatsDto[]> response = restTemplate.getForEntity(url, ViewStatsDto[].class);
-            return List.of(response.getBody());
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+        try {
+            return fetchStats(start, end, uris, unique);
         } catch (Exception e) {
-            System.out.println("⚠️ Ошибка при получении статистики: " + e.getMessage());
+            log.debug("Ошибка при получении статистики: {}", e.getMessage());
             return List.of();
         }
     }
 
+    /**
+     * То же, что {@link #getStats}, но ошибки обращения к серверу статистики пробрасываются вызывающему,
+     * чтобы он мог отличить сбой от пустой статистики (например, не кэшировать такой результат).
+     */
+    public List<ViewStatsDto> fetchStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        String startStr = start.format(formatter).replace(" ", "+");
+        String endStr = end.format(formatter).replace(" ", "+");
+
+        UriComponentsBuilder builder = UriComponentsBuilder
+                .fromHttpUrl(serverUrl + "/stats")
+                .queryParam("start", startStr)
+                .queryParam("end", endStr)
+                .queryParam("unique", unique);
+        if (unique && approximateUnique) {
+            builder.queryParam("approximate", true);
+        }
+
+        if (uris != null && !uris.isEmpty()) {
+            for (String uri : uris) {
+                builder.queryParam("uris", uri);
+            }
+        }
+
+        String url = builder.build().toUriString();
+
+        ResponseEntity<ViewStatsDto[]> response = restTemplate.getForEntity(url, ViewStatsDto[].class);
+        return List.of(response.getBody());
+    }
+
     private String encode(LocalDateTime dateTime) {
         String raw = dateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         return URLEncoder.encode(raw, StandardCharsets.UTF_8);
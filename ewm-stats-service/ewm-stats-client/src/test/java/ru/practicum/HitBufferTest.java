@@ -0,0 +1,135 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.dto.EndpointHitDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HitBufferTest {
+
+    private final List<List<EndpointHitDto>> sent = new CopyOnWriteArrayList<>();
+
+    @Test
+    void start_shouldFlushFullBatches() throws InterruptedException {
+        HitBuffer buffer = new HitBuffer(100, 3, Duration.ofSeconds(5), HitOverflowPolicy.DROP_NEWEST, sent::add);
+        buffer.start();
+
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(hit("/events/" + i));
+        }
+
+        waitUntilFlushed(buffer, 6);
+        buffer.stop();
+
+        assertThat(sent).hasSize(2).allSatisfy(batch -> assertThat(batch).hasSize(3));
+        assertThat(buffer.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void start_shouldFlushIncompleteBatchAfterInterval() throws InterruptedException {
+        HitBuffer buffer = new HitBuffer(100, 50, Duration.ofMillis(50), HitOverflowPolicy.DROP_NEWEST, sent::add);
+        buffer.start();
+
+        buffer.offer(hit("/events/1"));
+
+        waitUntilFlushed(buffer, 1);
+        buffer.stop();
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.getFirst()).extracting(EndpointHitDto::getUri).containsExactly("/events/1");
+    }
+
+    @Test
+    void offer_dropNewest_shouldRejectHitsWhenFull() {
+        HitBuffer buffer = new HitBuffer(2, 10, Duration.ofSeconds(1), HitOverflowPolicy.DROP_NEWEST, sent::add);
+
+        buffer.offer(hit("/a"));
+        buffer.offer(hit("/b"));
+        buffer.offer(hit("/c"));
+
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+
+        buffer.start();
+        buffer.stop();
+
+        assertThat(sent).flatExtracting(batch -> batch).extracting(EndpointHitDto::getUri)
+                .containsExactly("/a", "/b");
+    }
+
+    @Test
+    void offer_dropOldest_shouldEvictOldestHitsWhenFull() {
+        HitBuffer buffer = new HitBuffer(2, 10, Duration.ofSeconds(1), HitOverflowPolicy.DROP_OLDEST, sent::add);
+
+        buffer.offer(hit("/a"));
+        buffer.offer(hit("/b"));
+        buffer.offer(hit("/c"));
+
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+
+        buffer.start();
+        buffer.stop();
+
+        assertThat(sent).flatExtracting(batch -> batch).extracting(EndpointHitDto::getUri)
+                .containsExactly("/b", "/c");
+    }
+
+    @Test
+    void stop_shouldCountFailedBatchesAsDropped() {
+        HitBuffer buffer = new HitBuffer(10, 10, Duration.ofSeconds(1), HitOverflowPolicy.BLOCK, batch -> {
+            throw new IllegalStateException("stats-server недоступен");
+        });
+
+        buffer.offer(hit("/a"));
+        buffer.offer(hit("/b"));
+        buffer.start();
+        buffer.stop();
+
+        assertThat(buffer.getFlushedCount()).isZero();
+        assertThat(buffer.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void offer_afterStop_shouldSendImmediately() {
+        HitBuffer buffer = new HitBuffer(10, 10, Duration.ofSeconds(1), HitOverflowPolicy.DROP_NEWEST, sent::add);
+        buffer.start();
+        buffer.stop();
+
+        buffer.offer(hit("/late"));
+
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.getFlushedCount()).isEqualTo(1);
+        assertThat(sent).flatExtracting(batch -> batch).extracting(EndpointHitDto::getUri)
+                .containsExactly("/late");
+    }
+
+    @Test
+    void offer_afterStopWhenSendFails_shouldCountDropped() {
+        HitBuffer buffer = new HitBuffer(10, 10, Duration.ofSeconds(1), HitOverflowPolicy.BLOCK, batch -> {
+            throw new IllegalStateException("stats-server недоступен");
+        });
+        buffer.start();
+        buffer.stop();
+
+        buffer.offer(hit("/late"));
+
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+    }
+
+    private void waitUntilFlushed(HitBuffer buffer, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (buffer.getFlushedCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private EndpointHitDto hit(String uri) {
+        return new EndpointHitDto("ewm-main-service", uri, "127.0.0.1", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.StatsWireFormat;
+import ru.practicum.dto.ViewStatsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class StatsClientTest {
+
+    private final ObjectMapper smileMapper = StatsWireFormat.smileObjectMapper();
+
+    private StatsClient statsClient;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        statsClient = new StatsClient();
+        ReflectionTestUtils.setField(statsClient, "serverUrl", "http://stats");
+        ReflectionTestUtils.setField(statsClient, "wireFormat", "smile");
+        statsClient.init();
+        RestTemplate restTemplate = (RestTemplate) ReflectionTestUtils.getField(statsClient, "restTemplate");
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void saveHit_smile_shouldSendSmileBody() throws Exception {
+        EndpointHitDto hit = new EndpointHitDto("ewm-main-service", "/events/1", "10.0.0.1",
+                LocalDateTime.of(2025, 3, 1, 12, 0));
+        server.expect(requestTo("http://stats/hit"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("Content-Type", StatsWireFormat.APPLICATION_SMILE_VALUE))
+                .andExpect(content().bytes(smileMapper.writeValueAsBytes(hit)))
+                .andRespond(withStatus(CREATED));
+
+        statsClient.saveHit(hit);
+
+        server.verify();
+    }
+
+    @Test
+    void getStats_smile_shouldAcceptAndDecodeSmile() throws Exception {
+        ViewStatsDto[] body = {new ViewStatsDto("ewm-main-service", "/events/1", 5L)};
+        server.expect(requestTo(startsWith("http://stats/stats")))
+                .andExpect(header("Accept", startsWith(StatsWireFormat.APPLICATION_SMILE_VALUE)))
+                .andRespond(withSuccess(smileMapper.writeValueAsBytes(body), StatsWireFormat.APPLICATION_SMILE));
+
+        List<ViewStatsDto> stats = statsClient.getStats(LocalDateTime.of(2025, 3, 1, 0, 0),
+                LocalDateTime.of(2025, 3, 2, 0, 0), List.of("/events/1"), true);
+
+        assertThat(stats).singleElement().extracting(ViewStatsDto::getHits).isEqualTo(5L);
+    }
+
+    @Test
+    void getStats_approximateUnique_shouldRequestSketchEstimate() {
+        ReflectionTestUtils.setField(statsClient, "approximateUnique", true);
+        server.expect(requestTo(allOf(containsString("unique=true"), containsString("approximate=true"))))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        statsClient.getStats(LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 3, 2, 0, 0),
+                List.of("/events/1"), true);
+
+        server.verify();
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Компактный бинарный формат обмена клиента и сервера статистики — Jackson Smile.
+ * Те же DTO и аннотации, что и для JSON; повторяющиеся имена полей и короткие строки (app, ip, timestamp)
+ * кодируются ссылками на уже записанные значения.
+ */
+public final class StatsWireFormat {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private StatsWireFormat() {
+    }
+
+    public static ObjectMapper smileObjectMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return Jackson2ObjectMapperBuilder.smile().factory(factory).build();
+    }
+
+    public static MappingJackson2SmileHttpMessageConverter smileConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(smileObjectMapper());
+    }
+}
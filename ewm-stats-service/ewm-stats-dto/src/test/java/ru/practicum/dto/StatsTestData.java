@@ -0,0 +1,38 @@
+package ru.practicum.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Типичные сообщения сервиса статистики для тестов и бенчмарков формата.
+ */
+final class StatsTestData {
+
+    private StatsTestData() {
+    }
+
+    /**
+     * Пачка хитов с повторяющимися app, uri и ip, как в реальном трафике.
+     */
+    static List<EndpointHitDto> hits(int count) {
+        LocalDateTime timestamp = LocalDateTime.of(2025, 3, 1, 12, 0);
+        List<EndpointHitDto> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(new EndpointHitDto("ewm-main-service", "/events/" + (i % 20),
+                    "192.168." + (i % 7) + "." + (i % 50), timestamp.plusSeconds(i / 10)));
+        }
+        return hits;
+    }
+
+    /**
+     * Ответ /stats по {@code count} событиям, отсортированный по убыванию просмотров.
+     */
+    static List<ViewStatsDto> stats(int count) {
+        List<ViewStatsDto> stats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stats.add(new ViewStatsDto("ewm-main-service", "/events/" + i, 1000L - i));
+        }
+        return stats;
+    }
+}
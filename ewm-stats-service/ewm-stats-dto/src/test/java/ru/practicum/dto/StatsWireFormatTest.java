@@ -0,0 +1,59 @@
+package ru.practicum.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsWireFormatTest {
+
+    private final ObjectMapper smileMapper = StatsWireFormat.smileObjectMapper();
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void smile_shouldRoundTripHitBatch() throws Exception {
+        List<EndpointHitDto> hits = StatsTestData.hits(100);
+
+        byte[] bytes = smileMapper.writeValueAsBytes(hits);
+        List<EndpointHitDto> restored = smileMapper.readValue(bytes, new TypeReference<>() {
+        });
+
+        assertThat(restored).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(hits);
+    }
+
+    @Test
+    void smile_shouldRoundTripStats() throws Exception {
+        ViewStatsDto[] stats = {
+                new ViewStatsDto("ewm-main-service", "/events/1", 10L),
+                new ViewStatsDto("ewm-main-service", "/events/2", 3L)
+        };
+
+        ViewStatsDto[] restored = smileMapper.readValue(smileMapper.writeValueAsBytes(stats), ViewStatsDto[].class);
+
+        assertThat(restored).usingRecursiveFieldByFieldElementComparator().containsExactly(stats);
+    }
+
+    @Test
+    void smile_shouldBeMoreCompactThanJson() throws Exception {
+        List<EndpointHitDto> hits = StatsTestData.hits(500);
+
+        int smileSize = smileMapper.writeValueAsBytes(hits).length;
+        int jsonSize = jsonMapper.writeValueAsBytes(hits).length;
+
+        assertThat(smileSize).isLessThan(jsonSize / 2);
+    }
+
+    @Test
+    void smile_shouldBeMoreCompactThanJsonForStats() throws Exception {
+        List<ViewStatsDto> stats = StatsTestData.stats(100);
+
+        int smileSize = smileMapper.writeValueAsBytes(stats).length;
+        int jsonSize = jsonMapper.writeValueAsBytes(stats).length;
+
+        assertThat(smileSize).isLessThan(jsonSize);
+    }
+}
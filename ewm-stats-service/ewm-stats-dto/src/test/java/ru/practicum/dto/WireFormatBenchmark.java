@@ -0,0 +1,67 @@
+package ru.practicum.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON против Smile на пачке хитов и ответе /stats: время сериализации и разбора.
+ * Размер сообщений проверяется в {@link StatsWireFormatTest}.
+ * Запуск: mvn -pl ewm-stats-service/ewm-stats-dto -Pbenchmark test-compile exec:exec -Dbenchmark=WireFormat
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<EndpointHitDto>> HITS_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private List<EndpointHitDto> hits;
+    private List<ViewStatsDto> stats;
+    private byte[] hitsBytes;
+    private byte[] statsBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = "smile".equals(format)
+                ? StatsWireFormat.smileObjectMapper()
+                : Jackson2ObjectMapperBuilder.json().build();
+        hits = StatsTestData.hits(500);
+        stats = StatsTestData.stats(100);
+        hitsBytes = mapper.writeValueAsBytes(hits);
+        statsBytes = mapper.writeValueAsBytes(stats);
+    }
+
+    @Benchmark
+    public byte[] writeHits() throws IOException {
+        return mapper.writeValueAsBytes(hits);
+    }
+
+    @Benchmark
+    public List<EndpointHitDto> readHits() throws IOException {
+        return mapper.readValue(hitsBytes, HITS_TYPE);
+    }
+
+    @Benchmark
+    public byte[] writeStats() throws IOException {
+        return mapper.writeValueAsBytes(stats);
+    }
+
+    @Benchmark
+    public ViewStatsDto[] readStats() throws IOException {
+        return mapper.readValue(statsBytes, ViewStatsDto[].class);
+    }
+}
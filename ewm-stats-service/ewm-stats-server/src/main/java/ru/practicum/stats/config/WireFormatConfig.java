@@ -0,0 +1,21 @@
+package ru.practicum.stats.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.dto.StatsWireFormat;
+
+import java.util.List;
+
+/**
+ * Smile (application/x-jackson-smile) в дополнение к JSON: выбирается по Content-Type и Accept.
+ * Конвертер добавляется в конец списка, чтобы клиенты без явного Accept по-прежнему получали JSON.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(StatsWireFormat.smileConverter());
+    }
+}
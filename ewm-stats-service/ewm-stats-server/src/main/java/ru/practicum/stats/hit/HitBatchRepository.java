@@ -0,0 +1,36 @@
+package ru.practicum.stats.hit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Пакетная вставка хитов через JDBC batch, минуя persistence context и IDENTITY-вставки по одной строке.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO hits (app, uri, ip, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<EndpointHit> hits) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, hits, hits.size(), (ps, hit) -> {
+            ps.setString(1, hit.getApp());
+            ps.setString(2, hit.getUri());
+            ps.setString(3, hit.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+    }
+
+    /**
+     * Очистка всех хитов без построчного удаления (для секционированной таблицы — всех секций).
+     */
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE hits");
+    }
+}
@@ -1,21 +1,68 @@
 package ru.practicum.stats.hit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.HitBatchResultDto;
+import ru.practicum.dto.StatsWireFormat;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Slf4j
 @RestController
-@RequestMapping("/hit")
+@RequestMapping
 @RequiredArgsConstructor
 public class HitController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final HitService hitService;
+    private final ObjectMapper objectMapper;
 
-    @PostMapping
+    @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
     public void saveHit(@Valid @RequestBody EndpointHitDto hitDto) {
         hitService.save(hitDto);
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/hits/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, StatsWireFormat.APPLICATION_SMILE_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public HitBatchResultDto saveHits(@RequestBody List<EndpointHitDto> hits) {
+        return hitService.saveAll(hits.iterator());
+    }
+
+    /**
+     * Потоковый приём хитов: по одному JSON-объекту на строку. Строки читаются по мере поступления,
+     * нераспознанные строки учитываются как отклонённые.
+     */
+    @PostMapping(value = "/hits/batch", consumes = APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public HitBatchResultDto saveHitsStream(InputStream body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return hitService.saveAll(reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(this::parseHit)
+                    .iterator());
+        }
+    }
+
+    private EndpointHitDto parseHit(String line) {
+        try {
+            return objectMapper.readValue(line, EndpointHitDto.class);
+        } catch (IOException e) {
+            log.debug("Строка NDJSON не распознана: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.stats.hit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Обслуживание месячных секций таблицы hits в PostgreSQL: создание секций на текущий и ближайшие месяцы
+ * (при старте, до приёма хитов, и по расписанию) и отсоединение секций старше срока хранения.
+ * На других СУБД и для несекционированной таблицы ничего не делает.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HitPartitionManager implements SmartInitializingSingleton {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'hits_p'yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${stats.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${stats.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${stats.partitions.drop-detached:false}")
+    private boolean dropDetached;
+
+    private volatile boolean partitioned;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        partitioned = isPartitionedTable();
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${stats.partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        if (partitioned) {
+            maintainPartitions(YearMonth.now());
+        }
+    }
+
+    void maintainPartitions(YearMonth current) {
+        // Предыдущий месяц — для хитов, присланных с опозданием
+        for (YearMonth month = current.minusMonths(1); !month.isAfter(current.plusMonths(premakeMonths));
+             month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+        if (retentionMonths > 0) {
+            detachPartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String sql = "CREATE TABLE IF NOT EXISTS %s PARTITION OF hits FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted(month.format(PARTITION_NAME), month.atDay(1), month.plusMonths(1).atDay(1));
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            // Обычно это хиты за этот месяц, уже попавшие в hits_default
+            log.warn("Не удалось создать секцию hits за {}: {}", month, e.getMessage());
+        }
+    }
+
+    private void detachPartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass('hits')""", String.class);
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE hits DETACH PARTITION " + partition);
+            if (dropDetached) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Секция {} удалена по сроку хранения", partition);
+            } else {
+                log.info("Секция {} отсоединена по сроку хранения", partition);
+            }
+        }
+    }
+
+    private YearMonth parseMonth(String partition) {
+        try {
+            return YearMonth.parse(partition, PARTITION_NAME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private boolean isPartitionedTable() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return false;
+        }
+        List<String> kind = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('hits')", String.class);
+        if (!kind.equals(List.of("p"))) {
+            log.warn("Таблица hits не секционирована: создана до перехода на секции. "
+                    + "Для секционирования перенесите данные в новую таблицу из schema-postgresql.sql");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.stats.hit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.rollup.RollupGranularity;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Удаление устаревших строк ограниченными порциями, чтобы каждая транзакция держала блокировки недолго,
+ * и граница последнего прореживания.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitRetentionRepository {
+
+    private static final String DELETE_HITS_SQL = """
+            DELETE FROM hits WHERE id IN (
+                SELECT id FROM hits WHERE timestamp < ? LIMIT ?)""";
+
+    private static final String DELETE_ROLLUPS_SQL = """
+            DELETE FROM hit_rollups WHERE (granularity, uri, bucket_start, app) IN (
+                SELECT granularity, uri, bucket_start, app FROM hit_rollups
+                WHERE granularity = ? AND bucket_start < ? LIMIT ?)""";
+
+    private static final String DELETE_SKETCHES_SQL = """
+            DELETE FROM hit_sketches WHERE (granularity, uri, bucket_start, app) IN (
+                SELECT granularity, uri, bucket_start, app FROM hit_sketches
+                WHERE granularity = ? AND bucket_start < ? LIMIT ?)""";
+
+    private static final String FIND_COMPACTED_BEFORE_SQL = "SELECT compacted_before FROM hit_compaction WHERE id = 1";
+
+    private static final String INSERT_COMPACTED_BEFORE_SQL = """
+            INSERT INTO hit_compaction (id, compacted_before) VALUES (1, ?)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String ADVANCE_COMPACTED_BEFORE_SQL =
+            "UPDATE hit_compaction SET compacted_before = ? WHERE id = 1 AND compacted_before < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalDateTime findCompactedBefore() {
+        return jdbcTemplate.query(FIND_COMPACTED_BEFORE_SQL, (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime())
+                .stream().findFirst().orElse(null);
+    }
+
+    /**
+     * Сдвигает границу прореживания вперёд; более ранняя граница не записывается.
+     */
+    public void advanceCompactedBefore(LocalDateTime cutoff) {
+        Timestamp timestamp = Timestamp.valueOf(cutoff);
+        jdbcTemplate.update(INSERT_COMPACTED_BEFORE_SQL, timestamp);
+        jdbcTemplate.update(ADVANCE_COMPACTED_BEFORE_SQL, timestamp, timestamp);
+    }
+
+    public int deleteHitsBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_HITS_SQL, Timestamp.valueOf(cutoff), limit);
+    }
+
+    public int deleteRollupsBefore(RollupGranularity granularity, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_ROLLUPS_SQL, granularity.name(), Timestamp.valueOf(cutoff), limit);
+    }
+
+    public int deleteSketchesBefore(RollupGranularity granularity, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_SKETCHES_SQL, granularity.name(), Timestamp.valueOf(cutoff), limit);
+    }
+}
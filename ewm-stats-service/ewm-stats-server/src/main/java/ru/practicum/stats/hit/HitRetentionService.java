@@ -0,0 +1,78 @@
+package ru.practicum.stats.hit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats.rollup.RollupGranularity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Прореживание данных старше stats.retention.max-age.
+ * Итоги и скетчи уникальных IP уже накоплены в роллапах и скетчах при приёме хитов, поэтому до границы
+ * (начала суток) удаляются сырые хиты, поминутные роллапы и почасовые скетчи — остаются почасовые
+ * и суточные роллапы и суточные скетчи. Удаление идёт порциями по chunk-size строк, каждая в своей транзакции.
+ * Граница сохраняется в базе до удаления, и чтение по агрегатам опирается на неё, а не на текущее время.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HitRetentionService {
+
+    private final HitRetentionRepository hitRetentionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${stats.retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stats.retention.max-age:90d}")
+    private Duration maxAge;
+
+    @Value("${stats.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * Граница, до которой данные прорежены последним запуском, или null, если прореживания ещё не было.
+     */
+    public LocalDateTime getCompactedBefore() {
+        return hitRetentionRepository.findCompactedBefore();
+    }
+
+    @Scheduled(cron = "${stats.retention.cron:0 30 3 * * *}")
+    public void purge() {
+        if (enabled) {
+            purge(RollupGranularity.DAY.truncate(LocalDateTime.now().minus(maxAge)));
+        }
+    }
+
+    void purge(LocalDateTime cutoff) {
+        // Граница сдвигается до удаления: пока идёт удаление, чтение уже не опирается на сырые данные
+        transactionTemplate.executeWithoutResult(status -> hitRetentionRepository.advanceCompactedBefore(cutoff));
+        long rollups = deleteInChunks("stats.retention.compacted", "hit_rollups",
+                limit -> hitRetentionRepository.deleteRollupsBefore(RollupGranularity.MINUTE, cutoff, limit));
+        long sketches = deleteInChunks("stats.retention.compacted", "hit_sketches",
+                limit -> hitRetentionRepository.deleteSketchesBefore(RollupGranularity.HOUR, cutoff, limit));
+        long hits = deleteInChunks("stats.retention.reclaimed", "hits",
+                limit -> hitRetentionRepository.deleteHitsBefore(cutoff, limit));
+        log.info("Прореживание до {}: удалено хитов {}, поминутных роллапов {}, почасовых скетчей {}",
+                cutoff, hits, rollups, sketches);
+    }
+
+    private long deleteInChunks(String metric, String table, IntUnaryOperator deleteChunk) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteChunk.applyAsInt(chunkSize));
+            meterRegistry.counter(metric, "table", table).increment(deleted);
+            total += deleted;
+        } while (deleted == chunkSize);
+        return total;
+    }
+}
@@ -1,7 +1,16 @@
 package ru.practicum.stats.hit;
 
 import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.HitBatchResultDto;
+
+import java.util.Iterator;
 
 public interface HitService {
     void save(EndpointHitDto hitDto);
-}
\ No newline at end of file
+
+    /**
+     * Сохраняет пачку хитов в одной транзакции. Невалидные элементы (в том числе null) не сохраняются
+     * и учитываются как отклонённые.
+     */
+    HitBatchResultDto saveAll(Iterator<EndpointHitDto> hits);
+}
@@ -1,17 +1,71 @@
 package ru.practicum.stats.hit;
 
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.HitBatchResultDto;
+import ru.practicum.stats.rollup.HitRollupWriter;
+import ru.practicum.stats.rollup.HitSketchWriter;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class HitServiceImpl implements HitService {
 
+    private static final int JDBC_BATCH_SIZE = 1000;
+
     private final HitRepository hitRepository;
+    private final HitBatchRepository hitBatchRepository;
+    private final HitRollupWriter hitRollupWriter;
+    private final HitSketchWriter hitSketchWriter;
+    private final Validator validator;
 
     @Override
+    @Transactional
     public void save(EndpointHitDto hitDto) {
-        hitRepository.save(HitMapper.toEntity(hitDto));
+        EndpointHit hit = HitMapper.toEntity(hitDto);
+        hitRepository.save(hit);
+        hitRollupWriter.increment(List.of(hit));
+        hitSketchWriter.add(List.of(hit));
+    }
+
+    @Override
+    @Transactional
+    public HitBatchResultDto saveAll(Iterator<EndpointHitDto> hits) {
+        long accepted = 0;
+        long rejected = 0;
+        List<EndpointHit> chunk = new ArrayList<>(JDBC_BATCH_SIZE);
+
+        while (hits.hasNext()) {
+            EndpointHitDto hitDto = hits.next();
+            if (hitDto == null || !validator.validate(hitDto).isEmpty()) {
+                rejected++;
+                continue;
+            }
+            chunk.add(HitMapper.toEntity(hitDto));
+            if (chunk.size() == JDBC_BATCH_SIZE) {
+                hitBatchRepository.insertAll(chunk);
+                hitRollupWriter.increment(chunk);
+                hitSketchWriter.add(chunk);
+                accepted += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            hitBatchRepository.insertAll(chunk);
+            hitRollupWriter.increment(chunk);
+            hitSketchWriter.add(chunk);
+            accepted += chunk.size();
+        }
+
+        log.debug("Пачка хитов сохранена: принято {}, отклонено {}", accepted, rejected);
+        return new HitBatchResultDto(accepted, rejected);
     }
-}
\ No newline at end of file
+}
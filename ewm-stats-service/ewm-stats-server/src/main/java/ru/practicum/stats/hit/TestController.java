@@ -1,19 +1,27 @@
 package ru.practicum.stats.hit;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.stats.rollup.HitRollupRepository;
+import ru.practicum.stats.rollup.HitSketchRepository;
 
 @RestController
 @RequestMapping("/test")
 @RequiredArgsConstructor
 public class TestController {
 
-    private final HitRepository hitRepository;
+    private final HitBatchRepository hitBatchRepository;
+    private final HitRollupRepository hitRollupRepository;
+    private final HitSketchRepository hitSketchRepository;
 
     @DeleteMapping("/reset-hits")
+    @Transactional
     public void reset() {
-        hitRepository.deleteAll();
+        hitBatchRepository.truncate();
+        hitRollupRepository.deleteAllInBatch();
+        hitSketchRepository.deleteAllInBatch();
     }
 }
\ No newline at end of file
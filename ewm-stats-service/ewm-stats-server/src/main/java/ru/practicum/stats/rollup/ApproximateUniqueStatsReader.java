@@ -0,0 +1,70 @@
+package ru.practicum.stats.rollup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.stats.stats.StatsRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Приблизительное число уникальных IP: объединение суточных и почасовых скетчей,
+ * края интервала короче часа добавляются в скетч по сырым хитам. Ошибка оценки — см. {@link HyperLogLog}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApproximateUniqueStatsReader {
+
+    // После прореживания почасовые скетчи удаляются, суточные остаются
+    public static final List<RollupGranularity> RETAINED_AFTER_COMPACTION = List.of(RollupGranularity.DAY);
+
+    private final HitSketchRepository hitSketchRepository;
+    private final StatsRepository statsRepository;
+
+    /**
+     * @param compactedBefore граница прореживания старых данных или null, если оно выключено
+     */
+    @Transactional(readOnly = true)
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                       LocalDateTime compactedBefore) {
+        boolean noUriFilter = (uris == null || uris.isEmpty());
+        Map<AppUri, HyperLogLog> sketches = new HashMap<>();
+
+        List<RollupSegment> segments = RollupPlanner.plan(start, end, HitSketchWriter.GRANULARITIES,
+                compactedBefore, RETAINED_AFTER_COMPACTION);
+        for (RollupSegment segment : segments) {
+            if (segment.isRaw()) {
+                // Объединение идемпотентно, поэтому включённая правая граница не даёт двойного счёта
+                List<HitIpDto> ips = noUriFilter
+                        ? statsRepository.getDistinctIpsWithoutUriFilter(segment.from(), segment.to())
+                        : statsRepository.getDistinctIps(segment.from(), segment.to(), uris);
+                for (HitIpDto hitIp : ips) {
+                    sketchFor(sketches, hitIp.app(), hitIp.uri()).add(hitIp.ip());
+                }
+            } else {
+                List<HitSketch> stored = noUriFilter
+                        ? hitSketchRepository.findSketchesWithoutUriFilter(
+                                segment.granularity(), segment.from(), segment.to())
+                        : hitSketchRepository.findSketches(segment.granularity(), segment.from(), segment.to(), uris);
+                for (HitSketch sketch : stored) {
+                    sketchFor(sketches, sketch.getId().getApp(), sketch.getId().getUri())
+                            .merge(HyperLogLog.fromBytes(sketch.getRegisters()));
+                }
+            }
+        }
+
+        List<ViewStatsDto> result = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) -> result.add(new ViewStatsDto(key.app(), key.uri(), sketch.estimate())));
+        result.sort(Comparator.comparing(ViewStatsDto::getHits).reversed());
+        return result;
+    }
+
+    private HyperLogLog sketchFor(Map<AppUri, HyperLogLog> sketches, String app, String uri) {
+        return sketches.computeIfAbsent(new AppUri(app, uri), key -> new HyperLogLog());
+    }
+
+    private record AppUri(String app, String uri) {
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.stats.rollup;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Ключ строки роллапа или скетча. Упорядочение задаёт единый порядок блокировок строк для конкурентных транзакций.
+ */
+record BucketKey(RollupGranularity granularity, String app, String uri, LocalDateTime bucketStart) {
+
+    static final Comparator<BucketKey> ORDER = Comparator
+            .comparing(BucketKey::granularity)
+            .thenComparing(BucketKey::app)
+            .thenComparing(BucketKey::uri)
+            .thenComparing(BucketKey::bucketStart);
+
+    static BucketKey of(RollupGranularity granularity, String app, String uri, LocalDateTime timestamp) {
+        return new BucketKey(granularity, app, uri, granularity.truncate(timestamp));
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.stats.rollup;
+
+public record HitIpDto(String app, String uri, String ip) {
+}
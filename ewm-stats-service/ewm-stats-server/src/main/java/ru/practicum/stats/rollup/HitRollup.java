@@ -0,0 +1,22 @@
+package ru.practicum.stats.rollup;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Число хитов по (app, uri) в бакете времени заданной гранулярности.
+ * Пишется только через {@link HitRollupWriter}, сущность нужна для чтения и управления схемой.
+ */
+@Entity
+@Table(name = "hit_rollups")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HitRollup {
+
+    @EmbeddedId
+    private HitRollupId id;
+
+    private long hits;
+}
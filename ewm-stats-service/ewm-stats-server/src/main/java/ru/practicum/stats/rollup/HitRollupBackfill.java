@@ -0,0 +1,87 @@
+package ru.practicum.stats.rollup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Первичное заполнение роллапов и скетчей по хитам, накопленным до их появления.
+ * Выполняется до старта веб-сервера, поэтому новые хиты не могут попасть в роллапы дважды.
+ * Роллапы агрегируются на стороне БД одной транзакцией ({@code DATE_TRUNC} — функция PostgreSQL, есть и в H2):
+ * либо заполнены целиком, либо остаются пустыми и заполнение повторится при следующем запуске. Скетчи строятся потоковым чтением хитов
+ * и сбрасываются порциями: объединение скетчей идемпотентно, поэтому повтор безопасен.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HitRollupBackfill implements SmartInitializingSingleton {
+
+    private static final String BACKFILL_SQL = """
+            INSERT INTO hit_rollups (granularity, app, uri, bucket_start, hits)
+            SELECT '%s', app, uri, DATE_TRUNC('%s', timestamp), COUNT(*)
+            FROM hits
+            GROUP BY app, uri, DATE_TRUNC('%s', timestamp)""";
+
+    private static final int SKETCH_FLUSH_THRESHOLD = 1_000;
+    private static final int FETCH_SIZE = 10_000;
+
+    private final HitRollupRepository hitRollupRepository;
+    private final HitSketchRepository hitSketchRepository;
+    private final HitSketchWriter hitSketchWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (hitRollupRepository.count() == 0) {
+            backfillRollups();
+        }
+        if (hitSketchRepository.count() == 0) {
+            backfillSketches();
+        }
+    }
+
+    private void backfillRollups() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                String unit = granularity.name().toLowerCase(Locale.ROOT);
+                int rows = jdbcTemplate.update(BACKFILL_SQL.formatted(granularity.name(), unit, unit));
+                if (rows > 0) {
+                    log.info("Роллапы {} заполнены по накопленным хитам: {} строк", granularity, rows);
+                }
+            }
+        });
+    }
+
+    private void backfillSketches() {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(FETCH_SIZE);
+        Map<BucketKey, HyperLogLog> sketches = new TreeMap<>(BucketKey.ORDER);
+        long[] processed = {0};
+
+        // Транзакция нужна драйверу PostgreSQL для чтения курсором, а не целиком в память
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            streaming.query("SELECT app, uri, ip, timestamp FROM hits", rs -> {
+                HitSketchWriter.addHit(sketches, rs.getString("app"), rs.getString("uri"), rs.getString("ip"),
+                        rs.getTimestamp("timestamp").toLocalDateTime());
+                processed[0]++;
+                if (sketches.size() >= SKETCH_FLUSH_THRESHOLD) {
+                    hitSketchWriter.merge(sketches);
+                    sketches.clear();
+                }
+            });
+            hitSketchWriter.merge(sketches);
+        });
+        if (processed[0] > 0) {
+            log.info("Скетчи уникальных IP заполнены по накопленным хитам: {} хитов", processed[0]);
+        }
+    }
+}
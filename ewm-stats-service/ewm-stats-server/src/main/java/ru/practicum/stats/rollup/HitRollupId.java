@@ -0,0 +1,27 @@
+package ru.practicum.stats.rollup;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class HitRollupId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private RollupGranularity granularity;
+
+    private String app;
+
+    private String uri;
+
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.stats.rollup;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.dto.ViewStatsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HitRollupRepository extends JpaRepository<HitRollup, HitRollupId> {
+
+    // Сумма по бакетам [from, to) с фильтром по URI
+    @Query("""
+        SELECT new ru.practicum.dto.ViewStatsDto(r.id.app, r.id.uri, SUM(r.hits))
+        FROM HitRollup r
+        WHERE r.id.granularity = :granularity
+          AND r.id.bucketStart >= :from AND r.id.bucketStart < :to
+          AND r.id.uri IN :uris
+        GROUP BY r.id.app, r.id.uri
+        """)
+    List<ViewStatsDto> sumHits(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                               List<String> uris);
+
+    // Сумма по бакетам [from, to) без фильтра по URI
+    @Query("""
+        SELECT new ru.practicum.dto.ViewStatsDto(r.id.app, r.id.uri, SUM(r.hits))
+        FROM HitRollup r
+        WHERE r.id.granularity = :granularity
+          AND r.id.bucketStart >= :from AND r.id.bucketStart < :to
+        GROUP BY r.id.app, r.id.uri
+        """)
+    List<ViewStatsDto> sumHitsWithoutUriFilter(RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
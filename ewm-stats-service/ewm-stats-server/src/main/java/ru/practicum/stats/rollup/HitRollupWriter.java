@@ -0,0 +1,62 @@
+package ru.practicum.stats.rollup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.hit.EndpointHit;
+
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Инкрементальное обновление роллапов при поступлении хитов.
+ * Хиты пачки сначала агрегируются в памяти, затем для каждого затронутого бакета выполняются два пакетных
+ * запроса: вставка пустой строки, если её ещё нет ({@code ON CONFLICT DO NOTHING} — синтаксис PostgreSQL,
+ * в тестах его понимает H2 в режиме PostgreSQL), и прибавление дельты. Так не нужен анализ update count'ов,
+ * а гонка двух вставок одного бакета безопасна.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitRollupWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO hit_rollups (granularity, app, uri, bucket_start, hits)
+            VALUES (?, ?, ?, ?, 0)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String INCREMENT_SQL = """
+            UPDATE hit_rollups SET hits = hits + ?
+            WHERE granularity = ? AND app = ? AND uri = ? AND bucket_start = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void increment(Collection<EndpointHit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        Map<BucketKey, Long> deltas = new TreeMap<>(BucketKey.ORDER);
+        for (EndpointHit hit : hits) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                BucketKey key = BucketKey.of(granularity, hit.getApp(), hit.getUri(), hit.getTimestamp());
+                deltas.merge(key, 1L, Long::sum);
+            }
+        }
+        List<Map.Entry<BucketKey, Long>> entries = new ArrayList<>(deltas.entrySet());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            BucketKey key = entry.getKey();
+            ps.setString(1, key.granularity().name());
+            ps.setString(2, key.app());
+            ps.setString(3, key.uri());
+            ps.setTimestamp(4, Timestamp.valueOf(key.bucketStart()));
+        });
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, entries, entries.size(), (ps, entry) -> {
+            BucketKey key = entry.getKey();
+            ps.setLong(1, entry.getValue());
+            ps.setString(2, key.granularity().name());
+            ps.setString(3, key.app());
+            ps.setString(4, key.uri());
+            ps.setTimestamp(5, Timestamp.valueOf(key.bucketStart()));
+        });
+    }
+}
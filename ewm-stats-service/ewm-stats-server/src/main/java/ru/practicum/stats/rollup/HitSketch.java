@@ -0,0 +1,23 @@
+package ru.practicum.stats.rollup;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * HyperLogLog-скетч IP-адресов по (app, uri) в бакете времени.
+ * Пишется только через {@link HitSketchWriter}, сущность нужна для чтения и управления схемой.
+ */
+@Entity
+@Table(name = "hit_sketches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HitSketch {
+
+    @EmbeddedId
+    private HitRollupId id;
+
+    @Column(nullable = false, length = HyperLogLog.REGISTER_COUNT)
+    private byte[] registers;
+}
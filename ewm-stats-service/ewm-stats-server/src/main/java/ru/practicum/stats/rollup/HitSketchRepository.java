@@ -0,0 +1,30 @@
+package ru.practicum.stats.rollup;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HitSketchRepository extends JpaRepository<HitSketch, HitRollupId> {
+
+    // Скетчи бакетов [from, to) с фильтром по URI
+    @Query("""
+        SELECT s FROM HitSketch s
+        WHERE s.id.granularity = :granularity
+          AND s.id.bucketStart >= :from AND s.id.bucketStart < :to
+          AND s.id.uri IN :uris
+        """)
+    List<HitSketch> findSketches(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                 List<String> uris);
+
+    // Скетчи бакетов [from, to) без фильтра по URI
+    @Query("""
+        SELECT s FROM HitSketch s
+        WHERE s.id.granularity = :granularity
+          AND s.id.bucketStart >= :from AND s.id.bucketStart < :to
+        """)
+    List<HitSketch> findSketchesWithoutUriFilter(RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
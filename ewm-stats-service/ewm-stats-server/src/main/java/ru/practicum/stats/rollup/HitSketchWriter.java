@@ -0,0 +1,182 @@
+package ru.practicum.stats.rollup;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats.hit.EndpointHit;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Инкрементальное обновление скетчей уникальных IP (почасовых и суточных).
+ * <p>
+ * При приёме хитов скетчи только обновляются в памяти; раз в {@code stats.sketches.flush-interval} накопленное
+ * объединяется с сохранёнными под блокировкой строк порциями по {@value #FLUSH_CHUNK} бакетов, каждая в своей
+ * транзакции. Строка перезаписывается, только если изменился хотя бы один регистр. Объединение идемпотентно:
+ * хиты, повторно присланные после отката, скетч не меняют. Приблизительная статистика видит новые хиты с
+ * задержкой до интервала сброса; при аварийной остановке несброшенные скетчи теряются.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class HitSketchWriter {
+
+    public static final List<RollupGranularity> GRANULARITIES =
+            List.of(RollupGranularity.DAY, RollupGranularity.HOUR);
+
+    static final int FLUSH_CHUNK = 1_000;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO hit_sketches (granularity, app, uri, bucket_start, registers)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String SELECT_FOR_UPDATE_SQL = """
+            SELECT registers FROM hit_sketches
+            WHERE granularity = ? AND app = ? AND uri = ? AND bucket_start = ?
+            FOR UPDATE""";
+
+    private static final String UPDATE_SQL = """
+            UPDATE hit_sketches SET registers = ?
+            WHERE granularity = ? AND app = ? AND uri = ? AND bucket_start = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stats.sketches.flush-interval:5s}")
+    private Duration flushInterval;
+
+    private Map<BucketKey, HyperLogLog> pending = new TreeMap<>(BucketKey.ORDER);
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void init() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hit-sketch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    public void add(Collection<EndpointHit> hits) {
+        synchronized (this) {
+            for (EndpointHit hit : hits) {
+                addHit(pending, hit.getApp(), hit.getUri(), hit.getIp(), hit.getTimestamp());
+            }
+        }
+    }
+
+    /**
+     * Записывает накопленные скетчи. Порция, которую не удалось записать, возвращается в очередь
+     * и будет записана при следующем сбросе.
+     */
+    public void flush() {
+        Map<BucketKey, HyperLogLog> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new TreeMap<>(BucketKey.ORDER);
+        }
+        Map<BucketKey, HyperLogLog> chunk = new TreeMap<>(BucketKey.ORDER);
+        for (Map.Entry<BucketKey, HyperLogLog> entry : batch.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() == FLUSH_CHUNK) {
+                flushChunk(chunk);
+                chunk = new TreeMap<>(BucketKey.ORDER);
+            }
+        }
+        flushChunk(chunk);
+    }
+
+    private void flushChunk(Map<BucketKey, HyperLogLog> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> merge(chunk));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось записать скетчи уникальных IP ({} бакетов): {}", chunk.size(), e.getMessage());
+            synchronized (this) {
+                chunk.forEach((key, sketch) -> pending.merge(key, sketch, (queued, failed) -> {
+                    queued.merge(failed);
+                    return queued;
+                }));
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка записи скетчей уникальных IP: {}", e.getMessage());
+        }
+    }
+
+    static void addHit(Map<BucketKey, HyperLogLog> sketches, String app, String uri, String ip,
+                       LocalDateTime timestamp) {
+        for (RollupGranularity granularity : GRANULARITIES) {
+            sketches.computeIfAbsent(BucketKey.of(granularity, app, uri, timestamp), key -> new HyperLogLog())
+                    .add(ip);
+        }
+    }
+
+    /**
+     * Объединяет скетчи с сохранёнными. Ключи должны быть упорядочены по {@link BucketKey#ORDER}.
+     */
+    void merge(Map<BucketKey, HyperLogLog> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        List<BucketKey> keys = new ArrayList<>(sketches.keySet());
+        byte[] empty = new HyperLogLog().toBytes();
+        jdbcTemplate.batchUpdate(INSERT_SQL, keys, keys.size(), (ps, key) -> {
+            setKey(ps, 1, key);
+            ps.setBytes(5, empty);
+        });
+
+        List<Map.Entry<BucketKey, byte[]>> changed = new ArrayList<>();
+        for (BucketKey key : keys) {
+            byte[] stored = jdbcTemplate.queryForObject(SELECT_FOR_UPDATE_SQL, byte[].class,
+                    key.granularity().name(), key.app(), key.uri(), Timestamp.valueOf(key.bucketStart()));
+            HyperLogLog merged = HyperLogLog.fromBytes(stored);
+            if (merged.merge(sketches.get(key))) {
+                changed.add(Map.entry(key, merged.toBytes()));
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, changed, changed.size(), (ps, entry) -> {
+            ps.setBytes(1, entry.getValue());
+            setKey(ps, 2, entry.getKey());
+        });
+    }
+
+    private static void setKey(PreparedStatement ps, int index, BucketKey key) throws SQLException {
+        ps.setString(index, key.granularity().name());
+        ps.setString(index + 1, key.app());
+        ps.setString(index + 2, key.uri());
+        ps.setTimestamp(index + 3, Timestamp.valueOf(key.bucketStart()));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.stats.rollup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Начало бакета, в который попадает момент времени.
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+
+    /**
+     * Ближайшая граница бакета, не раньше указанного момента.
+     */
+    public LocalDateTime ceil(LocalDateTime dateTime) {
+        LocalDateTime truncated = truncate(dateTime);
+        return truncated.equals(dateTime) ? dateTime : truncated.plus(1, unit);
+    }
+
+    /**
+     * Конец бакета, в который попадает момент времени.
+     */
+    public LocalDateTime bucketEnd(LocalDateTime dateTime) {
+        return truncate(dateTime).plus(1, unit);
+    }
+}
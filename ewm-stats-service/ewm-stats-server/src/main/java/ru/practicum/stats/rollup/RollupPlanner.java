@@ -0,0 +1,71 @@
+package ru.practicum.stats.rollup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбивает интервал [start, end] на полностью покрытые бакеты максимальной гранулярности
+ * и сырые «хвосты» по краям, которые короче самого мелкого бакета.
+ */
+public final class RollupPlanner {
+
+    public static final List<RollupGranularity> ALL = List.of(
+            RollupGranularity.DAY, RollupGranularity.HOUR, RollupGranularity.MINUTE);
+
+    private RollupPlanner() {
+    }
+
+    public static List<RollupSegment> plan(LocalDateTime start, LocalDateTime end) {
+        return plan(start, end, ALL);
+    }
+
+    /**
+     * @param granularities доступные гранулярности, от крупной к мелкой
+     */
+    public static List<RollupSegment> plan(LocalDateTime start, LocalDateTime end,
+                                           List<RollupGranularity> granularities) {
+        List<RollupSegment> segments = new ArrayList<>();
+        split(start, end, true, granularities, segments);
+        return segments;
+    }
+
+    /**
+     * План для интервала, часть которого до compactedBefore (граница суток) уже прорежена:
+     * там остались только бакеты retained-гранулярностей, а сырые хиты и мелкие бакеты удалены.
+     * Края прореженной части расширяются до границ самого мелкого из retained бакетов, в которые они попадают.
+     */
+    public static List<RollupSegment> plan(LocalDateTime start, LocalDateTime end,
+                                           List<RollupGranularity> granularities,
+                                           LocalDateTime compactedBefore, List<RollupGranularity> retained) {
+        if (compactedBefore == null || !start.isBefore(compactedBefore)) {
+            return plan(start, end, granularities);
+        }
+        RollupGranularity finest = retained.getLast();
+        LocalDateTime compactedEnd = end.isBefore(compactedBefore) ? finest.bucketEnd(end) : compactedBefore;
+        List<RollupSegment> segments = new ArrayList<>();
+        split(finest.truncate(start), compactedEnd, false, retained, segments);
+        if (!end.isBefore(compactedBefore)) {
+            segments.addAll(plan(compactedBefore, end, granularities));
+        }
+        return segments;
+    }
+
+    private static void split(LocalDateTime from, LocalDateTime to, boolean toInclusive,
+                              List<RollupGranularity> granularities, List<RollupSegment> out) {
+        if (from.isAfter(to) || (from.equals(to) && !toInclusive)) {
+            return;
+        }
+        for (RollupGranularity granularity : granularities) {
+            LocalDateTime firstBucket = granularity.ceil(from);
+            LocalDateTime bucketsEnd = granularity.truncate(to);
+            if (firstBucket.isBefore(bucketsEnd)) {
+                split(from, firstBucket, false, granularities, out);
+                out.add(RollupSegment.rollup(granularity, firstBucket, bucketsEnd));
+                split(bucketsEnd, to, toInclusive, granularities, out);
+                return;
+            }
+        }
+        out.add(RollupSegment.raw(from, to, toInclusive));
+    }
+}
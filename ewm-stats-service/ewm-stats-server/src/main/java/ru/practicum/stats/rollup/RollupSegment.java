@@ -0,0 +1,23 @@
+package ru.practicum.stats.rollup;
+
+import java.time.LocalDateTime;
+
+/**
+ * Часть запрошенного интервала. Для роллапов — бакеты с началом в [from, to),
+ * для сырых хитов (granularity == null) — хиты в [from, to) или [from, to].
+ */
+public record RollupSegment(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                            boolean toInclusive) {
+
+    public static RollupSegment rollup(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return new RollupSegment(granularity, from, to, false);
+    }
+
+    public static RollupSegment raw(LocalDateTime from, LocalDateTime to, boolean toInclusive) {
+        return new RollupSegment(null, from, to, toInclusive);
+    }
+
+    public boolean isRaw() {
+        return granularity == null;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.stats.rollup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.stats.stats.StatsRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Неуникальная статистика из роллапов: полные бакеты берутся из hit_rollups,
+ * края интервала короче минуты досчитываются по сырым хитам.
+ */
+@Component
+@RequiredArgsConstructor
+public class RollupStatsReader {
+
+    // После прореживания поминутные роллапы удаляются, почасовые и суточные остаются
+    public static final List<RollupGranularity> RETAINED_AFTER_COMPACTION =
+            List.of(RollupGranularity.DAY, RollupGranularity.HOUR);
+
+    private final HitRollupRepository hitRollupRepository;
+    private final StatsRepository statsRepository;
+
+    /**
+     * @param compactedBefore граница прореживания старых данных или null, если оно выключено
+     */
+    @Transactional(readOnly = true)
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                       LocalDateTime compactedBefore) {
+        boolean noUriFilter = (uris == null || uris.isEmpty());
+        Map<AppUri, Long> totals = new HashMap<>();
+
+        List<RollupSegment> segments = RollupPlanner.plan(start, end, RollupPlanner.ALL,
+                compactedBefore, RETAINED_AFTER_COMPACTION);
+        for (RollupSegment segment : segments) {
+            for (ViewStatsDto stats : query(segment, uris, noUriFilter)) {
+                totals.merge(new AppUri(stats.getApp(), stats.getUri()), stats.getHits(), Long::sum);
+            }
+        }
+
+        List<ViewStatsDto> result = new ArrayList<>(totals.size());
+        totals.forEach((key, hits) -> result.add(new ViewStatsDto(key.app(), key.uri(), hits)));
+        result.sort(Comparator.comparing(ViewStatsDto::getHits).reversed());
+        return result;
+    }
+
+    private List<ViewStatsDto> query(RollupSegment segment, List<String> uris, boolean noUriFilter) {
+        if (!segment.isRaw()) {
+            return noUriFilter
+                    ? hitRollupRepository.sumHitsWithoutUriFilter(segment.granularity(), segment.from(), segment.to())
+                    : hitRollupRepository.sumHits(segment.granularity(), segment.from(), segment.to(), uris);
+        }
+        if (segment.toInclusive()) {
+            return noUriFilter
+                    ? statsRepository.getStatsWithoutUriFilter(segment.from(), segment.to())
+                    : statsRepository.getStats(segment.from(), segment.to(), uris);
+        }
+        return noUriFilter
+                ? statsRepository.getStatsInRangeWithoutUriFilter(segment.from(), segment.to())
+                : statsRepository.getStatsInRange(segment.from(), segment.to(), uris);
+    }
+
+    private record AppUri(String app, String uri) {
+    }
+}
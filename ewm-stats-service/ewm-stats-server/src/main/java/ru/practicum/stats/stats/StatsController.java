@@ -3,6 +3,7 @@ package ru.practicum.stats.stats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -18,10 +19,15 @@ import java.util.List;
 @RequestMapping
 public class StatsController {
 
+    /**
+     * Заголовок ответа: число уникальных IP оценено по скетчам, а не посчитано точно.
+     */
+    public static final String APPROXIMATE_HEADER = "X-Stats-Approximate";
+
     private final StatsService statsService;
 
     @GetMapping("/stats")
-    public List<ViewStatsDto> getStats(
+    public ResponseEntity<List<ViewStatsDto>> getStats(
             @RequestParam("start")
             @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
 
@@ -30,13 +36,23 @@ public class StatsController {
 
             @RequestParam(value = "uris", required = false) List<String> uris,
 
-            @RequestParam(value = "unique", defaultValue = "false") boolean unique
+            @RequestParam(value = "unique", defaultValue = "false") boolean unique,
+
+            @RequestParam(value = "approximate", defaultValue = "false") boolean approximate
     ) {
         if (start.isAfter(end)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Дата начала не может быть позже даты окончания");
         }
 
-        return statsService.getStats(start, end, uris, unique);
+        if (unique && approximate) {
+            return approximate(statsService.getApproximateUniqueStats(start, end, uris));
+        }
+        List<ViewStatsDto> stats = statsService.getStats(start, end, uris, unique);
+        return unique && statsService.isCompacted(start) ? approximate(stats) : ResponseEntity.ok(stats);
+    }
+
+    private static ResponseEntity<List<ViewStatsDto>> approximate(List<ViewStatsDto> stats) {
+        return ResponseEntity.ok().header(APPROXIMATE_HEADER, "true").body(stats);
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.dto.ViewStatsDto;
 import ru.practicum.stats.hit.EndpointHit;
+import ru.practicum.stats.rollup.HitIpDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -53,4 +54,40 @@ public interface StatsRepository extends JpaRepository<EndpointHit, Long> {
         ORDER BY COUNT(DISTINCT e.ip) DESC
         """)
     List<ViewStatsDto> getStatsUniqueWithoutUriFilter(LocalDateTime start, LocalDateTime end);
+
+    // Полуинтервал [start, end) с фильтром по URI — для краёв интервала при чтении роллапов
+    @Query("""
+        SELECT new ru.practicum.dto.ViewStatsDto(e.app, e.uri, COUNT(e))
+        FROM EndpointHit e
+        WHERE e.timestamp >= :start AND e.timestamp < :end
+          AND e.uri IN :uris
+        GROUP BY e.app, e.uri
+        """)
+    List<ViewStatsDto> getStatsInRange(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    // Полуинтервал [start, end) без фильтра по URI
+    @Query("""
+        SELECT new ru.practicum.dto.ViewStatsDto(e.app, e.uri, COUNT(e))
+        FROM EndpointHit e
+        WHERE e.timestamp >= :start AND e.timestamp < :end
+        GROUP BY e.app, e.uri
+        """)
+    List<ViewStatsDto> getStatsInRangeWithoutUriFilter(LocalDateTime start, LocalDateTime end);
+
+    // Уникальные IP с фильтром по URI — для краёв интервала при чтении скетчей
+    @Query("""
+        SELECT DISTINCT new ru.practicum.stats.rollup.HitIpDto(e.app, e.uri, e.ip)
+        FROM EndpointHit e
+        WHERE e.timestamp BETWEEN :start AND :end
+          AND e.uri IN :uris
+        """)
+    List<HitIpDto> getDistinctIps(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    // Уникальные IP без фильтра по URI
+    @Query("""
+        SELECT DISTINCT new ru.practicum.stats.rollup.HitIpDto(e.app, e.uri, e.ip)
+        FROM EndpointHit e
+        WHERE e.timestamp BETWEEN :start AND :end
+        """)
+    List<HitIpDto> getDistinctIpsWithoutUriFilter(LocalDateTime start, LocalDateTime end);
 }
\ No newline at end of file
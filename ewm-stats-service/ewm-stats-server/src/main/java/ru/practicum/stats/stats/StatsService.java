@@ -5,5 +5,19 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 public interface StatsService {
+    /**
+     * Статистика за интервал. Уникальные IP считаются точно по сырым хитам, а если интервал задевает
+     * прореженный период — приблизительно, как в {@link #getApproximateUniqueStats}.
+     */
     List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique);
+
+    /**
+     * Начинается ли интервал в прореженном периоде, где сырых хитов уже нет.
+     */
+    boolean isCompacted(LocalDateTime start);
+
+    /**
+     * Приблизительное число уникальных IP по HyperLogLog-скетчам.
+     */
+    List<ViewStatsDto> getApproximateUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris);
 }
\ No newline at end of file
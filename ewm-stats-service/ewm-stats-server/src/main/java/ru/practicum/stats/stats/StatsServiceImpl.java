@@ -1,8 +1,12 @@
 package ru.practicum.stats.stats;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.stats.hit.HitRetentionService;
+import ru.practicum.stats.rollup.ApproximateUniqueStatsReader;
+import ru.practicum.stats.rollup.RollupStatsReader;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,20 +16,49 @@ import java.util.List;
 public class StatsServiceImpl implements StatsService {
 
     private final StatsRepository statsRepository;
+    private final RollupStatsReader rollupStatsReader;
+    private final ApproximateUniqueStatsReader approximateUniqueStatsReader;
+    private final HitRetentionService hitRetentionService;
 
+    @Value("${stats.rollup.enabled:true}")
+    private boolean rollupEnabled;
 
     @Override
     public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
         boolean noUriFilter = (uris == null || uris.isEmpty());
+        LocalDateTime compactedBefore = hitRetentionService.getCompactedBefore();
+        // Сырых хитов до границы прореживания уже нет — считаем по агрегатам
+        boolean touchesCompacted = touchesCompacted(start, compactedBefore);
 
         if (unique) {
+            if (touchesCompacted) {
+                // Точно посчитать уникальные IP прореженного периода нельзя — оценка по суточным скетчам
+                return approximateUniqueStatsReader.getStats(start, end, uris, compactedBefore);
+            }
             return noUriFilter
                     ? statsRepository.getStatsUniqueWithoutUriFilter(start, end)
                     : statsRepository.getStatsUnique(start, end, uris);
+        }
+        if (rollupEnabled || touchesCompacted) {
+            return rollupStatsReader.getStats(start, end, uris, compactedBefore);
         } else {
             return noUriFilter
                     ? statsRepository.getStatsWithoutUriFilter(start, end)
                     : statsRepository.getStats(start, end, uris);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isCompacted(LocalDateTime start) {
+        return touchesCompacted(start, hitRetentionService.getCompactedBefore());
+    }
+
+    @Override
+    public List<ViewStatsDto> getApproximateUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return approximateUniqueStatsReader.getStats(start, end, uris, hitRetentionService.getCompactedBefore());
+    }
+
+    private static boolean touchesCompacted(LocalDateTime start, LocalDateTime compactedBefore) {
+        return compactedBefore != null && start.isBefore(compactedBefore);
+    }
+}
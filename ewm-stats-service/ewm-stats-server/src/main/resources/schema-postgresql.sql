@@ -0,0 +1,12 @@
+-- Хиты секционируются по месяцам; секции на ближайшие месяцы создаёт HitPartitionManager,
+-- хиты вне созданных секций попадают в hits_default.
+CREATE TABLE IF NOT EXISTS hits (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    app VARCHAR NOT NULL,
+    uri VARCHAR NOT NULL,
+    ip VARCHAR NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    CONSTRAINT pk_hits PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS hits_default PARTITION OF hits DEFAULT;
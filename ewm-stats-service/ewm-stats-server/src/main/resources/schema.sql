@@ -3,5 +3,37 @@ CREATE TABLE IF NOT EXISTS hits (
     app VARCHAR NOT NULL,
     uri VARCHAR NOT NULL,
     ip VARCHAR NOT NULL,
-    timestamp TIMESTAMP NOT NULL
-);
\ No newline at end of file
+    timestamp TIMESTAMP NOT NULL,
+    CONSTRAINT pk_hits PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_hits_uri_timestamp ON hits (uri, timestamp);
+CREATE INDEX IF NOT EXISTS idx_hits_timestamp ON hits (timestamp);
+
+CREATE TABLE IF NOT EXISTS hit_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    app VARCHAR NOT NULL,
+    uri VARCHAR NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    hits BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, uri, bucket_start, app)
+);
+
+CREATE INDEX IF NOT EXISTS idx_hit_rollups_bucket ON hit_rollups (granularity, bucket_start);
+
+CREATE TABLE IF NOT EXISTS hit_sketches (
+    granularity VARCHAR(8) NOT NULL,
+    app VARCHAR NOT NULL,
+    uri VARCHAR NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    registers BYTEA NOT NULL,
+    PRIMARY KEY (granularity, uri, bucket_start, app)
+);
+
+CREATE INDEX IF NOT EXISTS idx_hit_sketches_bucket ON hit_sketches (granularity, bucket_start);
+
+-- Граница последнего прореживания (одна строка): до неё остались только почасовые и суточные агрегаты
+CREATE TABLE IF NOT EXISTS hit_compaction (
+    id INT NOT NULL PRIMARY KEY,
+    compacted_before TIMESTAMP NOT NULL
+);
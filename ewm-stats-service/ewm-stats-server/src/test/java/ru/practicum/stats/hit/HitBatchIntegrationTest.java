@@ -0,0 +1,131 @@
+package ru.practicum.stats.hit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.HitBatchResultDto;
+import ru.practicum.dto.StatsWireFormat;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.stats.StatsServerApplication;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = StatsServerApplication.class
+)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class HitBatchIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Test
+    void postHitsBatch_shouldPersistValidHitsAndReportRejected() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EndpointHitDto> hits = List.of(
+                new EndpointHitDto("app1", "/batch/1", "10.0.0.1", now.minusMinutes(3)),
+                new EndpointHitDto("app1", "/batch/1", "10.0.0.2", now.minusMinutes(2)),
+                new EndpointHitDto("app1", "/batch/2", "10.0.0.1", now.minusMinutes(1)),
+                new EndpointHitDto("app1", null, "10.0.0.3", now)
+        );
+
+        ResponseEntity<HitBatchResultDto> response = restTemplate.postForEntity(
+                "/hits/batch", hits, HitBatchResultDto.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().getAccepted()).isEqualTo(3);
+        assertThat(response.getBody().getRejected()).isEqualTo(1);
+
+        List<ViewStatsDto> stats = getStats(now, "/batch/1", "/batch/2");
+        assertThat(stats).extracting(ViewStatsDto::getUri, ViewStatsDto::getHits)
+                .containsExactly(
+                        tuple("/batch/1", 2L),
+                        tuple("/batch/2", 1L));
+    }
+
+    @Test
+    void postHitsBatch_shouldAcceptNdjsonStream() {
+        LocalDateTime now = LocalDateTime.now();
+        String body = String.join("\n",
+                "{\"app\":\"app1\",\"uri\":\"/ndjson/1\",\"ip\":\"10.0.0.1\",\"timestamp\":\""
+                        + now.minusMinutes(1).format(formatter) + "\"}",
+                "{broken",
+                "{\"app\":\"app1\",\"uri\":\"/ndjson/1\",\"ip\":\"10.0.0.2\",\"timestamp\":\""
+                        + now.format(formatter) + "\"}");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(HitController.APPLICATION_NDJSON_VALUE));
+
+        ResponseEntity<HitBatchResultDto> response = restTemplate.postForEntity(
+                "/hits/batch", new HttpEntity<>(body, headers), HitBatchResultDto.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody().getAccepted()).isEqualTo(2);
+        assertThat(response.getBody().getRejected()).isEqualTo(1);
+        assertThat(getStats(now, "/ndjson/1")).singleElement()
+                .extracting(ViewStatsDto::getHits).isEqualTo(2L);
+    }
+
+    @Test
+    void smileWireFormat_shouldBeNegotiatedForBatchAndStats() throws Exception {
+        ObjectMapper smileMapper = StatsWireFormat.smileObjectMapper();
+        LocalDateTime now = LocalDateTime.now();
+        List<EndpointHitDto> hits = List.of(
+                new EndpointHitDto("app1", "/smile/1", "10.0.0.1", now.minusMinutes(2)),
+                new EndpointHitDto("app1", "/smile/1", "10.0.0.2", now.minusMinutes(1)));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(StatsWireFormat.APPLICATION_SMILE);
+        headers.setAccept(List.of(StatsWireFormat.APPLICATION_SMILE));
+
+        ResponseEntity<byte[]> saved = restTemplate.postForEntity("/hits/batch",
+                new HttpEntity<>(smileMapper.writeValueAsBytes(hits), headers), byte[].class);
+
+        assertThat(saved.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(saved.getHeaders().getContentType()).isEqualTo(StatsWireFormat.APPLICATION_SMILE);
+        assertThat(smileMapper.readValue(saved.getBody(), HitBatchResultDto.class).getAccepted()).isEqualTo(2);
+
+        String url = String.format("/stats?start=%s&end=%s&uris=/smile/1",
+                now.minusDays(1).format(formatter), now.plusDays(1).format(formatter));
+        ResponseEntity<byte[]> stats = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+
+        assertThat(stats.getHeaders().getContentType()).isEqualTo(StatsWireFormat.APPLICATION_SMILE);
+        assertThat(smileMapper.readValue(stats.getBody(), ViewStatsDto[].class)).singleElement()
+                .extracting(ViewStatsDto::getHits).isEqualTo(2L);
+    }
+
+    @Test
+    void getStats_withoutAccept_shouldStillReturnJson() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/stats?start=2025-01-01 00:00:00&end=2025-01-02 00:00:00", String.class);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    private List<ViewStatsDto> getStats(LocalDateTime now, String... uris) {
+        String url = String.format("/stats?start=%s&end=%s&uris=%s",
+                now.minusDays(1).format(formatter),
+                now.plusDays(1).format(formatter),
+                String.join(",", uris));
+        return List.of(restTemplate.getForObject(url, ViewStatsDto[].class));
+    }
+}
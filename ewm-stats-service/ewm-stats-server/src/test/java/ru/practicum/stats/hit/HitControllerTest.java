@@ -9,7 +9,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.HitBatchResultDto;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -18,6 +20,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 @WebMvcTest(HitController.class)
 @ContextConfiguration(classes = {HitController.class, HitServiceImpl.class})
@@ -65,4 +70,47 @@ class HitControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(emptyOrNullString())); // Проверяем пустой ответ
     }
-}
\ No newline at end of file
+
+    @Test
+    void postHitsBatch_shouldAcceptJsonArray() throws Exception {
+        List<EndpointHitDto> hits = List.of(
+                new EndpointHitDto("main-service", "/events/1", "192.168.0.1", LocalDateTime.now()),
+                new EndpointHitDto("main-service", "/events/2", "192.168.0.2", LocalDateTime.now())
+        );
+        when(hitService.saveAll(any())).thenReturn(new HitBatchResultDto(2, 0));
+
+        mockMvc.perform(post("/hits/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hits)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    @Test
+    void postHitsBatch_shouldParseNdjsonLineByLine() throws Exception {
+        List<EndpointHitDto> received = new ArrayList<>();
+        when(hitService.saveAll(any())).thenAnswer(invocation -> {
+            Iterator<EndpointHitDto> it = invocation.getArgument(0);
+            it.forEachRemaining(received::add);
+            return new HitBatchResultDto(0, 0);
+        });
+
+        String body = """
+                {"app":"main-service","uri":"/events/1","ip":"10.0.0.1","timestamp":"2025-07-11 13:00:00"}
+
+                not a json
+                {"app":"main-service","uri":"/events/2","ip":"10.0.0.2","timestamp":"2025-07-11 13:00:01"}
+                """;
+
+        mockMvc.perform(post("/hits/batch")
+                        .contentType(HitController.APPLICATION_NDJSON_VALUE)
+                        .content(body))
+                .andExpect(status().isCreated());
+
+        assertThat(received).hasSize(3);
+        assertThat(received.get(0).getUri()).isEqualTo("/events/1");
+        assertThat(received.get(1)).isNull();
+        assertThat(received.get(2).getUri()).isEqualTo("/events/2");
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.stats.hit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HitPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private HitPartitionManager hitPartitionManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(hitPartitionManager, "premakeMonths", 2);
+    }
+
+    @Test
+    void maintainPartitions_shouldCreatePreviousCurrentAndFutureMonths() {
+        hitPartitionManager.maintainPartitions(YearMonth.of(2025, 12));
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS hits_p2025_11 PARTITION OF hits "
+                + "FOR VALUES FROM ('2025-11-01') TO ('2025-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS hits_p2025_12 PARTITION OF hits "
+                + "FOR VALUES FROM ('2025-12-01') TO ('2026-01-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS hits_p2026_01 PARTITION OF hits "
+                + "FOR VALUES FROM ('2026-01-01') TO ('2026-02-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS hits_p2026_02 PARTITION OF hits "
+                + "FOR VALUES FROM ('2026-02-01') TO ('2026-03-01')");
+        verify(jdbcTemplate, times(4)).execute(anyString());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    void maintainPartitions_shouldContinueWhenPartitionCannotBeCreated() {
+        doThrow(new DataIntegrityViolationException("default partition contains rows"))
+                .when(jdbcTemplate).execute(contains("hits_p2025_11"));
+
+        hitPartitionManager.maintainPartitions(YearMonth.of(2025, 12));
+
+        verify(jdbcTemplate).execute(contains("hits_p2026_02"));
+    }
+
+    @Test
+    void maintainPartitions_shouldDetachPartitionsOlderThanRetention() {
+        ReflectionTestUtils.setField(hitPartitionManager, "retentionMonths", 6);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("hits_default", "hits_p2025_05", "hits_p2025_06", "hits_p2025_07"));
+
+        hitPartitionManager.maintainPartitions(YearMonth.of(2025, 12));
+
+        verify(jdbcTemplate).execute("ALTER TABLE hits DETACH PARTITION hits_p2025_05");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE hits DETACH PARTITION hits_p2025_06");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE hits DETACH PARTITION hits_default");
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    void maintainPartitions_shouldDropDetachedPartitionsWhenConfigured() {
+        ReflectionTestUtils.setField(hitPartitionManager, "retentionMonths", 6);
+        ReflectionTestUtils.setField(hitPartitionManager, "dropDetached", true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("hits_p2025_01"));
+
+        hitPartitionManager.maintainPartitions(YearMonth.of(2025, 12));
+
+        verify(jdbcTemplate).execute("ALTER TABLE hits DETACH PARTITION hits_p2025_01");
+        verify(jdbcTemplate).execute("DROP TABLE hits_p2025_01");
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.stats.hit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.stats.rollup.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "stats.sketches.flush-interval=1h")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({HitRetentionRepository.class, HitRollupWriter.class, HitSketchWriter.class,
+        RollupStatsReader.class, ApproximateUniqueStatsReader.class})
+class HitRetentionServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 3, 10, 0, 0);
+
+    @Autowired
+    private HitRetentionRepository hitRetentionRepository;
+
+    @Autowired
+    private HitRepository hitRepository;
+
+    @Autowired
+    private HitRollupWriter hitRollupWriter;
+
+    @Autowired
+    private HitSketchWriter hitSketchWriter;
+
+    @Autowired
+    private HitRollupRepository hitRollupRepository;
+
+    @Autowired
+    private HitSketchRepository hitSketchRepository;
+
+    @Autowired
+    private RollupStatsReader rollupStatsReader;
+
+    @Autowired
+    private ApproximateUniqueStatsReader approximateUniqueStatsReader;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HitRetentionService hitRetentionService;
+
+    @BeforeEach
+    void setUp() {
+        hitRetentionService = new HitRetentionService(hitRetentionRepository,
+                new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(hitRetentionService, "chunkSize", 7);
+    }
+
+    @Test
+    void purge_shouldDeleteOldRawHitsAndKeepTotals() {
+        List<EndpointHit> hits = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            hits.add(new EndpointHit(null, "ewm-main-service", "/events/1", "10.0.0." + (i % 10),
+                    CUTOFF.minusDays(3).plusMinutes(i * 97L)));
+        }
+        hits.add(new EndpointHit(null, "ewm-main-service", "/events/1", "10.0.0.99", CUTOFF.plusHours(1)));
+        hitRepository.saveAll(hits);
+        hitRollupWriter.increment(hits);
+        hitSketchWriter.add(hits);
+        hitSketchWriter.flush();
+
+        hitRetentionService.purge(CUTOFF);
+
+        assertThat(hitRepository.findAll()).singleElement()
+                .extracting(EndpointHit::getTimestamp).isEqualTo(CUTOFF.plusHours(1));
+        assertThat(hitRollupRepository.findAll())
+                .noneMatch(rollup -> rollup.getId().getGranularity() == RollupGranularity.MINUTE
+                        && rollup.getId().getBucketStart().isBefore(CUTOFF));
+        assertThat(hitSketchRepository.findAll())
+                .noneMatch(sketch -> sketch.getId().getGranularity() == RollupGranularity.HOUR
+                        && sketch.getId().getBucketStart().isBefore(CUTOFF));
+        assertThat(meterRegistry.counter("stats.retention.reclaimed", "table", "hits").count()).isEqualTo(40);
+        assertThat(meterRegistry.counter("stats.retention.compacted", "table", "hit_rollups").count())
+                .isEqualTo(40);
+
+        LocalDateTime start = CUTOFF.minusDays(5);
+        LocalDateTime end = CUTOFF.plusDays(1);
+        assertThat(rollupStatsReader.getStats(start, end, List.of("/events/1"), CUTOFF))
+                .singleElement().extracting(ViewStatsDto::getHits).isEqualTo(41L);
+        assertThat(approximateUniqueStatsReader.getStats(start, end, List.of("/events/1"), CUTOFF))
+                .singleElement().extracting(ViewStatsDto::getHits).isEqualTo(11L);
+    }
+
+    @Test
+    void purge_shouldPersistWatermarkAndNeverMoveItBack() {
+        assertThat(hitRetentionService.getCompactedBefore()).isNull();
+
+        hitRetentionService.purge(CUTOFF);
+        hitRetentionService.purge(CUTOFF.minusDays(1));
+
+        assertThat(hitRetentionService.getCompactedBefore()).isEqualTo(CUTOFF);
+
+        hitRetentionService.purge(CUTOFF.plusDays(1));
+
+        assertThat(hitRetentionService.getCompactedBefore()).isEqualTo(CUTOFF.plusDays(1));
+    }
+}
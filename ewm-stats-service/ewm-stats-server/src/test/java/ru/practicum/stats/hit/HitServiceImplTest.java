@@ -1,14 +1,24 @@
 package ru.practicum.stats.hit;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.HitBatchResultDto;
+import ru.practicum.stats.rollup.HitRollupWriter;
+import ru.practicum.stats.rollup.HitSketchWriter;
 
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -17,6 +27,18 @@ class HitServiceImplTest {
     @Mock
     private HitRepository hitRepository;
 
+    @Mock
+    private HitBatchRepository hitBatchRepository;
+
+    @Mock
+    private HitRollupWriter hitRollupWriter;
+
+    @Mock
+    private HitSketchWriter hitSketchWriter;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private HitServiceImpl hitService;
 
@@ -32,5 +54,48 @@ class HitServiceImplTest {
         hitService.save(dto);
 
         verify(hitRepository, times(1)).save(any());
+        verify(hitRollupWriter).increment(argThat(hits -> hits.size() == 1));
+        verify(hitSketchWriter).add(argThat(hits -> hits.size() == 1));
+    }
+
+    @Test
+    void saveAll_ShouldInsertValidHitsAndCountRejected() {
+        EndpointHitDto valid = EndpointHitDto.builder()
+                .app("svc")
+                .uri("/events/1")
+                .ip("127.0.0.1")
+                .timestamp(LocalDateTime.now())
+                .build();
+        EndpointHitDto withoutTimestamp = EndpointHitDto.builder()
+                .app("svc")
+                .uri("/events/2")
+                .ip("127.0.0.1")
+                .build();
+
+        HitBatchResultDto result = hitService.saveAll(Arrays.asList(valid, withoutTimestamp, null).iterator());
+
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        verify(hitBatchRepository, times(1)).insertAll(argThat(hits -> hits.size() == 1));
+        verify(hitRepository, never()).save(any());
+    }
+
+    @Test
+    void saveAll_ShouldSplitLargeBatchIntoJdbcChunks() {
+        List<EndpointHitDto> hits = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            hits.add(new EndpointHitDto("svc", "/events/" + i, "10.0.0.1", LocalDateTime.now()));
+        }
+        List<Integer> chunkSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            chunkSizes.add(invocation.<List<EndpointHit>>getArgument(0).size());
+            return null;
+        }).when(hitBatchRepository).insertAll(any());
+
+        HitBatchResultDto result = hitService.saveAll(hits.iterator());
+
+        assertThat(result.getAccepted()).isEqualTo(2500);
+        assertThat(result.getRejected()).isZero();
+        assertThat(chunkSizes).containsExactly(1000, 1000, 500);
     }
-}
\ No newline at end of file
+}
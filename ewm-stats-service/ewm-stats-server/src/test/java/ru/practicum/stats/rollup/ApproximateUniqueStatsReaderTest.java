@@ -0,0 +1,103 @@
+package ru.practicum.stats.rollup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.stats.hit.EndpointHit;
+import ru.practicum.stats.hit.HitRepository;
+import ru.practicum.stats.stats.StatsRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest(properties = "stats.sketches.flush-interval=1h")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ApproximateUniqueStatsReader.class, HitSketchWriter.class})
+class ApproximateUniqueStatsReaderTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    @Autowired
+    private ApproximateUniqueStatsReader approximateUniqueStatsReader;
+
+    @Autowired
+    private HitSketchWriter hitSketchWriter;
+
+    @Autowired
+    private HitRepository hitRepository;
+
+    @Autowired
+    private StatsRepository statsRepository;
+
+    @Autowired
+    private HitSketchRepository hitSketchRepository;
+
+    @Test
+    void getStats_shouldApproximateDistinctIpCount() {
+        Random random = new Random(7);
+        List<EndpointHit> hits = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            String uri = random.nextBoolean() ? "/events/1" : "/events/2";
+            hits.add(new EndpointHit(null, "ewm-main-service", uri, "10.0." + random.nextInt(8) + "."
+                    + random.nextInt(256), ORIGIN.plusSeconds(random.nextInt(3 * 24 * 3600))));
+        }
+        hitRepository.saveAll(hits);
+        hitSketchWriter.add(hits.subList(0, 1_000));
+        hitSketchWriter.add(hits.subList(1_000, hits.size()));
+        hitSketchWriter.flush();
+
+        LocalDateTime start = ORIGIN.plusMinutes(90).plusSeconds(17);
+        LocalDateTime end = ORIGIN.plusDays(2).plusMinutes(45);
+        Map<String, Long> exact = statsRepository.getStatsUniqueWithoutUriFilter(start, end).stream()
+                .collect(Collectors.toMap(ViewStatsDto::getUri, ViewStatsDto::getHits));
+
+        List<ViewStatsDto> approximate = approximateUniqueStatsReader.getStats(start, end, null, null);
+
+        assertThat(approximate).hasSize(2).allSatisfy(stats ->
+                assertThat((double) stats.getHits()).isCloseTo(exact.get(stats.getUri()),
+                        within(exact.get(stats.getUri()) * 0.05)));
+    }
+
+    @Test
+    void getStats_shouldCountRepeatedIpOnce() {
+        List<EndpointHit> hits = List.of(
+                new EndpointHit(null, "ewm-main-service", "/events/1", "10.0.0.1", ORIGIN.plusHours(1)),
+                new EndpointHit(null, "ewm-main-service", "/events/1", "10.0.0.1", ORIGIN.plusDays(1)),
+                new EndpointHit(null, "ewm-main-service", "/events/1", "10.0.0.2", ORIGIN.plusDays(1)));
+        hitRepository.saveAll(hits);
+        hitSketchWriter.add(hits);
+        hitSketchWriter.flush();
+
+        assertThat(approximateUniqueStatsReader.getStats(ORIGIN, ORIGIN.plusDays(2), List.of("/events/1"), null))
+                .singleElement()
+                .extracting(ViewStatsDto::getHits)
+                .isEqualTo(2L);
+    }
+
+    @Test
+    void add_shouldWriteSketchesOnlyOnFlush() {
+        List<EndpointHit> hits = List.of(
+                new EndpointHit(null, "ewm-main-service", "/events/1", "10.0.0.1", ORIGIN.plusHours(1)),
+                new EndpointHit(null, "ewm-main-service", "/events/1", "10.0.0.2", ORIGIN.plusHours(1)));
+        hitSketchWriter.add(hits.subList(0, 1));
+        hitSketchWriter.add(hits.subList(1, 2));
+
+        assertThat(hitSketchRepository.count()).isZero();
+
+        hitSketchWriter.flush();
+
+        assertThat(hitSketchRepository.findAll()).hasSize(HitSketchWriter.GRANULARITIES.size())
+                .allSatisfy(sketch -> assertThat(HyperLogLog.fromBytes(sketch.getRegisters()).estimate())
+                        .isEqualTo(2L));
+    }
+}
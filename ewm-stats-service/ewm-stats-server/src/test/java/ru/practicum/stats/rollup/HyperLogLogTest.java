@@ -0,0 +1,66 @@
+package ru.practicum.stats.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_shouldBeExactForSmallCardinalities() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 20; i++) {
+            sketch.add("10.0.0." + i);
+            sketch.add("10.0.0." + i);
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(20);
+    }
+
+    @Test
+    void estimate_shouldStayWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog();
+        int distinct = 200_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add(ip(i));
+        }
+
+        // 3 стандартные ошибки (3 * 1.6%)
+        assertThat((double) sketch.estimate()).isCloseTo(distinct, within(distinct * 0.05));
+    }
+
+    @Test
+    void merge_shouldEqualSketchOfUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (int i = 0; i < 5_000; i++) {
+            first.add(ip(i));
+            union.add(ip(i));
+        }
+        for (int i = 2_500; i < 10_000; i++) {
+            second.add(ip(i));
+            union.add(ip(i));
+        }
+
+        assertThat(first.merge(second)).isTrue();
+        assertThat(first).isEqualTo(union);
+        assertThat(first.merge(second)).isFalse();
+    }
+
+    @Test
+    void fromBytes_shouldRestoreSketch() {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add("192.168.0.1");
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored).isEqualTo(sketch);
+        assertThat(restored.estimate()).isEqualTo(1);
+    }
+
+    private String ip(int i) {
+        return (i >>> 24) + "." + ((i >>> 16) & 0xff) + "." + ((i >>> 8) & 0xff) + "." + (i & 0xff);
+    }
+}
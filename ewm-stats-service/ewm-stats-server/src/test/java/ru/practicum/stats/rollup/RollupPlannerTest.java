@@ -0,0 +1,83 @@
+package ru.practicum.stats.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupPlannerTest {
+
+    @Test
+    void plan_shouldUseCoarsestBucketsAndRawEdges() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 22, 58, 30);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 4, 1, 2, 15);
+
+        List<RollupSegment> segments = RollupPlanner.plan(start, end);
+
+        assertThat(segments).containsExactly(
+                RollupSegment.raw(start, LocalDateTime.of(2025, 1, 1, 22, 59), false),
+                RollupSegment.rollup(RollupGranularity.MINUTE,
+                        LocalDateTime.of(2025, 1, 1, 22, 59), LocalDateTime.of(2025, 1, 1, 23, 0)),
+                RollupSegment.rollup(RollupGranularity.HOUR,
+                        LocalDateTime.of(2025, 1, 1, 23, 0), LocalDateTime.of(2025, 1, 2, 0, 0)),
+                RollupSegment.rollup(RollupGranularity.DAY,
+                        LocalDateTime.of(2025, 1, 2, 0, 0), LocalDateTime.of(2025, 1, 4, 0, 0)),
+                RollupSegment.rollup(RollupGranularity.HOUR,
+                        LocalDateTime.of(2025, 1, 4, 0, 0), LocalDateTime.of(2025, 1, 4, 1, 0)),
+                RollupSegment.rollup(RollupGranularity.MINUTE,
+                        LocalDateTime.of(2025, 1, 4, 1, 0), LocalDateTime.of(2025, 1, 4, 1, 2)),
+                RollupSegment.raw(LocalDateTime.of(2025, 1, 4, 1, 2), end, true));
+    }
+
+    @Test
+    void plan_shouldKeepInclusiveEndOnAlignedBoundary() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        List<RollupSegment> segments = RollupPlanner.plan(start, end);
+
+        assertThat(segments).containsExactly(
+                RollupSegment.rollup(RollupGranularity.HOUR, start, end),
+                RollupSegment.raw(end, end, true));
+    }
+
+    @Test
+    void plan_shouldUseOnlyRawHitsForIntervalShorterThanMinute() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0, 10);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 1, 10, 0, 50);
+
+        assertThat(RollupPlanner.plan(start, end)).containsExactly(RollupSegment.raw(start, end, true));
+    }
+
+    @Test
+    void plan_shouldUseOnlyRetainedBucketsBeforeCompactionBoundary() {
+        LocalDateTime compactedBefore = LocalDateTime.of(2025, 1, 3, 0, 0);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 30);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 3, 0, 0, 20);
+
+        List<RollupSegment> segments = RollupPlanner.plan(start, end, RollupPlanner.ALL, compactedBefore,
+                List.of(RollupGranularity.DAY, RollupGranularity.HOUR));
+
+        assertThat(segments).containsExactly(
+                RollupSegment.rollup(RollupGranularity.HOUR,
+                        LocalDateTime.of(2025, 1, 1, 10, 0), LocalDateTime.of(2025, 1, 2, 0, 0)),
+                RollupSegment.rollup(RollupGranularity.DAY,
+                        LocalDateTime.of(2025, 1, 2, 0, 0), compactedBefore),
+                RollupSegment.raw(compactedBefore, end, true));
+    }
+
+    @Test
+    void plan_shouldWidenRangeInsideCompactedPeriodToRetainedBuckets() {
+        LocalDateTime compactedBefore = LocalDateTime.of(2025, 1, 3, 0, 0);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 30);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 1, 15, 0);
+
+        List<RollupSegment> segments = RollupPlanner.plan(start, end, RollupPlanner.ALL, compactedBefore,
+                List.of(RollupGranularity.DAY, RollupGranularity.HOUR));
+
+        assertThat(segments).containsExactly(RollupSegment.rollup(RollupGranularity.HOUR,
+                LocalDateTime.of(2025, 1, 1, 10, 0), LocalDateTime.of(2025, 1, 1, 16, 0)));
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.stats.rollup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.stats.hit.EndpointHit;
+import ru.practicum.stats.hit.HitRepository;
+import ru.practicum.stats.stats.StatsRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RollupStatsReader.class, HitRollupWriter.class})
+class RollupStatsReaderTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final List<String> URIS = List.of("/events", "/events/1", "/events/2");
+
+    @Autowired
+    private RollupStatsReader rollupStatsReader;
+
+    @Autowired
+    private HitRollupWriter hitRollupWriter;
+
+    @Autowired
+    private HitRepository hitRepository;
+
+    @Autowired
+    private StatsRepository statsRepository;
+
+    @Test
+    void getStats_shouldMatchRawHitCounts() {
+        Random random = new Random(42);
+        List<EndpointHit> hits = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime timestamp = ORIGIN.plusSeconds(random.nextInt(3 * 24 * 3600));
+            hits.add(new EndpointHit(null, "ewm-main-service", URIS.get(random.nextInt(URIS.size())),
+                    "10.0.0." + random.nextInt(50), timestamp));
+        }
+        // Хит ровно на границе интервала должен учитываться, как и в BETWEEN
+        hits.add(new EndpointHit(null, "ewm-main-service", "/events", "10.0.0.1", ORIGIN.plusDays(1)));
+        hitRepository.saveAll(hits);
+        hitRollupWriter.increment(hits.subList(0, 200));
+        hitRollupWriter.increment(hits.subList(200, hits.size()));
+
+        for (int i = 0; i < 20; i++) {
+            LocalDateTime start = ORIGIN.plusSeconds(random.nextInt(24 * 3600));
+            LocalDateTime end = start.plusSeconds(random.nextInt(2 * 24 * 3600));
+            assertSameStats(start, end, null);
+            assertSameStats(start, end, List.of("/events", "/events/2"));
+        }
+        assertSameStats(ORIGIN, ORIGIN.plusDays(1), null);
+    }
+
+    @Test
+    void increment_shouldAccumulateExistingBuckets() {
+        EndpointHit hit = new EndpointHit(null, "ewm-main-service", "/events", "10.0.0.1", ORIGIN.plusMinutes(5));
+        hitRepository.save(hit);
+
+        hitRollupWriter.increment(List.of(hit));
+        hitRollupWriter.increment(List.of(hit, hit));
+
+        assertThat(rollupStatsReader.getStats(ORIGIN, ORIGIN.plusDays(1), List.of("/events"), null))
+                .singleElement()
+                .extracting(ViewStatsDto::getHits)
+                .isEqualTo(3L);
+    }
+
+    private void assertSameStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        List<ViewStatsDto> expected = uris == null
+                ? statsRepository.getStatsWithoutUriFilter(start, end)
+                : statsRepository.getStats(start, end, uris);
+
+        assertThat(rollupStatsReader.getStats(start, end, uris, null))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+}
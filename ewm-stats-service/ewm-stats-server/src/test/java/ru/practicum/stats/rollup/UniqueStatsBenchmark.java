@@ -0,0 +1,135 @@
+package ru.practicum.stats.rollup;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Точный COUNT(DISTINCT ip) по сырым хитам против объединения суточных HyperLogLog-скетчей
+ * за тот же период. Данные — в H2, поэтому важны относительные, а не абсолютные цифры.
+ * Запуск: mvn -pl ewm-stats-service/ewm-stats-server -Pbenchmark test-compile exec:exec -Dbenchmark=UniqueStats
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UniqueStatsBenchmark {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int DAYS = 30;
+    private static final List<String> URIS = List.of("/events/1", "/events/2", "/events/3", "/events/4");
+
+    private static final String EXACT_SQL = """
+            SELECT app, uri, COUNT(DISTINCT ip) FROM hits
+            WHERE timestamp BETWEEN ? AND ? AND uri IN (?, ?, ?, ?)
+            GROUP BY app, uri""";
+
+    private static final String SKETCH_SQL = """
+            SELECT app, uri, registers FROM hit_sketches
+            WHERE granularity = 'DAY' AND bucket_start >= ? AND bucket_start < ? AND uri IN (?, ?, ?, ?)""";
+
+    @Param({"100000", "1000000"})
+    private int hits;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // Без OPTIMIZE_REUSE_RESULTS H2 возвращает закешированный результат повторного запроса
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:bench" + hits + ";MODE=PostgreSQL;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE hits (id BIGINT GENERATED BY DEFAULT AS IDENTITY, app VARCHAR, uri VARCHAR,
+                        ip VARCHAR, timestamp TIMESTAMP)""");
+            statement.execute("CREATE INDEX idx_hits_uri_timestamp ON hits (uri, timestamp)");
+            statement.execute("""
+                    CREATE TABLE hit_sketches (granularity VARCHAR(8), app VARCHAR, uri VARCHAR,
+                        bucket_start TIMESTAMP, registers VARBINARY,
+                        PRIMARY KEY (granularity, uri, bucket_start, app))""");
+        }
+
+        Random random = new Random(1);
+        Map<BucketKey, HyperLogLog> sketches = new TreeMap<>(BucketKey.ORDER);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO hits (app, uri, ip, timestamp) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < hits; i++) {
+                String uri = URIS.get(random.nextInt(URIS.size()));
+                String ip = "10." + random.nextInt(4) + "." + random.nextInt(256) + "." + random.nextInt(256);
+                LocalDateTime timestamp = ORIGIN.plusSeconds(random.nextInt(DAYS * 24 * 3600));
+                insert.setString(1, "ewm-main-service");
+                insert.setString(2, uri);
+                insert.setString(3, ip);
+                insert.setTimestamp(4, Timestamp.valueOf(timestamp));
+                insert.addBatch();
+                sketches.computeIfAbsent(BucketKey.of(RollupGranularity.DAY, "ewm-main-service", uri, timestamp),
+                        key -> new HyperLogLog()).add(ip);
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO hit_sketches VALUES (?, ?, ?, ?, ?)")) {
+            for (Map.Entry<BucketKey, HyperLogLog> entry : sketches.entrySet()) {
+                BucketKey key = entry.getKey();
+                insert.setString(1, key.granularity().name());
+                insert.setString(2, key.app());
+                insert.setString(3, key.uri());
+                insert.setTimestamp(4, Timestamp.valueOf(key.bucketStart()));
+                insert.setBytes(5, entry.getValue().toBytes());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void exactCountDistinct(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(EXACT_SQL)) {
+            query.setTimestamp(1, Timestamp.valueOf(ORIGIN));
+            query.setTimestamp(2, Timestamp.valueOf(ORIGIN.plusDays(DAYS)));
+            bindUris(query, 3);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getLong(3));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void approximateSketchMerge(Blackhole blackhole) throws SQLException {
+        Map<String, HyperLogLog> merged = new HashMap<>();
+        try (PreparedStatement query = connection.prepareStatement(SKETCH_SQL)) {
+            query.setTimestamp(1, Timestamp.valueOf(ORIGIN));
+            query.setTimestamp(2, Timestamp.valueOf(ORIGIN.plusDays(DAYS)));
+            bindUris(query, 3);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    merged.computeIfAbsent(rs.getString(1) + rs.getString(2), key -> new HyperLogLog())
+                            .merge(HyperLogLog.fromBytes(rs.getBytes(3)));
+                }
+            }
+        }
+        merged.values().forEach(sketch -> blackhole.consume(sketch.estimate()));
+    }
+
+    private void bindUris(PreparedStatement query, int from) throws SQLException {
+        for (int i = 0; i < URIS.size(); i++) {
+            query.setString(from + i, URIS.get(i));
+        }
+    }
+}
@@ -57,4 +57,51 @@ class StatsControllerTest {
                 .andExpect(jsonPath("$[0].uri").value("/event"))
                 .andExpect(jsonPath("$[0].hits").value(5));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetStats_whenApproximateUnique_usesSketches() throws Exception {
+        Mockito.when(statsService.getApproximateUniqueStats(any(), any(), any()))
+                .thenReturn(List.of(new ViewStatsDto("main-service", "/event", 3L)));
+
+        mockMvc.perform(get("/stats")
+                        .param("start", LocalDateTime.now().minusDays(1).format(formatter))
+                        .param("end", LocalDateTime.now().format(formatter))
+                        .param("uris", "/event")
+                        .param("unique", "true")
+                        .param("approximate", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hits").value(3));
+
+        Mockito.verify(statsService, Mockito.never()).getStats(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testGetStats_whenUniqueRangeIsCompacted_marksResponseApproximate() throws Exception {
+        Mockito.when(statsService.getStats(any(), any(), any(), eq(true)))
+                .thenReturn(List.of(new ViewStatsDto("main-service", "/event", 4L)));
+        Mockito.when(statsService.isCompacted(any())).thenReturn(true);
+
+        mockMvc.perform(get("/stats")
+                        .param("start", LocalDateTime.now().minusYears(1).format(formatter))
+                        .param("end", LocalDateTime.now().format(formatter))
+                        .param("uris", "/event")
+                        .param("unique", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(StatsController.APPROXIMATE_HEADER, "true"))
+                .andExpect(jsonPath("$[0].hits").value(4));
+    }
+
+    @Test
+    void testGetStats_whenUniqueRangeIsNotCompacted_hasNoApproximateHeader() throws Exception {
+        Mockito.when(statsService.getStats(any(), any(), any(), eq(true)))
+                .thenReturn(List.of(new ViewStatsDto("main-service", "/event", 4L)));
+
+        mockMvc.perform(get("/stats")
+                        .param("start", LocalDateTime.now().minusDays(1).format(formatter))
+                        .param("end", LocalDateTime.now().format(formatter))
+                        .param("uris", "/event")
+                        .param("unique", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(StatsController.APPROXIMATE_HEADER));
+    }
+}
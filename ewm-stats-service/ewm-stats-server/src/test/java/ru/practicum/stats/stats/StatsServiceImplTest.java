@@ -5,13 +5,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.stats.hit.HitRetentionService;
+import ru.practicum.stats.rollup.ApproximateUniqueStatsReader;
+import ru.practicum.stats.rollup.RollupStatsReader;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class StatsServiceImplTest {
@@ -19,6 +25,15 @@ class StatsServiceImplTest {
     @Mock
     private StatsRepository statsRepository;
 
+    @Mock
+    private RollupStatsReader rollupStatsReader;
+
+    @Mock
+    private ApproximateUniqueStatsReader approximateUniqueStatsReader;
+
+    @Mock
+    private HitRetentionService hitRetentionService;
+
     @InjectMocks
     private StatsServiceImpl statsService;
 
@@ -28,6 +43,27 @@ class StatsServiceImplTest {
 
         verify(statsRepository).getStats(any(), any(), any());
         verify(statsRepository, never()).getStatsUnique(any(), any(), any());
+        verify(rollupStatsReader, never()).getStats(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReadRollups_WhenUniqueIsFalseAndRollupsEnabled() {
+        ReflectionTestUtils.setField(statsService, "rollupEnabled", true);
+
+        statsService.getStats(LocalDateTime.MIN, LocalDateTime.MAX, List.of("/a"), false);
+
+        verify(rollupStatsReader).getStats(any(), any(), any(), any());
+        verify(statsRepository, never()).getStats(any(), any(), any());
+    }
+
+    @Test
+    void shouldIgnoreRollups_WhenUniqueIsTrue() {
+        ReflectionTestUtils.setField(statsService, "rollupEnabled", true);
+
+        statsService.getStats(LocalDateTime.MIN, LocalDateTime.MAX, List.of("/a"), true);
+
+        verify(statsRepository).getStatsUnique(any(), any(), any());
+        verify(rollupStatsReader, never()).getStats(any(), any(), any(), any());
     }
 
     @Test
@@ -37,4 +73,49 @@ class StatsServiceImplTest {
         verify(statsRepository).getStatsUnique(any(), any(), any());
         verify(statsRepository, never()).getStats(any(), any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldEstimateUnique_WhenRangeStartsBeforeCompactionBoundary() {
+        LocalDateTime compactedBefore = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(hitRetentionService.getCompactedBefore()).thenReturn(compactedBefore);
+
+        statsService.getStats(compactedBefore.minusDays(1), compactedBefore.plusDays(1), List.of("/a"), true);
+
+        verify(approximateUniqueStatsReader).getStats(any(), any(), any(), eq(compactedBefore));
+        verify(statsRepository, never()).getStatsUnique(any(), any(), any());
+    }
+
+    @Test
+    void shouldCountUniqueExactly_WhenRangeStartsAfterCompactionBoundary() {
+        LocalDateTime compactedBefore = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(hitRetentionService.getCompactedBefore()).thenReturn(compactedBefore);
+
+        statsService.getStats(compactedBefore, compactedBefore.plusDays(1), List.of("/a"), true);
+
+        verify(statsRepository).getStatsUnique(any(), any(), any());
+        verify(approximateUniqueStatsReader, never()).getStats(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldUseCompactionWatermark_WhenApproximateUniqueRequested() {
+        LocalDateTime compactedBefore = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(hitRetentionService.getCompactedBefore()).thenReturn(compactedBefore);
+
+        statsService.getApproximateUniqueStats(compactedBefore.minusDays(1), compactedBefore.plusDays(1),
+                List.of("/a"));
+
+        verify(approximateUniqueStatsReader).getStats(any(), any(), any(), eq(compactedBefore));
+        verify(statsRepository, never()).getStatsUnique(any(), any(), any());
+    }
+
+    @Test
+    void shouldReadRollups_WhenRangeStartsBeforeCompactionBoundaryAndRollupsDisabled() {
+        LocalDateTime compactedBefore = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(hitRetentionService.getCompactedBefore()).thenReturn(compactedBefore);
+
+        statsService.getStats(compactedBefore.minusDays(1), compactedBefore.plusDays(1), List.of("/a"), false);
+
+        verify(rollupStatsReader).getStats(any(), any(), any(), any());
+        verify(statsRepository, never()).getStats(any(), any(), any());
+    }
+}